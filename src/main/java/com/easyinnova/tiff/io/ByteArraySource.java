@@ -0,0 +1,58 @@
+/**
+ * <h1>ByteArraySource.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte source over an array of bytes.<br>
+ * The array is read in place, without copying it.
+ */
+public class ByteArraySource extends ByteBufferSource {
+
+  /**
+   * Instantiates a new byte array source.
+   *
+   * @param bytes the bytes of the file
+   */
+  public ByteArraySource(byte[] bytes) {
+    this(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Instantiates a new byte array source over a part of an array.
+   *
+   * @param bytes the array
+   * @param offset the offset of the file in the array
+   * @param length the file size
+   */
+  public ByteArraySource(byte[] bytes, int offset, int length) {
+    super(ByteBuffer.wrap(bytes, offset, length));
+  }
+}
@@ -0,0 +1,252 @@
+/**
+ * <h1>ByteBufferReader.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import com.easyinnova.tiff.model.ByteOrder;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Random access reader of primitive values over {@link ByteBuffer} views of the file.<br>
+ * Multi-byte values are read with a single absolute get in the selected byte order, instead of
+ * being assembled byte by byte.<br>
+ * The data can be split in several windows of a fixed size (see
+ * {@link SegmentedMappedInputStream}), each one extending {@link #WINDOW_OVERLAP} bytes over the
+ * next one, so that any value up to 8 bytes is always contained in a single window.
+ */
+public class ByteBufferReader implements PageLoader {
+
+  /** The number of bytes that each window extends over the next one. */
+  public static final int WINDOW_OVERLAP = 8;
+
+  /** The windows of the data in big endian order. */
+  private final ByteBuffer[] bigEndian;
+
+  /** The windows of the data in little endian order. */
+  private final ByteBuffer[] littleEndian;
+
+  /** The windows used for the current byte order. */
+  private ByteBuffer[] current;
+
+  /** The window size, as a power of two. */
+  private final int windowShift;
+
+  /** The mask to get the position inside a window. */
+  private final long windowMask;
+
+  /** The data size in bytes. */
+  private final long size;
+
+  /**
+   * Instantiates a new byte buffer reader.<br>
+   * The given buffer is not modified, the reader works on its own views of it.
+   *
+   * @param buffer the buffer containing the whole file
+   */
+  public ByteBufferReader(ByteBuffer buffer) {
+    this(new ByteBuffer[] {buffer}, 31, buffer.capacity());
+  }
+
+  /**
+   * Instantiates a new byte buffer reader over a set of windows.<br>
+   * The window i must contain the data from the position i * 2^windowShift, and extend
+   * {@link #WINDOW_OVERLAP} bytes beyond the start of the next window (unless it is the last one).
+   *
+   * @param windows the windows
+   * @param windowShift the window size, as a power of two
+   * @param size the total data size in bytes
+   */
+  public ByteBufferReader(ByteBuffer[] windows, int windowShift, long size) {
+    bigEndian = new ByteBuffer[windows.length];
+    littleEndian = new ByteBuffer[windows.length];
+    for (int i = 0; i < windows.length; i++) {
+      bigEndian[i] = windows[i].duplicate();
+      bigEndian[i].clear();
+      bigEndian[i].order(java.nio.ByteOrder.BIG_ENDIAN);
+      littleEndian[i] = windows[i].duplicate();
+      littleEndian[i].clear();
+      littleEndian[i].order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    }
+    current = bigEndian;
+    this.windowShift = windowShift;
+    windowMask = (1L << windowShift) - 1;
+    this.size = size;
+  }
+
+  /**
+   * Sets the byte order used to read multi-byte values.
+   *
+   * @param byteOrder the byte order
+   */
+  public void setByteOrder(ByteOrder byteOrder) {
+    current = byteOrder == ByteOrder.LITTLE_ENDIAN ? littleEndian : bigEndian;
+  }
+
+  /**
+   * Data size in bytes.
+   *
+   * @return the size
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Reads an unsigned byte.
+   *
+   * @param position the position
+   * @return the byte value (0..255)
+   * @throws EOFException if the position is out of the data
+   */
+  public int readUnsignedByte(long position) throws EOFException {
+    return window(position, 1).get(index(position)) & 0xFF;
+  }
+
+  /**
+   * Reads a byte.
+   *
+   * @param position the position
+   * @return the byte
+   * @throws EOFException if the position is out of the data
+   */
+  public byte readByte(long position) throws EOFException {
+    return window(position, 1).get(index(position));
+  }
+
+  /**
+   * Reads a short (2 bytes).
+   *
+   * @param position the position
+   * @return the short
+   * @throws EOFException if the value is out of the data
+   */
+  public short readShort(long position) throws EOFException {
+    return window(position, 2).getShort(index(position));
+  }
+
+  /**
+   * Reads an int (4 bytes).
+   *
+   * @param position the position
+   * @return the int
+   * @throws EOFException if the value is out of the data
+   */
+  public int readInt(long position) throws EOFException {
+    return window(position, 4).getInt(index(position));
+  }
+
+  /**
+   * Reads a long (8 bytes).
+   *
+   * @param position the position
+   * @return the long
+   * @throws EOFException if the value is out of the data
+   */
+  public long readLong(long position) throws EOFException {
+    return window(position, 8).getLong(index(position));
+  }
+
+  @Override public int load(long position, ByteBuffer page) {
+    if (position < 0 || position >= size) {
+      return -1;
+    }
+    int total = (int) Math.min(page.remaining(), size - position);
+    int done = 0;
+    while (done < total) {
+      ByteBuffer window = current[(int) (position >>> windowShift)].duplicate();
+      int index = index(position);
+      int n = Math.min(total - done, window.limit() - index);
+      window.limit(index + n);
+      window.position(index);
+      page.put(window);
+      done += n;
+      position += n;
+    }
+    return total;
+  }
+
+  /**
+   * Writes a range of the data to a channel, in bulk from the buffers.
+   *
+   * @param position the position of the first byte
+   * @param count the maximum number of bytes
+   * @param target the target channel
+   * @return the number of bytes written (less than count at the end of the data)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public long transferTo(long position, long count, WritableByteChannel target)
+      throws IOException {
+    if (position < 0 || position >= size) {
+      return 0;
+    }
+    long total = Math.min(count, size - position);
+    long done = 0;
+    while (done < total) {
+      ByteBuffer window = current[(int) (position >>> windowShift)].duplicate();
+      int index = index(position);
+      int n = (int) Math.min(total - done, window.limit() - index);
+      window.limit(index + n);
+      window.position(index);
+      while (window.hasRemaining()) {
+        target.write(window);
+      }
+      done += n;
+      position += n;
+    }
+    return total;
+  }
+
+  /**
+   * Checks that the value fits in the data and gets the window that contains it.
+   *
+   * @param position the position of the value
+   * @param length the value length in bytes
+   * @return the window
+   * @throws EOFException if the value is out of the data
+   */
+  private ByteBuffer window(long position, int length) throws EOFException {
+    if (position < 0 || position + length > size) {
+      throw new EOFException();
+    }
+    return current[(int) (position >>> windowShift)];
+  }
+
+  /**
+   * Gets the index of the position inside its window.
+   *
+   * @param position the position
+   * @return the index
+   */
+  private int index(long position) {
+    return (int) (position & windowMask);
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * <h1>ByteBufferSource.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte source over a {@link ByteBuffer}.<br>
+ * The data between the position and the limit of the buffer is read in place, without copying
+ * it.
+ */
+public class ByteBufferSource implements ByteSource {
+
+  /** The data. */
+  private final ByteBuffer buffer;
+
+  /**
+   * Instantiates a new byte buffer source.<br>
+   * The position and limit of the given buffer are not modified.
+   *
+   * @param buffer the buffer
+   */
+  public ByteBufferSource(ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  @Override public long size() {
+    return buffer.capacity();
+  }
+
+  @Override public ByteBuffer asByteBuffer() {
+    return buffer;
+  }
+
+  @Override public int load(long position, ByteBuffer page) {
+    if (position < 0 || position >= buffer.capacity()) {
+      return -1;
+    }
+    ByteBuffer src = buffer.duplicate();
+    int n = (int) Math.min(page.remaining(), buffer.capacity() - position);
+    src.position((int) position);
+    src.limit((int) position + n);
+    page.put(src);
+    return n;
+  }
+
+  @Override public void close() {
+  }
+}
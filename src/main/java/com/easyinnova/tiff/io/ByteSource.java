@@ -0,0 +1,63 @@
+/**
+ * <h1>ByteSource.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Source of the bytes of a Tiff file that is not necessarily stored in the file system.<br>
+ * The data is read with positional reads (see {@link PageLoader}), so a source can be shared by
+ * several threads.
+ */
+public interface ByteSource extends PageLoader {
+
+  /**
+   * Data size in bytes.
+   *
+   * @return the size
+   */
+  long size();
+
+  /**
+   * Gets the whole data as a buffer, if it is already in memory.<br>
+   * The returned buffer starts at position 0 and its capacity is the data size. It is used
+   * without copying it, so it must not be modified while it is being read.
+   *
+   * @return the buffer, or null if the data is not in memory
+   */
+  ByteBuffer asByteBuffer();
+
+  /**
+   * Releases the resources used by the source.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  void close() throws IOException;
+}
@@ -0,0 +1,100 @@
+/**
+ * <h1>ChannelSource.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Byte source over a {@link SeekableByteChannel}.<br>
+ * File channels are read with positional reads. Other channels are positioned before each read,
+ * so their reads are serialized.
+ */
+public class ChannelSource implements ByteSource {
+
+  /** The channel. */
+  private final SeekableByteChannel channel;
+
+  /** The channel size, read once. */
+  private final long size;
+
+  /**
+   * Instantiates a new channel source.
+   *
+   * @param channel the channel (it is closed with the source)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public ChannelSource(SeekableByteChannel channel) throws IOException {
+    this.channel = channel;
+    size = channel.size();
+  }
+
+  @Override public long size() {
+    return size;
+  }
+
+  @Override public ByteBuffer asByteBuffer() {
+    return null;
+  }
+
+  @Override public int load(long position, ByteBuffer page) throws IOException {
+    if (position < 0 || position >= size) {
+      return -1;
+    }
+    int total = 0;
+    if (channel instanceof FileChannel) {
+      FileChannel fileChannel = (FileChannel) channel;
+      while (page.hasRemaining()) {
+        int n = fileChannel.read(page, position + total);
+        if (n < 0) {
+          break;
+        }
+        total += n;
+      }
+    } else {
+      synchronized (channel) {
+        channel.position(position);
+        while (page.hasRemaining()) {
+          int n = channel.read(page);
+          if (n < 0) {
+            break;
+          }
+          total += n;
+        }
+      }
+    }
+    return total;
+  }
+
+  @Override public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,329 @@
+/**
+ * <h1>HttpRangeSource.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Byte source over a remote file, read with HTTP range requests.<br>
+ * Only the blocks touched by the parser are downloaded. Fetched blocks are kept in an LRU cache,
+ * and the missing blocks of a read that are close to each other are fetched with a single
+ * request. For metadata reads, use a page size close to the block size (see
+ * {@link com.easyinnova.tiff.reader.TiffReader#setPageCache(int, int)}).<br>
+ * If the server ignores the range requests, the whole file is downloaded with the first request
+ * and read from memory afterwards.
+ */
+public class HttpRangeSource implements ByteSource {
+
+  /** The default block size (16 KB). */
+  public static final int DEFAULT_BLOCK_SIZE = 16384;
+
+  /** The default maximum number of cached blocks. */
+  public static final int DEFAULT_MAX_BLOCKS = 256;
+
+  /** The default maximum gap between two ranges fetched in a single request, in blocks. */
+  public static final int DEFAULT_MAX_GAP = 2;
+
+  /** The url. */
+  private final URL url;
+
+  /** The file size. */
+  private final long size;
+
+  /** The block size in bytes. */
+  private final int blockSize;
+
+  /** The maximum number of cached blocks. */
+  private final int maxBlocks;
+
+  /** The maximum gap between two ranges fetched in a single request, in blocks. */
+  private final int maxGap;
+
+  /** The cached blocks, by block number, in access order. */
+  private final LinkedHashMap<Long, byte[]> blocks;
+
+  /** The whole file, downloaded once if the server does not support range requests. */
+  private byte[] whole;
+
+  /** The number of requests sent. */
+  private long requests;
+
+  /** The number of bytes downloaded. */
+  private long bytesFetched;
+
+  /**
+   * Instantiates a new http range source with the default cache geometry.
+   *
+   * @param url the url of the file
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public HttpRangeSource(URL url) throws IOException {
+    this(url, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BLOCKS, DEFAULT_MAX_GAP);
+  }
+
+  /**
+   * Instantiates a new http range source.
+   *
+   * @param url the url of the file
+   * @param blockSize the block size in bytes
+   * @param maxBlocks the maximum number of cached blocks
+   * @param maxGap the maximum gap between two ranges fetched in a single request, in blocks
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public HttpRangeSource(URL url, int blockSize, int maxBlocks, int maxGap) throws IOException {
+    if (blockSize <= 0 || maxBlocks <= 0 || maxGap < 0) {
+      throw new IllegalArgumentException("Invalid cache geometry");
+    }
+    this.url = url;
+    this.blockSize = blockSize;
+    this.maxBlocks = maxBlocks;
+    this.maxGap = maxGap;
+    blocks = new LinkedHashMap<Long, byte[]>(maxBlocks * 2, 0.75f, true) {
+      @Override protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+        return size() > HttpRangeSource.this.maxBlocks;
+      }
+    };
+    size = fetchSize();
+  }
+
+  /**
+   * Gets the number of requests sent.
+   *
+   * @return the requests
+   */
+  public synchronized long getRequests() {
+    return requests;
+  }
+
+  /**
+   * Gets the number of bytes downloaded.
+   *
+   * @return the bytes
+   */
+  public synchronized long getBytesFetched() {
+    return bytesFetched;
+  }
+
+  @Override public long size() {
+    return size;
+  }
+
+  @Override public ByteBuffer asByteBuffer() {
+    return null;
+  }
+
+  @Override public synchronized int load(long position, ByteBuffer page) throws IOException {
+    if (position < 0 || position >= size) {
+      return -1;
+    }
+    int total = (int) Math.min(page.remaining(), size - position);
+    long first = position / blockSize;
+    long last = (position + total - 1) / blockSize;
+    if (whole == null) {
+      fetch(first, last);
+    }
+
+    int done = 0;
+    while (done < total) {
+      long pos = position + done;
+      if (whole != null) {
+        page.put(whole, (int) pos, total - done);
+        break;
+      }
+      byte[] block = blocks.get(pos / blockSize);
+      if (block == null) {
+        // evicted while fetching a read bigger than the cache
+        fetch(pos / blockSize, pos / blockSize);
+        if (whole != null) {
+          continue;
+        }
+        block = blocks.get(pos / blockSize);
+      }
+      int index = (int) (pos % blockSize);
+      int n = Math.min(total - done, block.length - index);
+      page.put(block, index, n);
+      done += n;
+    }
+    return total;
+  }
+
+  /**
+   * Downloads the blocks of the given range that are not cached.<br>
+   * Runs of missing blocks separated by at most maxGap cached blocks are fetched in one request.
+   *
+   * @param first the first block
+   * @param last the last block
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private void fetch(long first, long last) throws IOException {
+    List<long[]> ranges = new ArrayList<long[]>();
+    for (long b = first; b <= last; b++) {
+      if (!blocks.containsKey(b)) {
+        long[] previous = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+        if (previous != null && b - previous[1] - 1 <= maxGap) {
+          previous[1] = b;
+        } else {
+          ranges.add(new long[] {b, b});
+        }
+      }
+    }
+    for (long[] range : ranges) {
+      fetchRange(range[0], range[1]);
+      if (whole != null) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Downloads a range of blocks with a single request and caches them.
+   *
+   * @param first the first block
+   * @param last the last block
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private void fetchRange(long first, long last) throws IOException {
+    long start = first * blockSize;
+    long end = Math.min((last + 1) * blockSize, size) - 1;
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestProperty("Range", "bytes=" + start + "-" + end);
+    requests++;
+    InputStream in = connection.getInputStream();
+    try {
+      int code = connection.getResponseCode();
+      if (code == HttpURLConnection.HTTP_OK) {
+        // range not supported, download the whole file once instead of once per range
+        if (size > Integer.MAX_VALUE - 8) {
+          throw new IOException("Range requests not supported by " + url);
+        }
+        byte[] all = new byte[(int) size];
+        readFully(in, all);
+        bytesFetched += all.length;
+        whole = all;
+        blocks.clear();
+        return;
+      }
+      if (code != HttpURLConnection.HTTP_PARTIAL) {
+        throw new IOException("Cannot access " + url + ": HTTP " + code);
+      }
+      checkContentRange(connection.getHeaderField("Content-Range"), start, end);
+      for (long b = first; b <= last; b++) {
+        long blockStart = b * blockSize;
+        byte[] block = new byte[(int) Math.min(blockSize, size - blockStart)];
+        readFully(in, block);
+        bytesFetched += block.length;
+        if (!blocks.containsKey(b)) {
+          blocks.put(b, block);
+        }
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Checks that a partial response contains the requested range.
+   *
+   * @param contentRange the Content-Range header of the response
+   * @param start the first requested byte
+   * @param end the last requested byte
+   * @throws IOException if the response contains a different range
+   */
+  private void checkContentRange(String contentRange, long start, long end) throws IOException {
+    boolean valid = false;
+    if (contentRange != null && contentRange.startsWith("bytes ")) {
+      String[] parts = contentRange.substring("bytes ".length()).trim().split("[-/]");
+      try {
+        valid = parts.length == 3 && Long.parseLong(parts[0].trim()) == start
+            && Long.parseLong(parts[1].trim()) == end
+            && (parts[2].trim().equals("*") || Long.parseLong(parts[2].trim()) == size);
+      } catch (NumberFormatException ex) {
+        valid = false;
+      }
+    }
+    if (!valid) {
+      throw new IOException("Unexpected Content-Range " + contentRange + " for bytes " + start
+          + "-" + end + "/" + size + " of " + url);
+    }
+  }
+
+  /**
+   * Gets the size of the remote file.
+   *
+   * @return the size
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private long fetchSize() throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod("HEAD");
+    requests++;
+    int code = connection.getResponseCode();
+    long length = connection.getContentLengthLong();
+    connection.disconnect();
+    if (code != HttpURLConnection.HTTP_OK) {
+      // the length of an error page is not the size of the file
+      throw new IOException("Cannot access " + url + ": HTTP " + code);
+    }
+    if (length < 0) {
+      throw new IOException("Unknown size of " + url);
+    }
+    return length;
+  }
+
+  /**
+   * Reads bytes until the array is full.
+   *
+   * @param in the input stream
+   * @param b the array
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void readFully(InputStream in, byte[] b) throws IOException {
+    int done = 0;
+    while (done < b.length) {
+      int n = in.read(b, done, b.length - done);
+      if (n < 0) {
+        throw new IOException("Unexpected end of the response");
+      }
+      done += n;
+    }
+  }
+
+  @Override public synchronized void close() {
+    blocks.clear();
+    whole = null;
+  }
+}
@@ -30,14 +30,16 @@
  */
 package com.easyinnova.tiff.io;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * The Class InputBuffer.
  */
 public class InputBuffer {
   /** The internal buffer. */
-  private byte[] buffer;
+  private ByteBuffer buffer;
 
   /** The maximum internal buffer size. */
   private int maxBufferSize = 100000;
@@ -57,11 +59,42 @@ public class InputBuffer {
    * @param input the input
    */
   public InputBuffer(TiffInputStream input) {
+    this(input, 100000);
+  }
+
+  /**
+   * Instantiates a new input buffer of the given size.
+   *
+   * @param input the input
+   * @param size the buffer size
+   */
+  public InputBuffer(TiffInputStream input, int size) {
+    this(input, ByteBuffer.allocate(Math.max(size, 0)));
+    maxBufferSize = size;
+  }
+
+  /**
+   * Instantiates a new input buffer over the given page (for example, a page of a
+   * {@link PagePool}).
+   *
+   * @param input the input
+   * @param page the page
+   */
+  public InputBuffer(TiffInputStream input, ByteBuffer page) {
     this.input = input;
+    buffer = page;
+    maxBufferSize = page.capacity();
     bufferOffset = 0;
     currentBufferSize = 0;
-    if (maxBufferSize >= 0)
-      buffer = new byte[maxBufferSize];
+  }
+
+  /**
+   * Gets the internal page.
+   *
+   * @return the page
+   */
+  ByteBuffer getPage() {
+    return buffer;
   }
 
   /**
@@ -74,28 +107,27 @@ public class InputBuffer {
   private boolean checkBuffer(long offset) throws IOException {
     if (offset - bufferOffset < 0 || offset - bufferOffset >= currentBufferSize) {
       // the given offset is not contained in the buffer
-      bufferOffset = offset;
-      int index = 0;
-      input.seek(offset);
-      try {
-        //input.read(buffer, 0, maxBufferSize);
-        for (long pos = offset; pos < offset + maxBufferSize; pos++) {
-          int ch = input.read();
-          if (ch > -1) {
-            buffer[index] = (byte)ch;
-            index++;
-          }
-        }
-      } catch (IOException ex) {
-        // not possible
-        ex.printStackTrace();
-      }
-      currentBufferSize = index;
+      fill(offset);
       return true;
     }
     return false;
   }
 
+  /**
+   * Fills the buffer starting at the given offset position.
+   *
+   * @param offset the file position of the first byte of the buffer
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  void fill(long offset) throws IOException {
+    bufferOffset = offset;
+    // the buffer stays empty if the load fails
+    currentBufferSize = 0;
+    buffer.clear();
+    int filled = input.getPageLoader().load(offset, buffer);
+    currentBufferSize = Math.max(filled, 0);
+  }
+
   /**
    * Seek.
    *
@@ -125,7 +157,9 @@ public class InputBuffer {
       b = input.read();
     } else {
       checkBuffer(offset);
-      b = buffer[(int) (offset - bufferOffset)];
+      if (!seekSuccessful(offset))
+        throw new EOFException();
+      b = buffer.get((int) (offset - bufferOffset));
     }
     if (b < 0) return 256+b;
     return b;
@@ -137,9 +171,10 @@ public class InputBuffer {
       // old-school (no buffer optimization)
       b = (byte)input.read();
     } else {
-      if (checkBuffer(offset))
-        offset = offset;
-      b = (byte)buffer[(int) (offset - bufferOffset)];
+      checkBuffer(offset);
+      if (!seekSuccessful(offset))
+        throw new EOFException();
+      b = buffer.get((int) (offset - bufferOffset));
     }
     return b;
   }
@@ -70,6 +70,15 @@ public class MappedByteInputStream extends InputStream {
     return path;
   }
 
+  /**
+   * Gets the mapped buffer.
+   *
+   * @return the mapped buffer (null if the file could not be mapped)
+   */
+  public MappedByteBuffer getBuffer() {
+    return mb;
+  }
+
   @Override public int read() throws IOException {
     int val2;
     try {
@@ -87,7 +96,7 @@ public class MappedByteInputStream extends InputStream {
     closeDirectBuffer(mb);
   }
 
-  private void closeDirectBuffer(MappedByteBuffer cb) {
+  static void closeDirectBuffer(MappedByteBuffer cb) {
     if (cb==null || !cb.isDirect()) return;
 
     // we could use this type cast and call functions without reflection code,
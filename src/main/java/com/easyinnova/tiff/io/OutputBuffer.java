@@ -32,35 +32,50 @@ package com.easyinnova.tiff.io;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import com.easyinnova.tiff.model.ByteOrder;
 
 /**
- * The Class OutputBuffer.
+ * The Class OutputBuffer.<br>
+ * The output is buffered in a direct byte buffer that covers a window of the file, and written
+ * with positional bulk writes on the file channel. Seeking inside the window patches the
+ * buffered data; seeking outside it flushes the window and starts a new one at the new position.
+ * <br>
+ * The window only covers the range actually written to it. A write that would leave a gap in a
+ * window over data already written to the file flushes the window and starts a new one at the
+ * write position, so the data in the gap is never overwritten.
  */
 public class OutputBuffer {
-  /** The internal buffer. */
-  private int[] buffer;
+  /** The default internal buffer size (1 MB). */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
 
-  /** The internal buffer flag to know if the data is byte or int. */
-  private boolean[] isByte;
+  /** The internal buffer. */
+  private ByteBuffer buffer;
 
   /** The maximum internal buffer size. */
-  private int maxBufferSize = 1000;
+  private int maxBufferSize;
 
-  /** The current buffer size. */
+  /** The current buffer size (the highest written index + 1). */
   private int currentBufferSize;
 
   /** The buffer offset (file position of the 0th element). */
   private long bufferOffset;
 
+  /** The end of the data already written to the file. */
+  private long writtenEnd;
+
   /** The byte order. */
   ByteOrder byteOrder;
 
   /** The a file. */
   RandomAccessFile aFile;
 
+  /** The file channel. */
+  FileChannel channel;
+
   /** The position. */
-  int position;
+  long position;
 
   /**
    * Instantiates a new output buffer.
@@ -68,18 +83,49 @@ public class OutputBuffer {
    * @param byteOrder the byte order
    */
   public OutputBuffer(ByteOrder byteOrder) {
-    this.byteOrder = byteOrder;
+    this(byteOrder, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Instantiates a new output buffer of the given size.
+   *
+   * @param byteOrder the byte order
+   * @param size the internal buffer size
+   */
+  public OutputBuffer(ByteOrder byteOrder, int size) {
+    maxBufferSize = Math.max(size, 8);
+    buffer = ByteBuffer.allocateDirect(maxBufferSize);
+    setByteOrder(byteOrder);
     bufferOffset = 0;
     currentBufferSize = 0;
-    if (maxBufferSize >= 0) {
-      newBuffer(0);
-    }
+    position = 0;
   }
 
   public RandomAccessFile getStream() {
     return aFile;
   }
 
+  /**
+   * Gets the file channel.<br>
+   * The buffered data must be flushed before writing directly to the channel.
+   *
+   * @return the channel
+   */
+  public FileChannel getChannel() {
+    return channel;
+  }
+
+  /**
+   * Sets the byte order of the multi-byte values.
+   *
+   * @param byteOrder the byte order
+   */
+  public void setByteOrder(ByteOrder byteOrder) {
+    this.byteOrder = byteOrder;
+    buffer.order(byteOrder == ByteOrder.LITTLE_ENDIAN ? java.nio.ByteOrder.LITTLE_ENDIAN
+        : java.nio.ByteOrder.BIG_ENDIAN);
+  }
+
   /**
    * Creates the file.
    *
@@ -88,6 +134,7 @@ public class OutputBuffer {
    */
   public void Create(String filename) throws IOException {
     aFile = new RandomAccessFile(filename, "rw");
+    channel = aFile.getChannel();
   }
 
   /**
@@ -95,7 +142,7 @@ public class OutputBuffer {
    */
   public void close() {
     try {
-      writeBuffer();
+      flush();
       aFile.close();
     } catch (Exception ex) {
       /* everything is ok */
@@ -108,49 +155,66 @@ public class OutputBuffer {
    * @param offset the offset
    * @throws IOException Signals that an I/O exception has occurred.
    */
-  public void seek(int offset) throws IOException {
+  public void seek(long offset) throws IOException {
     if (!(offset >= bufferOffset && offset < bufferOffset + maxBufferSize)) {
-      writeBuffer();
-      newBuffer(offset);
-      aFile.seek(offset);
+      flush();
+      bufferOffset = offset;
     }
     position = offset;
   }
 
   /**
-   * New buffer.
+   * Writes the buffered data to the file, and empties the buffer.
    *
-   * @param offset the offset
+   * @throws IOException Signals that an I/O exception has occurred.
    */
-  private void newBuffer(int offset) {
-    if (maxBufferSize >= 0) {
-      buffer = new int[maxBufferSize];
-      isByte = new boolean[maxBufferSize];
-      bufferOffset = offset;
-      currentBufferSize = 0;
+  public void flush() throws IOException {
+    if (currentBufferSize > 0) {
+      ByteBuffer data = buffer.duplicate();
+      data.position(0);
+      data.limit(currentBufferSize);
+      long offset = bufferOffset;
+      while (data.hasRemaining()) {
+        offset += channel.write(data, offset);
+      }
+      writtenEnd = Math.max(writtenEnd, offset);
     }
+    bufferOffset = position;
+    currentBufferSize = 0;
   }
 
   /**
-   * Write byte.
+   * Gets the buffer index of the current position, with room for the given number of bytes.<br>
+   * If the value does not fit in the buffer, the buffer is flushed and moved to the current
+   * position.
    *
-   * @param v the v
+   * @param length the value length in bytes
+   * @return the index
    * @throws IOException Signals that an I/O exception has occurred.
    */
-  public void writeByteCurrentPosition(byte v) throws IOException {
-    int index = (int)(position - bufferOffset);
-    if (index < maxBufferSize) {
-      buffer[index] = v;
-      isByte[index] = true;
-      if (index + 1 > currentBufferSize) currentBufferSize = index + 1;
-      if (index + 1 >= maxBufferSize) {
-        writeBuffer();
-        newBuffer(position + 1);
+  private int reserve(int length) throws IOException {
+    long index = position - bufferOffset;
+    if (index < 0 || index + length > maxBufferSize) {
+      flush();
+      index = 0;
+    }
+    if (index > currentBufferSize && bufferOffset + currentBufferSize < writtenEnd) {
+      // the gap left by a seek covers data already written, keep it in the file
+      flush();
+      index = 0;
+    }
+    int i = (int) index;
+    if (i > currentBufferSize) {
+      // gap left by a seek beyond the written data, fill it with zeros
+      for (int k = currentBufferSize; k < i; k++) {
+        buffer.put(k, (byte) 0);
       }
-    } else {
-      aFile.write(v);
     }
-    position++;
+    if (i + length > currentBufferSize) {
+      currentBufferSize = i + length;
+    }
+    position += length;
+    return i;
   }
 
   /**
@@ -159,35 +223,104 @@ public class OutputBuffer {
    * @param v the v
    * @throws IOException Signals that an I/O exception has occurred.
    */
+  public void writeByteCurrentPosition(byte v) throws IOException {
+    buffer.put(reserve(1), v);
+  }
+
+  /**
+   * Write byte.
+   *
+   * @param v the v (only the lowest byte is written)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
   public void writeIntCurrentPosition(int v) throws IOException {
-    int index = (int)(position - bufferOffset);
-    if (index < maxBufferSize) {
-      buffer[index] = v;
-      isByte[index] = false;
-      if (index + 1 > currentBufferSize) currentBufferSize = index + 1;
-      if (index + 1 >= maxBufferSize) {
-        writeBuffer();
-        newBuffer(position + 1);
+    buffer.put(reserve(1), (byte) v);
+  }
+
+  /**
+   * Puts a short (2 bytes) in the current byte order.
+   *
+   * @param v the v
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void putShort(short v) throws IOException {
+    buffer.putShort(reserve(2), v);
+  }
+
+  /**
+   * Puts an int (4 bytes) in the current byte order.
+   *
+   * @param v the v
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void putInt(int v) throws IOException {
+    buffer.putInt(reserve(4), v);
+  }
+
+  /**
+   * Puts a long (8 bytes) in the current byte order.
+   *
+   * @param v the v
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void putLong(long v) throws IOException {
+    buffer.putLong(reserve(8), v);
+  }
+
+  /**
+   * Puts a sequence of bytes.<br>
+   * Sequences bigger than the buffer are written directly to the file.
+   *
+   * @param b the bytes
+   * @param off the offset in the array
+   * @param len the number of bytes
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void put(byte[] b, int off, int len) throws IOException {
+    if (len > maxBufferSize) {
+      flush();
+      ByteBuffer data = ByteBuffer.wrap(b, off, len);
+      while (data.hasRemaining()) {
+        position += channel.write(data, position);
       }
+      writtenEnd = Math.max(writtenEnd, position);
+      bufferOffset = position;
     } else {
-      aFile.write(v);
+      int index = reserve(len);
+      ByteBuffer dst = buffer.duplicate();
+      dst.position(index);
+      dst.put(b, off, len);
     }
-    position++;
   }
 
   /**
-   * Write buffer.
+   * Copies a range of an input file to the current position.<br>
+   * Small ranges go through the buffer; bigger ones are transferred from the input to the file
+   * channel, without copying them through the Java heap.
    *
+   * @param input the input file
+   * @param offset the position of the first byte in the input
+   * @param count the number of bytes
+   * @return the number of bytes copied (less than count at the end of the input)
    * @throws IOException Signals that an I/O exception has occurred.
    */
-  private void writeBuffer() throws IOException {
-    for (int pos = 0; pos < currentBufferSize; pos++) {
-      if (isByte[pos]) {
-        aFile.write((byte) buffer[pos]);
-      } else {
-        aFile.write(buffer[pos]);
-      }
+  public long transferFrom(TiffInputStream input, long offset, long count) throws IOException {
+    if (count <= 0) {
+      return 0;
     }
+    if (count <= maxBufferSize / 4) {
+      byte[] b = new byte[(int) count];
+      int n = Math.max(input.readBytesAt(offset, b, 0, b.length), 0);
+      put(b, 0, n);
+      return n;
+    }
+    flush();
+    channel.position(position);
+    long n = input.transferTo(offset, count, channel);
+    position += n;
+    writtenEnd = Math.max(writtenEnd, position);
+    bufferOffset = position;
+    return n;
   }
 
   /**
@@ -200,4 +333,3 @@ public class OutputBuffer {
     return position;
   }
 }
-
@@ -0,0 +1,67 @@
+/**
+ * <h1>PageLoader.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Source of the data used to fill the pages of an {@link InputBuffer}.<br>
+ * Pages are filled with a single positional bulk read, which does not modify the position of the
+ * stream.
+ */
+public interface PageLoader {
+
+  /**
+   * Fills a page with the data starting at the given position.<br>
+   * The page is filled from its position up to its limit, unless the end of the data is reached
+   * before. The position of the page is advanced by the number of bytes filled.
+   *
+   * @param position the file position of the first byte
+   * @param page the page
+   * @return the number of bytes filled, or -1 if the position is at or beyond the end of the data
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  int load(long position, ByteBuffer page) throws IOException;
+
+  /**
+   * Fills a page with the data starting at the given position.<br>
+   * The page is filled completely, unless the end of the data is reached before.
+   *
+   * @param position the file position of the first byte
+   * @param page the page
+   * @param off the offset in the page
+   * @param len the maximum number of bytes to fill
+   * @return the number of bytes filled, or -1 if the position is at or beyond the end of the data
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  default int load(long position, byte[] page, int off, int len) throws IOException {
+    return load(position, ByteBuffer.wrap(page, off, len));
+  }
+}
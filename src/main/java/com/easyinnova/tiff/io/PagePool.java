@@ -0,0 +1,178 @@
+/**
+ * <h1>PagePool.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Process-wide pool of off-heap (direct) pages shared by all the {@link PagedInputBuffer}.<br>
+ * The total size of the pages allocated by the pool never exceeds its byte budget. Released pages
+ * are kept in a free list by capacity and handed out again, so direct buffers are not allocated
+ * for every opened file. When the budget is exhausted, {@link #acquire(int)} returns null and the
+ * caller must recycle one of its own pages or use a heap buffer.
+ */
+public class PagePool {
+
+  /** The default byte budget (64 MB). */
+  public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+  /** The shared instance. */
+  private static final PagePool instance = new PagePool(DEFAULT_BUDGET);
+
+  /** The byte budget. */
+  private long budget;
+
+  /** The bytes allocated by the pool (in use or free). */
+  private long allocated;
+
+  /** The bytes of the pages currently in use. */
+  private long inUse;
+
+  /** The free pages, by capacity. */
+  private final Map<Integer, ArrayDeque<ByteBuffer>> free;
+
+  /**
+   * Instantiates a new page pool.
+   *
+   * @param budget the byte budget
+   */
+  public PagePool(long budget) {
+    this.budget = budget;
+    free = new HashMap<Integer, ArrayDeque<ByteBuffer>>();
+  }
+
+  /**
+   * Gets the shared page pool.
+   *
+   * @return the page pool
+   */
+  public static PagePool getInstance() {
+    return instance;
+  }
+
+  /**
+   * Sets the byte budget.<br>
+   * Reducing it does not affect the pages in use, but no new pages are allocated until the
+   * allocated bytes fall below the new budget.
+   *
+   * @param budget the byte budget
+   */
+  public synchronized void setBudget(long budget) {
+    this.budget = budget;
+    trim(0);
+  }
+
+  /**
+   * Gets the byte budget.
+   *
+   * @return the byte budget
+   */
+  public synchronized long getBudget() {
+    return budget;
+  }
+
+  /**
+   * Gets the bytes allocated by the pool, including the free pages.
+   *
+   * @return the allocated bytes
+   */
+  public synchronized long getAllocated() {
+    return allocated;
+  }
+
+  /**
+   * Gets the bytes of the pages currently in use.
+   *
+   * @return the bytes in use
+   */
+  public synchronized long getInUse() {
+    return inUse;
+  }
+
+  /**
+   * Acquires a page.
+   *
+   * @param capacity the page capacity in bytes
+   * @return the cleared page, or null if the budget is exhausted
+   */
+  public synchronized ByteBuffer acquire(int capacity) {
+    ArrayDeque<ByteBuffer> pages = free.get(capacity);
+    ByteBuffer page = pages == null ? null : pages.poll();
+    if (page == null) {
+      // free pages of other sizes are dropped to make room for the new one
+      trim(capacity);
+      if (allocated + capacity > budget) {
+        return null;
+      }
+      page = ByteBuffer.allocateDirect(capacity);
+      allocated += capacity;
+    }
+    inUse += capacity;
+    page.clear();
+    return page;
+  }
+
+  /**
+   * Releases a page acquired from this pool, so it can be handed out again.
+   *
+   * @param page the page
+   */
+  public synchronized void release(ByteBuffer page) {
+    ArrayDeque<ByteBuffer> pages = free.get(page.capacity());
+    if (pages == null) {
+      pages = new ArrayDeque<ByteBuffer>();
+      free.put(page.capacity(), pages);
+    }
+    pages.push(page);
+    inUse -= page.capacity();
+    trim(0);
+  }
+
+  /**
+   * Drops free pages until there is room for the given number of bytes under the budget.
+   *
+   * @param room the bytes needed
+   */
+  private void trim(int room) {
+    Iterator<ArrayDeque<ByteBuffer>> it = free.values().iterator();
+    while (allocated + room > budget && it.hasNext()) {
+      ArrayDeque<ByteBuffer> pages = it.next();
+      while (allocated + room > budget && !pages.isEmpty()) {
+        allocated -= pages.pop().capacity();
+      }
+      if (pages.isEmpty()) {
+        it.remove();
+      }
+    }
+  }
+}
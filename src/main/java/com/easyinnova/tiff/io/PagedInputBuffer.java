@@ -18,75 +18,239 @@
  */
 package com.easyinnova.tiff.io;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Paged Buffered Tiff File Stream.<br> Incorporates a set of pages (set of buffers) for minimizing
- * the file reads all over the file.
+ * the file reads all over the file.<br> Pages are aligned to multiples of the page size and looked
+ * up by page number. When all the pages are in use, the least recently used one is recycled.<br>
+ * Pages are borrowed from a shared off-heap {@link PagePool}, and returned to it on
+ * {@link #close()}.
  */
 public class PagedInputBuffer {
 
+  /** The default page size in bytes. */
+  public static final int DEFAULT_PAGE_SIZE = 65536;
+
+  /** The default maximum number of pages. */
+  public static final int DEFAULT_MAX_PAGES = 8;
+
+  /**
+   * The buffer pages, by page number, in access order.
+   */
+  private LinkedHashMap<Long, InputBuffer> pages;
+
   /**
-   * The buffer pages.
+   * The page size in bytes.
    */
-  private List<InputBuffer> pages;
+  private int pageSize;
 
   /**
    * The Max number of pages.
    */
-  private int MaxPages = 5;
+  private int maxPages;
 
   /**
    * The current buffer.
    */
   private InputBuffer currentBuffer;
 
+  /**
+   * The page number of the current buffer.
+   */
+  private long currentPage;
+
   /**
    * The input stream.
    */
   private TiffInputStream input;
 
   /**
-   * Instantiates a new paged input buffer.
+   * The pool the pages are borrowed from.
+   */
+  private PagePool pool;
+
+  /** The number of reads found in a loaded page. */
+  private long hits;
+
+  /** The number of reads that needed to load a page. */
+  private long misses;
+
+  /** The number of pages recycled to load another one. */
+  private long evictions;
+
+  /**
+   * Instantiates a new paged input buffer with the default geometry.
    *
    * @param input the input
    */
   public PagedInputBuffer(TiffInputStream input) {
-    pages = new ArrayList<InputBuffer>();
+    this(input, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+  }
+
+  /**
+   * Instantiates a new paged input buffer.
+   *
+   * @param input the input
+   * @param pageSize the page size in bytes
+   * @param maxPages the maximum number of pages
+   */
+  public PagedInputBuffer(TiffInputStream input, int pageSize, int maxPages) {
+    this(input, pageSize, maxPages, PagePool.getInstance());
+  }
+
+  /**
+   * Instantiates a new paged input buffer that borrows its pages from the given pool.
+   *
+   * @param input the input
+   * @param pageSize the page size in bytes
+   * @param maxPages the maximum number of pages
+   * @param pool the page pool
+   */
+  public PagedInputBuffer(TiffInputStream input, int pageSize, int maxPages, PagePool pool) {
+    if (pageSize <= 0 || maxPages <= 0) {
+      throw new IllegalArgumentException("Invalid page geometry " + maxPages + "x" + pageSize);
+    }
+    pages = new LinkedHashMap<Long, InputBuffer>(maxPages * 2, 0.75f, true);
     currentBuffer = null;
+    currentPage = -1;
     this.input = input;
+    this.pageSize = pageSize;
+    this.maxPages = maxPages;
+    this.pool = pool;
+  }
+
+  /**
+   * Gets the page size.
+   *
+   * @return the page size in bytes
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Gets the maximum number of pages.
+   *
+   * @return the maximum number of pages
+   */
+  public int getMaxPages() {
+    return maxPages;
+  }
+
+  /**
+   * Gets the number of reads found in a loaded page.
+   *
+   * @return the hits
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of reads that needed to load a page.
+   *
+   * @return the misses
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of pages recycled to load another one.
+   *
+   * @return the evictions
+   */
+  public long getEvictions() {
+    return evictions;
   }
 
   /**
    * Select buffer.
    *
    * @param offset the offset
+   * @throws IOException Signals that an I/O exception has occurred.
    */
-  private void selectPage(long offset) {
-    if (currentBuffer == null || currentBuffer.seekSuccessful(offset)) {
-      currentBuffer = null;
-      int i = 0;
+  private void selectPage(long offset) throws IOException {
+    long page = offset / pageSize;
+    if (currentBuffer != null && page == currentPage) {
+      hits++;
+      return;
+    }
 
-      // Look if the given offset is already stored in a page
-      while (i < pages.size() && currentBuffer == null) {
-        if (pages.get(i).seekSuccessful(offset))
-          currentBuffer = pages.get(i);
-        i++;
+    // Look if the given offset is already stored in a page
+    currentBuffer = pages.get(page);
+    if (currentBuffer != null) {
+      hits++;
+    } else {
+      misses++;
+      InputBuffer buffer = null;
+      ByteBuffer pooled = null;
+      if (pages.size() < maxPages) {
+        pooled = pool.acquire(pageSize);
       }
+      if (pooled != null) {
+        buffer = new InputBuffer(input, pooled);
+      } else if (!pages.isEmpty()) {
+        // LRU: recycle the least recently used page
+        Iterator<Map.Entry<Long, InputBuffer>> eldest = pages.entrySet().iterator();
+        buffer = eldest.next().getValue();
+        eldest.remove();
+        evictions++;
+      } else {
+        // the shared budget is exhausted, use a heap page
+        buffer = new InputBuffer(input, pageSize);
+      }
+      boolean filled = false;
+      try {
+        buffer.fill(page * pageSize);
+        filled = true;
+      } finally {
+        if (!filled) {
+          if (buffer.getPage().isDirect()) {
+            pool.release(buffer.getPage());
+          }
+          currentBuffer = null;
+        }
+      }
+      pages.put(page, buffer);
+      currentBuffer = buffer;
+    }
+    currentPage = page;
+  }
 
-      if (currentBuffer == null) {
-        // If the offset is not contained in any of the loaded pages, create a new one
-
-        // FIFO
-        if (pages.size() >= MaxPages)
-          pages.remove(0);
-        pages.add(new InputBuffer(input));
-
-        currentBuffer = pages.get(pages.size() - 1);
+  /**
+   * Returns all the pages to the pool.<br>
+   * The buffer can still be used afterwards, reloading the pages as needed.
+   */
+  public void close() {
+    for (InputBuffer buffer : pages.values()) {
+      if (buffer.getPage().isDirect()) {
+        pool.release(buffer.getPage());
       }
     }
+    pages.clear();
+    currentBuffer = null;
+    currentPage = -1;
+  }
+
+  /**
+   * Checks that the offset has been loaded in the current page.<br>
+   * Pages are only partially loaded at the end of the file, so the page must not be refilled from
+   * a different offset.
+   *
+   * @param offset the offset
+   * @throws EOFException if the offset is beyond the end of the file
+   */
+  private void checkLoaded(long offset) throws EOFException {
+    if (!currentBuffer.seekSuccessful(offset)) {
+      throw new EOFException();
+    }
   }
 
   /**
@@ -97,7 +261,6 @@ public class PagedInputBuffer {
    */
   public void seek(long offset) throws IOException {
     selectPage(offset);
-    currentBuffer.seek(offset);
   }
 
   /**
@@ -109,11 +272,13 @@ public class PagedInputBuffer {
    */
   public int read(long offset) throws IOException {
     selectPage(offset);
+    checkLoaded(offset);
     return currentBuffer.read(offset);
   }
 
   public byte readByte(long offset) throws IOException {
     selectPage(offset);
+    checkLoaded(offset);
     return currentBuffer.readByte(offset);
   }
 }
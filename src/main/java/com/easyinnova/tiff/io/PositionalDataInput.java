@@ -0,0 +1,95 @@
+/**
+ * <h1>PositionalDataInput.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.io.IOException;
+
+/**
+ * Stateless positional reads of primitive values.<br>
+ * Every read takes its absolute position and does not change any shared position, so one open
+ * file can be read by several threads at the same time. Multi-byte values are read in the byte
+ * order of the file, which must be set before the input is shared.
+ */
+public interface PositionalDataInput {
+
+  /**
+   * Reads a byte.
+   *
+   * @param position the position
+   * @return the byte
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  byte readByteAt(long position) throws IOException;
+
+  /**
+   * Reads a short (2 bytes).
+   *
+   * @param position the position
+   * @return the short
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  short readShortAt(long position) throws IOException;
+
+  /**
+   * Reads an int (4 bytes).
+   *
+   * @param position the position
+   * @return the int
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  int readIntAt(long position) throws IOException;
+
+  /**
+   * Reads a long (8 bytes).
+   *
+   * @param position the position
+   * @return the long
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  long readLongAt(long position) throws IOException;
+
+  /**
+   * Reads a sequence of bytes.
+   *
+   * @param position the position of the first byte
+   * @param b the destination array
+   * @param off the offset in the destination array
+   * @param len the maximum number of bytes to read
+   * @return the number of bytes read, or -1 if the position is at or beyond the end of the data
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  int readBytesAt(long position, byte[] b, int off, int len) throws IOException;
+
+  /**
+   * Data size in bytes.
+   *
+   * @return the size
+   */
+  long size();
+}
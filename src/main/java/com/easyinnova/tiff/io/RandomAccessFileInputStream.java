@@ -34,11 +34,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * The Class RandomAccessFileInputStream.
  */
-public class RandomAccessFileInputStream extends InputStream {
+public class RandomAccessFileInputStream extends InputStream implements PageLoader {
 
   /**
    * The random access file.
@@ -78,6 +80,31 @@ public class RandomAccessFileInputStream extends InputStream {
     return randomAccessFile.read(b, off, len);
   }
 
+  @Override public int load(long position, ByteBuffer page) throws IOException {
+    FileChannel channel = randomAccessFile.getChannel();
+    if (position < 0 || position >= channel.size()) {
+      return -1;
+    }
+    int total = 0;
+    while (page.hasRemaining()) {
+      int n = channel.read(page, position + total);
+      if (n < 0) {
+        break;
+      }
+      total += n;
+    }
+    return total;
+  }
+
+  /**
+   * Gets the file channel.
+   *
+   * @return the channel
+   */
+  public FileChannel getChannel() {
+    return randomAccessFile.getChannel();
+  }
+
   @Override public int available() throws IOException {
     long a = (limit >= 0 ? Math.min(limit, randomAccessFile.length()) : randomAccessFile.length())
         - randomAccessFile.getFilePointer();
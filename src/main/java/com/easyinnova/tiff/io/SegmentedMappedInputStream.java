@@ -0,0 +1,200 @@
+/**
+ * <h1>SegmentedMappedInputStream.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory mapped input stream for files of any size.<br>
+ * The file is mapped as a set of windows of a fixed size (a power of two), addressed with long
+ * offsets. Each window extends {@link ByteBufferReader#WINDOW_OVERLAP} bytes over the next one, so
+ * the windows can be used directly by a {@link ByteBufferReader}.
+ */
+public class SegmentedMappedInputStream extends InputStream {
+
+  /** The default window size (1 GB), as a power of two. */
+  public static final int DEFAULT_WINDOW_SHIFT = 30;
+
+  /** The mapped windows. */
+  private MappedByteBuffer[] windows;
+
+  /** The window size, as a power of two. */
+  private int windowShift;
+
+  /** The current position. */
+  private long position;
+
+  /** The file size. */
+  private long mbsize;
+
+  private FileChannel ch;
+  private FileInputStream f;
+  private String path;
+
+  /**
+   * Instantiates a new segmented mapped input stream with the default window size.
+   *
+   * @param file the file
+   * @throws FileNotFoundException the file not found exception
+   */
+  public SegmentedMappedInputStream(File file) throws FileNotFoundException {
+    this(file, DEFAULT_WINDOW_SHIFT);
+  }
+
+  /**
+   * Instantiates a new segmented mapped input stream.
+   *
+   * @param file the file
+   * @param windowShift the window size, as a power of two (at most 30)
+   * @throws FileNotFoundException the file not found exception
+   */
+  public SegmentedMappedInputStream(File file, int windowShift) throws FileNotFoundException {
+    if (windowShift < 4 || windowShift > DEFAULT_WINDOW_SHIFT) {
+      throw new IllegalArgumentException("Invalid window size 2^" + windowShift);
+    }
+    this.windowShift = windowShift;
+    path = file.getPath();
+    f = new FileInputStream(file);
+    ch = f.getChannel();
+    position = 0;
+    try {
+      mbsize = ch.size();
+      long windowSize = 1L << windowShift;
+      int n = (int) ((mbsize + windowSize - 1) >>> windowShift);
+      MappedByteBuffer[] mapped = new MappedByteBuffer[n];
+      for (int i = 0; i < n; i++) {
+        long start = (long) i << windowShift;
+        long length =
+            Math.min(windowSize + ByteBufferReader.WINDOW_OVERLAP, mbsize - start);
+        mapped[i] = ch.map(FileChannel.MapMode.READ_ONLY, start, length);
+      }
+      windows = mapped;
+    } catch (Exception ex) {
+      // the windows stay null, and the file is read with random access instead
+    }
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Gets the mapped windows.
+   *
+   * @return the windows (null if the file could not be mapped)
+   */
+  public MappedByteBuffer[] getWindows() {
+    return windows;
+  }
+
+  /**
+   * Gets the window size.
+   *
+   * @return the window size, as a power of two
+   */
+  public int getWindowShift() {
+    return windowShift;
+  }
+
+  @Override public int read() throws IOException {
+    if (position >= mbsize) {
+      return -1;
+    }
+    int val = windows[(int) (position >>> windowShift)].get(index(position)) & 0xFF;
+    position++;
+    return val;
+  }
+
+  @Override public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= mbsize) {
+      return -1;
+    }
+    int total = (int) Math.min(len, mbsize - position);
+    int done = 0;
+    while (done < total) {
+      ByteBuffer window = windows[(int) (position >>> windowShift)].duplicate();
+      int index = index(position);
+      int n = Math.min(total - done, (1 << windowShift) - index);
+      window.position(index);
+      window.get(b, off + done, n);
+      done += n;
+      position += n;
+    }
+    return total;
+  }
+
+  @Override public void close() throws IOException {
+    try { ch.close(); } catch (Exception ex) { }
+    try { f.close(); } catch (Exception ex) { }
+    if (windows != null) {
+      for (MappedByteBuffer window : windows) {
+        MappedByteInputStream.closeDirectBuffer(window);
+      }
+    }
+  }
+
+  /**
+   * Seek.
+   *
+   * @param pos the pos
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void seek(long pos) throws IOException {
+    position = pos;
+  }
+
+  /**
+   * Size.
+   *
+   * @return the file size
+   */
+  public long size() {
+    return mbsize;
+  }
+
+  /**
+   * Gets the index of the position inside its window.
+   *
+   * @param pos the position
+   * @return the index
+   */
+  private int index(long pos) {
+    return (int) (pos & ((1L << windowShift) - 1));
+  }
+}
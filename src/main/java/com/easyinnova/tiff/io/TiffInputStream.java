@@ -50,11 +50,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 
  /**
  * The Class TiffInputStream.
  */
-public class TiffInputStream implements TiffDataIntput {
+public class TiffInputStream implements TiffDataIntput, PositionalDataInput {
 
   /** The Byte order. */
   private ByteOrder byteOrder;
@@ -67,14 +70,70 @@ public class TiffInputStream implements TiffDataIntput {
 
   /** The file stream */
   private MappedByteInputStream internalFile;
+  private SegmentedMappedInputStream internalFileSegmented;
   private RandomAccessFileInputStream internalFileBig;
 
+  /** The byte source (null if the data is read from a file). */
+  private ByteSource source;
+
+  /** The position of the sequential reads from the byte source. */
+  private long sourcePosition;
+
+  /** The direct reader over the mapped file (null if the file is not mapped). */
+  private ByteBufferReader direct;
+
+  /** Whether the stream has been closed. */
+  private volatile boolean closed;
+
   /**
    * Instantiates a new data byte order input stream.
    * @param file file
    * @throws FileNotFoundException sdf
    */
   public TiffInputStream(File file) throws FileNotFoundException {
+    this(file, PagedInputBuffer.DEFAULT_PAGE_SIZE, PagedInputBuffer.DEFAULT_MAX_PAGES);
+  }
+
+  /**
+   * Instantiates a new data byte order input stream over a byte source.<br>
+   * In-memory sources are read in place; the other ones are read through the buffer pages.
+   *
+   * @param source the byte source (it is closed with the stream)
+   */
+  public TiffInputStream(ByteSource source) {
+    this(source, PagedInputBuffer.DEFAULT_PAGE_SIZE, PagedInputBuffer.DEFAULT_MAX_PAGES);
+  }
+
+  /**
+   * Instantiates a new data byte order input stream over a byte source with the given buffer
+   * geometry.
+   *
+   * @param source the byte source (it is closed with the stream)
+   * @param pageSize the buffer page size in bytes
+   * @param maxPages the maximum number of buffer pages
+   */
+  public TiffInputStream(ByteSource source, int pageSize, int maxPages) {
+    this.source = source;
+    sourcePosition = 0;
+    ByteBuffer memory = source.asByteBuffer();
+    if (memory != null) {
+      direct = new ByteBufferReader(memory);
+    }
+    byteOrder = ByteOrder.BIG_ENDIAN;
+    fileOffset = 0;
+    buffer = new PagedInputBuffer(this, pageSize, maxPages);
+  }
+
+  /**
+   * Instantiates a new data byte order input stream with the given buffer geometry.<br>
+   * The buffer pages are only used when the file cannot be mapped in memory.
+   *
+   * @param file the file
+   * @param pageSize the buffer page size in bytes
+   * @param maxPages the maximum number of buffer pages
+   * @throws FileNotFoundException the file not found exception
+   */
+  public TiffInputStream(File file, int pageSize, int maxPages) throws FileNotFoundException {
     FileInputStream f = new FileInputStream(file);
     long mbsize = 0;
     try {
@@ -84,17 +143,42 @@ public class TiffInputStream implements TiffDataIntput {
     }
 
     internalFile = null;
+    internalFileSegmented = null;
     internalFileBig = null;
 
     if (mbsize > 2147483647L) {
-      internalFileBig = new RandomAccessFileInputStream(file);
+      // Too big for a single mapping: map it in windows
+      internalFileSegmented = new SegmentedMappedInputStream(file);
+      if (internalFileSegmented.getWindows() != null) {
+        direct = new ByteBufferReader(internalFileSegmented.getWindows(),
+            internalFileSegmented.getWindowShift(), internalFileSegmented.size());
+      } else {
+        try {
+          internalFileSegmented.close();
+        } catch (IOException ex) {
+          /* nothing to be done */
+        }
+        internalFileSegmented = null;
+        internalFileBig = new RandomAccessFileInputStream(file);
+      }
     } else {
       internalFile = new MappedByteInputStream(file);
+      if (internalFile.getBuffer() != null) {
+        direct = new ByteBufferReader(internalFile.getBuffer());
+      } else {
+        try {
+          internalFile.close();
+        } catch (IOException ex) {
+          /* nothing to be done */
+        }
+        internalFile = null;
+        internalFileBig = new RandomAccessFileInputStream(file);
+      }
     }
 
     byteOrder = ByteOrder.BIG_ENDIAN;
     fileOffset = 0;
-    buffer = new PagedInputBuffer(this);
+    buffer = new PagedInputBuffer(this, pageSize, maxPages);
   }
   
   /**
@@ -106,34 +190,71 @@ public class TiffInputStream implements TiffDataIntput {
     return byteOrder;
   }
 
+  /**
+   * Gets the file path.
+   *
+   * @return the file path, or null if the data is not read from a file
+   */
   public String getFilePath() {
-    if (internalFile != null)
+    if (source != null)
+      return null;
+    else if (internalFile != null)
       return internalFile.getPath();
+    else if (internalFileSegmented != null)
+      return internalFileSegmented.getPath();
     else
       return internalFileBig.getPath();
    }
 
   public int read() throws IOException {
-    if (internalFile != null)
+    if (source != null) {
+      byte[] b = new byte[1];
+      if (source.load(sourcePosition, b, 0, 1) <= 0)
+        return -1;
+      sourcePosition++;
+      return b[0] & 0xFF;
+    } else if (internalFile != null)
       return internalFile.read();
+    else if (internalFileSegmented != null)
+      return internalFileSegmented.read();
     else
       return internalFileBig.read();
   }
 
   public void seek(long pos) throws IOException {
-    if (internalFile != null)
+    if (source != null)
+      sourcePosition = pos;
+    else if (internalFile != null)
       internalFile.seek(pos);
+    else if (internalFileSegmented != null)
+      internalFileSegmented.seek(pos);
     else
       internalFileBig.seek(pos);
   }
 
   public void close() throws IOException {
-    if (internalFile != null)
+    closed = true;
+    direct = null;
+    buffer.close();
+    if (source != null)
+      source.close();
+    else if (internalFile != null)
       internalFile.close();
+    else if (internalFileSegmented != null)
+      internalFileSegmented.close();
     else
       internalFileBig.close();
   }
 
+  /**
+   * Checks if the stream has been closed.
+   *
+   * @return true, if the stream is closed
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
    /**
    * Gets the stream.
    *
@@ -143,6 +264,23 @@ public class TiffInputStream implements TiffDataIntput {
     return buffer;
   }
 
+  /**
+   * Gets the loader used to fill the buffer pages.
+   *
+   * @return the page loader
+   * @throws IllegalStateException if the stream has been closed
+   */
+  public PageLoader getPageLoader() {
+    if (closed)
+      throw new IllegalStateException("document closed");
+    if (direct != null)
+      return direct;
+    else if (source != null)
+      return source;
+    else
+      return internalFileBig;
+  }
+
   /**
    * Sets the byte order.
    *
@@ -150,6 +288,8 @@ public class TiffInputStream implements TiffDataIntput {
    */
   public void setByteOrder(ByteOrder byteOrder) {
     this.byteOrder = byteOrder;
+    if (direct != null)
+      direct.setByteOrder(byteOrder);
   }
 
   /**
@@ -159,7 +299,8 @@ public class TiffInputStream implements TiffDataIntput {
    * @throws IOException Signals that an I/O exception has occurred.
    */
   public void seekOffset(long offset) throws IOException {
-    buffer.seek(offset);
+    if (direct == null)
+      buffer.seek(offset);
     fileOffset = offset;
   }
 
@@ -170,17 +311,165 @@ public class TiffInputStream implements TiffDataIntput {
    * @throws IOException Signals that an I/O exception has occurred.
    */
   private int readCurrentByte() throws IOException {
-    int b = buffer.read(fileOffset);
+    int b;
+    if (direct != null)
+      b = direct.readUnsignedByte(fileOffset);
+    else
+      b = buffer.read(fileOffset);
     fileOffset++;
     return b;
   }
 
   private byte readCurrentDirectByte() throws IOException {
-    byte b = buffer.readByte(fileOffset);
+    byte b;
+    if (direct != null)
+      b = direct.readByte(fileOffset);
+    else
+      b = buffer.readByte(fileOffset);
     fileOffset++;
     return b;
   }
 
+  /**
+   * Reads the current short (2 bytes in fileOffset) in the current byte order.
+   *
+   * @return the read short
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private short readCurrentShort() throws IOException {
+    short val = readShortAt(fileOffset);
+    fileOffset += 2;
+    return val;
+  }
+
+  /**
+   * Reads the current int (4 bytes in fileOffset) in the current byte order.
+   *
+   * @return the read int
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private int readCurrentInt() throws IOException {
+    int val = readIntAt(fileOffset);
+    fileOffset += 4;
+    return val;
+  }
+
+  /**
+   * Reads the current long (8 bytes in fileOffset) in the current byte order.
+   *
+   * @return the read long
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private long readCurrentLong() throws IOException {
+    long val = readLongAt(fileOffset);
+    fileOffset += 8;
+    return val;
+  }
+
+  @Override public byte readByteAt(long position) throws IOException {
+    ByteBufferReader reader = direct;
+    if (reader != null)
+      return reader.readByte(position);
+    synchronized (buffer) {
+      return buffer.readByte(position);
+    }
+  }
+
+  @Override public short readShortAt(long position) throws IOException {
+    ByteBufferReader reader = direct;
+    if (reader != null)
+      return reader.readShort(position);
+    synchronized (buffer) {
+      int ch1 = buffer.read(position);
+      int ch2 = buffer.read(position + 1);
+      if (byteOrder == ByteOrder.BIG_ENDIAN) {
+        return (short) ((ch1 << 8) + ch2);
+      } else {
+        return (short) ((ch2 << 8) + ch1);
+      }
+    }
+  }
+
+  @Override public int readIntAt(long position) throws IOException {
+    ByteBufferReader reader = direct;
+    if (reader != null)
+      return reader.readInt(position);
+    synchronized (buffer) {
+      int ch1 = buffer.read(position);
+      int ch2 = buffer.read(position + 1);
+      int ch3 = buffer.read(position + 2);
+      int ch4 = buffer.read(position + 3);
+      if (byteOrder == ByteOrder.BIG_ENDIAN) {
+        return ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4);
+      } else {
+        return ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1);
+      }
+    }
+  }
+
+  @Override public long readLongAt(long position) throws IOException {
+    ByteBufferReader reader = direct;
+    if (reader != null)
+      return reader.readLong(position);
+    long first = readIntAt(position) & 0xFFFFFFFFL;
+    long second = readIntAt(position + 4) & 0xFFFFFFFFL;
+    if (byteOrder == ByteOrder.BIG_ENDIAN) {
+      return (first << 32) + second;
+    } else {
+      return (second << 32) + first;
+    }
+  }
+
+  /**
+   * Writes a range of the file to a channel, without copying it through the Java heap when
+   * possible (bulk writes from the mapping, or {@link java.nio.channels.FileChannel#transferTo}).
+   *
+   * @param position the position of the first byte
+   * @param count the maximum number of bytes
+   * @param target the target channel
+   * @return the number of bytes written (less than count at the end of the file)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public long transferTo(long position, long count, WritableByteChannel target)
+      throws IOException {
+    ByteBufferReader reader = direct;
+    if (reader != null)
+      return reader.transferTo(position, count, target);
+    if (source == null && internalFileBig != null) {
+      FileChannel channel = internalFileBig.getChannel();
+      long total = Math.max(0, Math.min(count, channel.size() - position));
+      long done = 0;
+      while (done < total) {
+        long n = channel.transferTo(position + done, total - done, target);
+        if (n <= 0)
+          break;
+        done += n;
+      }
+      return done;
+    }
+    ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(count, 65536));
+    long done = 0;
+    while (done < count) {
+      chunk.clear();
+      chunk.limit((int) Math.min(chunk.capacity(), count - done));
+      int n = getPageLoader().load(position + done, chunk);
+      if (n <= 0)
+        break;
+      chunk.flip();
+      while (chunk.hasRemaining()) {
+        target.write(chunk);
+      }
+      done += n;
+    }
+    return done;
+  }
+
+  @Override public int readBytesAt(long position, byte[] b, int off, int len)
+      throws IOException {
+    // page loaders only use positional reads, so they can be shared
+    return getPageLoader().load(position, b, off, len);
+  }
+
   /**
    * Read byte.
    *
@@ -260,20 +549,9 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public Short readShort() throws IOException {
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    if ((ch1 | ch2) < 0) {
-        throw new EOFException();
-    }
-    short val;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val = (short)((ch1 << 8) + ch2);
-    }else{
-      val = (short)((ch2 << 8) + ch1);
-    }         
-    return new Short(val);
+    return new Short(readCurrentShort());
   }
-  
+
   /**
    * Read s short.
    *
@@ -287,20 +565,9 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public SShort readSShort() throws IOException {
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    if ((ch1 | ch2) < 0) {
-      throw new EOFException();
-    }
-    short val;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val = (short)((ch1 << 8) + ch2 );
-    }else{
-      val = (short)((ch2 << 8) + ch1 );
-    }         
-    return new SShort(val);
+    return new SShort(readCurrentShort());
   }
-  
+
   /**
    * Read long.
    *
@@ -314,21 +581,7 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public Long readLong() throws IOException {
-    
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    int ch3 = readCurrentByte();
-    int ch4 = readCurrentByte();
-    if ((ch1 | ch2 | ch3 | ch4) < 0) {
-        throw new EOFException();
-    }
-    int val;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val = ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4 );
-    }else{
-      val = ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1);
-    }         
-    return new Long(val);
+    return new Long(readCurrentInt());
   }
 
   /**
@@ -344,20 +597,7 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public SLong readSLong() throws IOException {
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    int ch3 = readCurrentByte();
-    int ch4 = readCurrentByte();
-    if ((ch1 | ch2 | ch3 | ch4) < 0) {
-        throw new EOFException();
-    }
-    int val;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val = ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4 );
-    }else{
-      val = ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1);
-    }         
-    return new SLong(val);
+    return new SLong(readCurrentInt());
   }
 
   /**
@@ -393,35 +633,9 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public Rational readRational() throws IOException {
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    int ch3 = readCurrentByte();
-    int ch4 = readCurrentByte();
-    if ((ch1 | ch2 | ch3 | ch4) < 0) {
-        throw new EOFException();
-    }
-    int val;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val = ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4 );
-    }else{
-      val = ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1 );
-    }     
-    
-    ch1 = readCurrentByte();
-    ch2 = readCurrentByte();
-    ch3 = readCurrentByte();
-    ch4 = readCurrentByte();
-    if ((ch1 | ch2 | ch3 | ch4) < 0) {
-        throw new EOFException();
-    }
-    int val2;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val2 = ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4 );
-    }else{
-      val2 = ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1 );
-    }     
-    
-    return new Rational(val,val2);
+    int val = readCurrentInt();
+    int val2 = readCurrentInt();
+    return new Rational(val, val2);
   }
 
   /**
@@ -437,35 +651,9 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public SRational readSRational() throws IOException {
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    int ch3 = readCurrentByte();
-    int ch4 = readCurrentByte();
-    if ((ch1 | ch2 | ch3 | ch4) < 0) {
-        throw new EOFException();
-    }
-    int val;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val = ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4 );
-    }else{
-      val = ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1 );
-    }     
-    
-    ch1 = readCurrentByte();
-    ch2 = readCurrentByte();
-    ch3 = readCurrentByte();
-    ch4 = readCurrentByte();
-    if ((ch1 | ch2 | ch3 | ch4) < 0) {
-        throw new EOFException();
-    }
-    int val2;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val2 = ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4 );
-    }else{
-      val2 = ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1 );
-    }     
-    
-    return new SRational(val,val2);
+    int val = readCurrentInt();
+    int val2 = readCurrentInt();
+    return new SRational(val, val2);
   }
 
   /**
@@ -481,20 +669,7 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public Float readFloat() throws IOException {
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    int ch3 = readCurrentByte();
-    int ch4 = readCurrentByte();
-    if ((ch1 | ch2 | ch3 | ch4) < 0) {
-        throw new EOFException();
-    }
-    int val;
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      val = ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4 );
-    }else{
-      val = ((ch4 << 24) + (ch3 << 16) + (ch2 << 8) + ch1 );
-    }         
-    return new Float( java.lang.Float.intBitsToFloat(val));
+    return new Float(java.lang.Float.intBitsToFloat(readCurrentInt()));
   }
 
   /**
@@ -510,36 +685,7 @@ public class TiffInputStream implements TiffDataIntput {
   }
 
   public Double readDouble() throws IOException {
-    
-    int ch1 = readCurrentByte();
-    int ch2 = readCurrentByte();
-    int ch3 = readCurrentByte();
-    int ch4 = readCurrentByte();
-    int ch5 = readCurrentByte();
-    int ch6 = readCurrentByte();
-    int ch7 = readCurrentByte();
-    int ch8 = readCurrentByte();
-    
-    if ((ch1 | ch2 | ch3 | ch4 | ch5 | ch6 | ch7 | ch8 ) < 0) {
-        throw new EOFException();
-    }
-    
-    long val;
-    
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      
-     val= ((long)ch1 << 56) + ((long)(ch2 & 255) << 48) + ((long)(ch3 & 255) << 40) 
-       + ((long)(ch4 & 255) << 32) + ((long)(ch5 & 255) << 24) + ((long)(ch6 & 255) << 16) 
-       + ((long)(ch7 & 255) <<  8) + (long)(ch8 & 255);
- 
-    }else{
-      
-      val= ((long)ch8 << 56) + ((long)(ch7 & 255) << 48) + ((long)(ch6 & 255) << 40) 
-          + ((long)(ch5 & 255) << 32) + ((long)(ch4 & 255) << 24) + ((long)(ch3 & 255) << 16) 
-          + ((long)(ch2 & 255) <<  8) + (long)(ch1 & 255);
-    }
-    
-    return new Double(java.lang.Double.longBitsToDouble(val));
+    return new Double(java.lang.Double.longBitsToDouble(readCurrentLong()));
   }
 
   /**
@@ -548,8 +694,12 @@ public class TiffInputStream implements TiffDataIntput {
    * @return the file size.
    */
   public long size() {
-    if (internalFile != null)
+    if (source != null)
+      return source.size();
+    else if (internalFile != null)
       return internalFile.size();
+    else if (internalFileSegmented != null)
+      return internalFileSegmented.size();
     else
       return internalFileBig.size();
   }
@@ -91,6 +91,7 @@ public class TiffOutputStream {
    */
   public void setByteOrder(ByteOrder byteOrder) {
     this.byteOrder = byteOrder;
+    output.setByteOrder(byteOrder);
   }
 
   /**
@@ -131,6 +132,30 @@ public class TiffOutputStream {
     writeByteCurrentPosition(val);
   }
 
+  /**
+   * Puts a sequence of bytes.
+   *
+   * @param b the bytes
+   * @param off the offset in the array
+   * @param len the number of bytes
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void put(byte[] b, int off, int len) throws IOException {
+    output.put(b, off, len);
+  }
+
+  /**
+   * Copies a range of the original file to the current position.
+   *
+   * @param offset the position of the first byte in the original file
+   * @param count the number of bytes
+   * @return the number of bytes copied (less than count at the end of the original file)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public long transferFrom(long offset, long count) throws IOException {
+    return output.transferFrom(originalFile, offset, count);
+  }
+
   /**
    * Reads a byte.
    *
@@ -149,14 +174,7 @@ public class TiffOutputStream {
    * @throws IOException Signals that an I/O exception has occurred.
    */
   public void putShort(short val) throws IOException {
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      writeIntCurrentPosition((val >>> 8) & 0xFF);
-      writeIntCurrentPosition((val >>> 0) & 0xFF);
-    }
-    else {
-      writeIntCurrentPosition((val >>> 0) & 0xFF);
-      writeIntCurrentPosition((val >>> 8) & 0xFF);
-    }
+    output.putShort(val);
   }
 
   /**
@@ -176,18 +194,7 @@ public class TiffOutputStream {
    * @throws IOException Signals that an I/O exception has occurred.
    */
   public void putInt(int val) throws IOException {
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      writeIntCurrentPosition((val >>> 24) & 0xFF);
-      writeIntCurrentPosition((val >>> 16) & 0xFF);
-      writeIntCurrentPosition((val >>> 8) & 0xFF);
-      writeIntCurrentPosition((val >>> 0) & 0xFF);
-    }
-    else {
-      writeIntCurrentPosition((val >>> 0) & 0xFF);
-      writeIntCurrentPosition((val >>> 8) & 0xFF);
-      writeIntCurrentPosition((val >>> 16) & 0xFF);
-      writeIntCurrentPosition((val >>> 24) & 0xFF);
-    }
+    output.putInt(val);
   }
 
   /**
@@ -249,26 +256,7 @@ public class TiffOutputStream {
    * @throws IOException Signals that an I/O exception has occurred.
    */
   public void putDouble(Double val) throws IOException {
-    long v = java.lang.Double.doubleToLongBits(val.getValue());
-    if (byteOrder == ByteOrder.BIG_ENDIAN) {
-      writeIntCurrentPosition((int) (v >>> 56) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 48) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 40) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 32) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 24) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 16) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 8) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 0) & 0xFF);
-    } else {
-      writeIntCurrentPosition((int) (v >>> 0) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 8) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 16) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 24) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 32) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 40) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 48) & 0xFF);
-      writeIntCurrentPosition((int) (v >>> 56) & 0xFF);
-    }
+    output.putLong(java.lang.Double.doubleToLongBits(val.getValue()));
   }
 
   /**
@@ -32,9 +32,15 @@ package com.easyinnova.tiff.model;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A dictinary of all the metadata contained in the tiff file.
@@ -43,9 +49,56 @@ public class Metadata implements Serializable {
   /** Do not modify! */
   private static final long serialVersionUID = 2946L;
 
+  /** The equivalent names, by normalized name (see {@link #addAlias(String, String)}). */
+  private static final Map<String, Set<String>> aliases = new ConcurrentHashMap<>();
+
+  /** The version of the aliases, to discard the indexes created with older ones. */
+  private static final AtomicInteger aliasesVersion = new AtomicInteger();
+
+  static {
+    addAlias("date", "DateTime");
+    addAlias("date", "CreatorDate");
+    addAlias("description", "ImageDescription");
+    addAlias("creator", "Artist");
+    addAlias("creator", "CreatorTool");
+  }
+
   /** The metadata. */
   private HashMap<String, MetadataObject> metadata;
 
+  /** The value cached by {@link #get(String)} when there is no metadata with the name. */
+  private static final TiffObject NOT_FOUND = new TiffObject();
+
+  /**
+   * The names of the metadata, by normalized name, in the order of {@link #keySet()}. The index
+   * is built completely before it is published, and never modified afterwards.
+   */
+  private transient volatile Map<String, List<String>> normalizedNames;
+
+  /** The values returned by {@link #get(String)}, by name. */
+  private transient volatile Resolved resolved;
+
+  /**
+   * The values resolved with a version of the aliases. The values can be added concurrently by
+   * several readers of the dictionary.
+   */
+  private static class Resolved {
+    /** The version of the aliases used to resolve the values. */
+    private final int version;
+
+    /** The values, by name. */
+    private final Map<String, TiffObject> values = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates new resolved values.
+     *
+     * @param version the version of the aliases
+     */
+    Resolved(int version) {
+      this.version = version;
+    }
+  }
+
   /**
    * Instantiates a new metadata.
    */
@@ -60,6 +113,7 @@ public class Metadata implements Serializable {
    * @param value the value
    */
   public void add(String name, TiffObject value, String path, String schema) {
+    invalidate();
     if (!metadata.containsKey(name)) {
       metadata.put(name, new MetadataObject());
     }
@@ -75,6 +129,7 @@ public class Metadata implements Serializable {
    * @param value the value
    */
   public void add(String name, TiffObject value) {
+    invalidate();
     if (!metadata.containsKey(name)) {
       metadata.put(name, new MetadataObject());
     }
@@ -89,6 +144,7 @@ public class Metadata implements Serializable {
    * @param isDC the is dublin core
    */
   public void add(String name, TiffObject value, boolean isDC, String path) {
+    invalidate();
     if (!metadata.containsKey(name)) {
       metadata.put(name, new MetadataObject());
       metadata.get(name).setIsDublinCore(isDC);
@@ -108,72 +164,156 @@ public class Metadata implements Serializable {
   }
 
   /**
-   * Gets a metadata value, returning the appropriate value when multiple are found.
+   * Gets a metadata value, returning the appropriate value when multiple are found.<br>
+   * If there is no metadata with the exact name, the metadata with the same name ignoring case or
+   * with an equivalent name (see {@link #addAlias(String, String)}) is used.<br>
+   * The values are resolved once and reused until the dictionary changes. The dictionary can be
+   * queried concurrently by several threads, as long as it is not modified at the same time.
    *
    * @param name the name of the metadata.
    * @return the tiff object with the value of the metadata.
    */
   public TiffObject get(String name) {
-    TiffObject result = null;
-    String container = null;
+    Resolved cache = resolved;
+    int version = aliasesVersion.get();
+    if (cache == null || cache.version != version) {
+      cache = new Resolved(version);
+      resolved = cache;
+    }
+    TiffObject cached = cache.values.get(name);
+    if (cached != null) {
+      return cached == NOT_FOUND ? null : cached;
+    }
 
-    ArrayList<TiffObject> found = new ArrayList<>();
+    List<TiffObject> found;
     if (contains(name)) {
       // Find objects with this exact name
-      if (metadata.get(name).getObjectList().size() == 1) {
-        found.add(getFirst(name));
-      } else {
-        for (TiffObject to : metadata.get(name).getObjectList()) {
-          found.add(to);
-        }
-      }
+      found = metadata.get(name).getObjectList();
     } else {
       // Find objects with similar or equivalent name
+      found = new ArrayList<>();
+      for (String key : getSimilarNames(name)) {
+        found.addAll(metadata.get(key).getObjectList());
+      }
+    }
+    TiffObject result = getPrioritary(found);
+    cache.values.put(name, result == null ? NOT_FOUND : result);
+    return result;
+  }
+
+  /**
+   * Gets the names of the metadata with the same normalized name as the given one, or as any of its
+   * aliases.
+   *
+   * @param name the name
+   * @return the names, in the order of {@link #keySet()}
+   */
+  private List<String> getSimilarNames(String name) {
+    Map<String, List<String>> index = normalizedNames;
+    if (index == null) {
+      index = new HashMap<>();
       for (String key : metadata.keySet()) {
-        boolean similar = key.toLowerCase().equals(name.toLowerCase());
-        if (!similar) similar = name.toLowerCase().equals("date") && key.toLowerCase().equals("datetime");
-        if (!similar) similar = name.toLowerCase().equals("date") && key.toLowerCase().equals("creatordate");
-        if (!similar) similar = name.toLowerCase().equals("description") && key.toLowerCase().equals("imagedescription");
-        if (!similar) similar = name.toLowerCase().equals("creator") && key.toLowerCase().equals("artist");
-        if (!similar) similar = name.toLowerCase().equals("creator") && key.toLowerCase().equals("creatortool");
-        if (similar) {
-          for (TiffObject to : metadata.get(key).getObjectList()) {
-            found.add(to);
-          }
-        }
+        index.computeIfAbsent(normalize(key), k -> new ArrayList<>()).add(key);
       }
+      normalizedNames = index;
     }
+    String normalized = normalize(name);
+    List<String> names = index.getOrDefault(normalized, Collections.<String>emptyList());
+    Set<String> equivalent = aliases.getOrDefault(normalized, Collections.<String>emptySet());
+    if (equivalent.isEmpty()) {
+      return names;
+    }
+    Set<String> similar = new HashSet<>(names);
+    for (String alias : equivalent) {
+      similar.addAll(index.getOrDefault(alias, Collections.<String>emptyList()));
+    }
+    if (similar.size() == names.size()) {
+      return names;
+    }
+    // Keep the order of the dictionary
+    List<String> ordered = new ArrayList<>();
+    for (String key : metadata.keySet()) {
+      if (similar.contains(key))
+        ordered.add(key);
+    }
+    return ordered;
+  }
 
-    // Return the most prioritary result
-    if (found.size()==1) {
-      result = found.get(0);
-    } else {
-      for (TiffObject to : found) {
-        if (result == null) {
+  /**
+   * Gets the most prioritary value.<br>
+   * Preferences in (descending) order: EXIF, XMP, IPTC, Tiff tag.
+   *
+   * @param found the values
+   * @return the value, null if there are no values
+   */
+  private static TiffObject getPrioritary(List<TiffObject> found) {
+    TiffObject result = null;
+    String container = null;
+    for (TiffObject to : found) {
+      if (result == null) {
+        result = to;
+        container = to.getContainer();
+      } else if (to.getContainer() != null) {
+        if (container == null || to.getContainer().equals("EXIF")
+            || (to.getContainer().equals("XMP") && container.equals("IPTC"))) {
           result = to;
           container = to.getContainer();
-        } else if (to.getContainer() != null) {
-          // Preferences in (descending) order: EXIF, XMP, IPTC, Tiff tag
-          if (container == null || to.getContainer().equals("EXIF")
-              || (to.getContainer().equals("XMP") && container.equals("IPTC"))) {
-            result = to;
-            container = to.getContainer();
-          }
         }
       }
     }
-
     return result;
   }
 
   /**
-   * Gets the first metadata object of the fiven metadata name.
+   * Discards the indexes of the names and the resolved values.
+   */
+  private void invalidate() {
+    normalizedNames = null;
+    resolved = null;
+  }
+
+  /**
+   * Normalizes a metadata name.
    *
    * @param name the name
-   * @return the first
+   * @return the normalized name
+   */
+  private static String normalize(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Adds an equivalent name, used by {@link #get(String)} when there is no metadata with the exact
+   * name. The names are compared ignoring case.
+   *
+   * @param name the requested name (for example "Creator")
+   * @param alias the equivalent metadata name (for example "Artist")
    */
-  private TiffObject getFirst(String name) {
-    return metadata.get(name).getObjectList().get(0);
+  public static void addAlias(String name, String alias) {
+    aliases.computeIfAbsent(normalize(name), k -> ConcurrentHashMap.newKeySet())
+        .add(normalize(alias));
+    aliasesVersion.incrementAndGet();
+  }
+
+  /**
+   * Removes the equivalent names of a name.
+   *
+   * @param name the requested name
+   */
+  public static void removeAliases(String name) {
+    aliases.remove(normalize(name));
+    aliasesVersion.incrementAndGet();
+  }
+
+  /**
+   * Gets the equivalent names of a name.
+   *
+   * @param name the requested name
+   * @return the normalized equivalent names
+   */
+  public static Set<String> getAliases(String name) {
+    return Collections.unmodifiableSet(
+        aliases.getOrDefault(normalize(name), Collections.<String>emptySet()));
   }
 
   /**
@@ -217,5 +357,56 @@ public class Metadata implements Serializable {
       }
     }
   }
-}
 
+  /**
+   * Adds a complete dictionary to the current one, inserting each value after the values of the
+   * same name that belong to a given set, instead of at the end.
+   *
+   * @param meta the metadata dictionary to add
+   * @param before the values that go before the added ones
+   */
+  void insertMetadata(Metadata meta, Set<TiffObject> before) {
+    invalidate();
+    for (String k : meta.keySet()) {
+      MetadataObject mo = meta.getMetadataObject(k);
+      if (!metadata.containsKey(k)) {
+        for (TiffObject to : mo.getObjectList()) {
+          add(k, to, mo.isDublinCore(), mo.getPath());
+        }
+      } else {
+        List<TiffObject> list = metadata.get(k).getObjectList();
+        int index = 0;
+        for (TiffObject to : list) {
+          if (before.contains(to))
+            index++;
+        }
+        list.addAll(index, mo.getObjectList());
+      }
+    }
+  }
+
+  /**
+   * Removes the values of a dictionary from the current one.
+   *
+   * @param meta the metadata dictionary to remove
+   */
+  public void removeMetadata(Metadata meta) {
+    invalidate();
+    for (String k : meta.keySet()) {
+      MetadataObject mo = metadata.get(k);
+      if (mo != null) {
+        List<TiffObject> list = mo.getObjectList();
+        for (TiffObject to : meta.getList(k)) {
+          for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == to) {
+              list.remove(i);
+              break;
+            }
+          }
+        }
+        if (list.isEmpty())
+          metadata.remove(k);
+      }
+    }
+  }
+}
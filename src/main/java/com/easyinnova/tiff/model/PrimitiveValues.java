@@ -0,0 +1,518 @@
+/**
+ * <h1>PrimitiveValues.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import com.easyinnova.tiff.model.types.Ascii;
+import com.easyinnova.tiff.model.types.Byte;
+import com.easyinnova.tiff.model.types.Double;
+import com.easyinnova.tiff.model.types.Float;
+import com.easyinnova.tiff.model.types.Long;
+import com.easyinnova.tiff.model.types.Rational;
+import com.easyinnova.tiff.model.types.SByte;
+import com.easyinnova.tiff.model.types.SLong;
+import com.easyinnova.tiff.model.types.SRational;
+import com.easyinnova.tiff.model.types.SShort;
+import com.easyinnova.tiff.model.types.Short;
+import com.easyinnova.tiff.model.types.Undefined;
+import com.easyinnova.tiff.model.types.abstractTiffType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact storage of the values of a tag in a primitive array chosen by the tag type.<br>
+ * Bytes (BYTE, ASCII, SBYTE, UNDEFINED) are stored in a byte[], shorts (SHORT, SSHORT) in a
+ * short[], longs (LONG, SLONG) and floats (as their bits) in an int[], doubles (as their bits) in
+ * a long[], and rationals (RATIONAL, SRATIONAL) in a pair of int[] with the numerators and the
+ * denominators.
+ */
+public final class PrimitiveValues implements Serializable {
+
+  /** Do not modify! */
+  private static final long serialVersionUID = 2947L;
+
+  /** The tag type. */
+  private final int type;
+
+  /** The number of values. */
+  private int size;
+
+  /** The byte values. */
+  private byte[] bytes;
+
+  /** The short values. */
+  private short[] shorts;
+
+  /** The int values (or the numerators of the rationals). */
+  private int[] ints;
+
+  /** The long values. */
+  private long[] longs;
+
+  /** The denominators of the rationals. */
+  private int[] denominators;
+
+  /**
+   * Instantiates a new set of values.
+   *
+   * @param type the tag type
+   * @param size the number of values
+   */
+  public PrimitiveValues(int type, int size) {
+    if (!supports(type)) {
+      throw new IllegalArgumentException("Unsupported tag type " + type);
+    }
+    this.type = type;
+    this.size = size;
+    switch (type) {
+      case 1:
+      case 2:
+      case 6:
+      case 7:
+        bytes = new byte[size];
+        break;
+      case 3:
+      case 8:
+        shorts = new short[size];
+        break;
+      case 4:
+      case 9:
+      case 11:
+        ints = new int[size];
+        break;
+      case 12:
+        longs = new long[size];
+        break;
+      default:
+        ints = new int[size];
+        denominators = new int[size];
+        break;
+    }
+  }
+
+  /**
+   * Checks if the values of a tag type can be stored in primitive arrays.
+   *
+   * @param type the tag type
+   * @return true, if supported
+   */
+  public static boolean supports(int type) {
+    return type >= 1 && type <= 12;
+  }
+
+  /**
+   * Gets the tag type.
+   *
+   * @return the type
+   */
+  public int getType() {
+    return type;
+  }
+
+  /**
+   * Checks if the values are integers.
+   *
+   * @return true, if the type is an integer type (BYTE, SBYTE, UNDEFINED, SHORT, SSHORT, LONG,
+   *         SLONG)
+   */
+  public boolean isInteger() {
+    return type == 1 || type == 3 || type == 4 || type == 6 || type == 7 || type == 8
+        || type == 9;
+  }
+
+  /**
+   * Gets the number of values.
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Reduces the number of values (for example, when the tag could not be read completely).
+   *
+   * @param size the new number of values
+   */
+  public void truncate(int size) {
+    if (size < this.size) {
+      this.size = size;
+      if (bytes != null)
+        bytes = Arrays.copyOf(bytes, size);
+      if (shorts != null)
+        shorts = Arrays.copyOf(shorts, size);
+      if (ints != null)
+        ints = Arrays.copyOf(ints, size);
+      if (longs != null)
+        longs = Arrays.copyOf(longs, size);
+      if (denominators != null)
+        denominators = Arrays.copyOf(denominators, size);
+    }
+  }
+
+  /**
+   * Gets the internal byte array, to fill it in bulk.
+   *
+   * @return the bytes (null if the type is not a byte type)
+   */
+  public byte[] getByteArray() {
+    return bytes;
+  }
+
+  /**
+   * Sets a byte value (BYTE, ASCII, SBYTE, UNDEFINED).
+   *
+   * @param i the index
+   * @param v the value
+   */
+  public void setByte(int i, byte v) {
+    bytes[i] = v;
+  }
+
+  /**
+   * Sets a short value (SHORT, SSHORT).
+   *
+   * @param i the index
+   * @param v the value
+   */
+  public void setShort(int i, short v) {
+    shorts[i] = v;
+  }
+
+  /**
+   * Sets an int value (LONG, SLONG, or the bits of a FLOAT).
+   *
+   * @param i the index
+   * @param v the value
+   */
+  public void setInt(int i, int v) {
+    ints[i] = v;
+  }
+
+  /**
+   * Sets a long value (the bits of a DOUBLE).
+   *
+   * @param i the index
+   * @param v the value
+   */
+  public void setLong(int i, long v) {
+    longs[i] = v;
+  }
+
+  /**
+   * Sets a rational value (RATIONAL, SRATIONAL).
+   *
+   * @param i the index
+   * @param numerator the numerator
+   * @param denominator the denominator
+   */
+  public void setRational(int i, int numerator, int denominator) {
+    ints[i] = numerator;
+    denominators[i] = denominator;
+  }
+
+  /**
+   * Gets a value as a long.<br>
+   * Unsigned types are zero-extended; rationals and floating point values are truncated.
+   *
+   * @param i the index
+   * @return the value
+   */
+  public long getLong(int i) {
+    checkIndex(i);
+    switch (type) {
+      case 1:
+      case 2:
+        return bytes[i] & 0xFF;
+      case 6:
+      case 7:
+        return bytes[i];
+      case 3:
+        return shorts[i] & 0xFFFF;
+      case 8:
+        return shorts[i];
+      case 4:
+        return ints[i] & 0xFFFFFFFFL;
+      case 9:
+        return ints[i];
+      case 11:
+      case 12:
+      case 5:
+      case 10:
+        return (long) getDouble(i);
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Gets a value as a double.
+   *
+   * @param i the index
+   * @return the value
+   */
+  public double getDouble(int i) {
+    checkIndex(i);
+    switch (type) {
+      case 11:
+        return java.lang.Float.intBitsToFloat(ints[i]);
+      case 12:
+        return java.lang.Double.longBitsToDouble(longs[i]);
+      case 5:
+        if (denominators[i] == 0)
+          return 0;
+        return (double) (ints[i] & 0xFFFFFFFFL) / (denominators[i] & 0xFFFFFFFFL);
+      case 10:
+        if (denominators[i] == 0)
+          return 0;
+        return (double) ints[i] / denominators[i];
+      default:
+        return getLong(i);
+    }
+  }
+
+  /**
+   * Gets the numerator of a rational value.
+   *
+   * @param i the index
+   * @return the numerator
+   */
+  public int getNumerator(int i) {
+    checkIndex(i);
+    return ints[i];
+  }
+
+  /**
+   * Gets the denominator of a rational value.
+   *
+   * @param i the index
+   * @return the denominator
+   */
+  public int getDenominator(int i) {
+    checkIndex(i);
+    return denominators[i];
+  }
+
+  /**
+   * Stores a list of tiff type objects in primitive arrays.
+   *
+   * @param type the tag type
+   * @param list the values
+   * @return the values, or null if any of the objects is not of the class of the tag type
+   */
+  public static PrimitiveValues of(int type, List<abstractTiffType> list) {
+    if (!supports(type)) {
+      return null;
+    }
+    PrimitiveValues values = new PrimitiveValues(type, list.size());
+    Class<?> cls = list.isEmpty() ? null : values.box(0).getClass();
+    for (int i = 0; i < list.size(); i++) {
+      abstractTiffType v = list.get(i);
+      if (v == null || v.getClass() != cls) {
+        return null;
+      }
+      switch (type) {
+        case 1:
+        case 2:
+        case 6:
+        case 7:
+          values.bytes[i] = v.toByte();
+          break;
+        case 3:
+        case 8:
+          values.shorts[i] = (short) v.toInt();
+          break;
+        case 4:
+        case 9:
+          values.ints[i] = (int) v.longValue();
+          break;
+        case 5:
+          values.ints[i] = ((Rational) v).getNumerator();
+          values.denominators[i] = ((Rational) v).getDenominator();
+          break;
+        case 10:
+          values.ints[i] = ((SRational) v).getNumerator();
+          values.denominators[i] = ((SRational) v).getDenominator();
+          break;
+        case 11:
+          values.ints[i] = java.lang.Float.floatToRawIntBits(((Float) v).getValue());
+          break;
+        default:
+          values.longs[i] = java.lang.Double.doubleToRawLongBits(((Double) v).getValue());
+          break;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Writes the type and the raw values.
+   *
+   * @param out the output
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeByte(type);
+    out.writeInt(size);
+    for (int i = 0; i < size; i++) {
+      switch (type) {
+        case 1:
+        case 2:
+        case 6:
+        case 7:
+          out.write(bytes, 0, size);
+          return;
+        case 3:
+        case 8:
+          out.writeShort(shorts[i]);
+          break;
+        case 4:
+        case 9:
+        case 11:
+          out.writeInt(ints[i]);
+          break;
+        case 12:
+          out.writeLong(longs[i]);
+          break;
+        default:
+          out.writeInt(ints[i]);
+          out.writeInt(denominators[i]);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Reads the values written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in the input
+   * @return the values
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static PrimitiveValues readFrom(DataInput in) throws IOException {
+    int type = in.readUnsignedByte();
+    int size = in.readInt();
+    if (!supports(type) || size < 0) {
+      throw new IOException("Invalid values of type " + type);
+    }
+    PrimitiveValues values = new PrimitiveValues(type, size);
+    for (int i = 0; i < size; i++) {
+      switch (type) {
+        case 1:
+        case 2:
+        case 6:
+        case 7:
+          in.readFully(values.bytes);
+          return values;
+        case 3:
+        case 8:
+          values.shorts[i] = in.readShort();
+          break;
+        case 4:
+        case 9:
+        case 11:
+          values.ints[i] = in.readInt();
+          break;
+        case 12:
+          values.longs[i] = in.readLong();
+          break;
+        default:
+          values.ints[i] = in.readInt();
+          values.denominators[i] = in.readInt();
+          break;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Gets a value as a tiff type object.
+   *
+   * @param i the index
+   * @return the value object
+   */
+  public abstractTiffType box(int i) {
+    checkIndex(i);
+    switch (type) {
+      case 1:
+        return new Byte(bytes[i] & 0xFF);
+      case 2:
+        return new Ascii(bytes[i] & 0xFF);
+      case 6:
+        return new SByte(bytes[i] & 0xFF);
+      case 7:
+        return new Undefined(bytes[i] & 0xFF);
+      case 3:
+        return new Short(shorts[i]);
+      case 8:
+        return new SShort(shorts[i]);
+      case 4:
+        return new Long(ints[i]);
+      case 9:
+        return new SLong(ints[i]);
+      case 5:
+        return new Rational(ints[i], denominators[i]);
+      case 10:
+        return new SRational(ints[i], denominators[i]);
+      case 11:
+        return new Float(java.lang.Float.intBitsToFloat(ints[i]));
+      default:
+        return new Double(java.lang.Double.longBitsToDouble(longs[i]));
+    }
+  }
+
+  /**
+   * Gets all the values as tiff type objects.
+   *
+   * @return the list of values
+   */
+  public List<abstractTiffType> boxAll() {
+    List<abstractTiffType> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(box(i));
+    }
+    return list;
+  }
+
+  /**
+   * Checks that the index is in range.
+   *
+   * @param i the index
+   */
+  private void checkIndex(int i) {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+    }
+  }
+}
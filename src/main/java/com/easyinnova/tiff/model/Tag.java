@@ -340,6 +340,15 @@ public class Tag {
     this.forceDescription = forceDescription;
   }
 
+  /**
+   * Gets the description forced for any value.
+   *
+   * @return the forced description (null if the values are described by their codes)
+   */
+  public String getForceDescription() {
+    return forceDescription;
+  }
+
   public void setValues(HashMap<String, String> values) {
     this.tagValueDescriptions = values;
   }
@@ -33,9 +33,13 @@ package com.easyinnova.tiff.model;
 
 import com.easyinnova.tiff.Constants;
 import com.easyinnova.tiff.model.types.Ascii;
+import com.easyinnova.tiff.model.types.Rational;
+import com.easyinnova.tiff.model.types.SRational;
 import com.easyinnova.tiff.model.types.Text;
 import com.easyinnova.tiff.model.types.abstractTiffType;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
@@ -49,7 +53,7 @@ import java.util.List;
 public class TagValue extends TiffObject implements Serializable {
 
   /** Do not modify! */
-  private static final long serialVersionUID = 2946L;
+  private static final long serialVersionUID = 2947L;
 
   /** The tag identifier. */
   private int id;
@@ -59,11 +63,30 @@ public class TagValue extends TiffObject implements Serializable {
 
   /** The list of values. */
   private List<abstractTiffType> value;
+
+  /**
+   * The values stored in primitive arrays, until the list of values is requested. It is read once
+   * into a local variable by the accessors, so that they see consistent values while another
+   * thread builds the list.
+   */
+  private volatile PrimitiveValues compact;
   private transient List<abstractTiffType> valueBackup;
 
   /** The list of readable values. */
   private List<abstractTiffType> readValue;
-  
+
+  /** Whether the readable values are the values themselves. */
+  private boolean readValueIsValue;
+
+  /** The loader of the values, for tags whose values are read on demand. */
+  private transient TagValueLoader loader;
+
+  /** Whether the values have to be read by the loader before being accessed. */
+  private transient volatile boolean pending;
+
+  /** Whether the values are being read by the loader (only accessed holding the lock). */
+  private transient boolean loading;
+
   /** The offset where the tag has been written. */
   private int offset;
 
@@ -168,8 +191,232 @@ public class TagValue extends TiffObject implements Serializable {
    * @return the list
    */
   public List<abstractTiffType> getValue() {
-    return this.value; 
-   }
+    load();
+    if (compact != null) {
+      synchronized (this) {
+        PrimitiveValues c = compact;
+        if (c != null) {
+          // The list is published before the primitive values are discarded
+          value = c.boxAll();
+          compact = null;
+        }
+      }
+    }
+    return this.value;
+  }
+
+  /**
+   * Sets the values stored in primitive arrays.<br>
+   * The list of value objects is only built if it is requested with {@link #getValue()}.
+   *
+   * @param values the values
+   */
+  public void setPrimitiveValues(PrimitiveValues values) {
+    if (!loading) {
+      // While loading, the values are only published when the loader finishes
+      pending = false;
+    }
+    compact = values;
+    value = null;
+  }
+
+  /**
+   * Gets the values stored in primitive arrays.
+   *
+   * @return the values, or null if the list of value objects has already been built
+   */
+  public PrimitiveValues getPrimitiveValues() {
+    load();
+    return compact;
+  }
+
+  /**
+   * Checks if the readable values have been set (see {@link #setReadValue()}).
+   *
+   * @return true, if the readable values have been set
+   */
+  public boolean hasReadValue() {
+    load();
+    return readValueIsValue || (readValue != null && !readValue.isEmpty());
+  }
+
+  /**
+   * Sets the loader that reads the values of the tag on demand.<br>
+   * The values are read the first time that they are accessed, and kept until
+   * {@link #unload()} is called.
+   *
+   * @param loader the loader
+   */
+  public void setLoader(TagValueLoader loader) {
+    this.loader = loader;
+    value = null;
+    compact = null;
+    readValue = null;
+    readValueIsValue = false;
+    pending = true;
+  }
+
+  /**
+   * Checks if the values have been read.
+   *
+   * @return true, if the values are available without accessing the source
+   */
+  public boolean isLoaded() {
+    return !pending;
+  }
+
+  /**
+   * Discards the values of a tag read on demand, so that they are read again from the source the
+   * next time they are accessed.
+   *
+   * @return true, if the values have been discarded (false if the tag has no loader)
+   */
+  public boolean unload() {
+    if (loader == null) {
+      return false;
+    }
+    setLoader(loader);
+    return true;
+  }
+
+  /**
+   * Reads the values with the loader, if they have not been read yet.<br>
+   * The tag is only marked as loaded when the loader finishes, so if it fails the values are read
+   * again the next time they are accessed.
+   */
+  private void load() {
+    if (pending) {
+      synchronized (this) {
+        if (pending && !loading) {
+          loading = true;
+          try {
+            loader.load(this);
+            pending = false;
+          } finally {
+            loading = false;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the pending values before the tag is serialized.
+   *
+   * @param out the output stream
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    load();
+    out.defaultWriteObject();
+  }
+
+  /**
+   * Gets a value as an int.
+   *
+   * @param i the index of the value
+   * @return the value
+   */
+  public int getInt(int i) {
+    return (int) getLong(i);
+  }
+
+  /**
+   * Gets a value as a long, without building the value objects.<br>
+   * Unsigned types are zero-extended; rationals and floating point values are truncated.
+   *
+   * @param i the index of the value
+   * @return the value
+   */
+  public long getLong(int i) {
+    load();
+    PrimitiveValues c = compact;
+    if (c != null)
+      return c.getLong(i);
+    return value.get(i).longValue();
+  }
+
+  /**
+   * Gets a value as a double, without building the value objects.
+   *
+   * @param i the index of the value
+   * @return the value
+   */
+  public double getDouble(int i) {
+    load();
+    PrimitiveValues c = compact;
+    if (c != null)
+      return c.getDouble(i);
+    return value.get(i).doubleValue();
+  }
+
+  /**
+   * Gets all the values as ints.
+   *
+   * @return the values
+   */
+  public int[] getIntArray() {
+    int[] array = new int[getCardinality()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = getInt(i);
+    }
+    return array;
+  }
+
+  /**
+   * Gets all the values as longs.
+   *
+   * @return the values
+   */
+  public long[] getLongArray() {
+    long[] array = new long[getCardinality()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = getLong(i);
+    }
+    return array;
+  }
+
+  /**
+   * Gets a rational value.
+   *
+   * @param i the index of the value
+   * @return the rational
+   */
+  public Rational getRational(int i) {
+    load();
+    PrimitiveValues c = compact;
+    if (c != null)
+      return new Rational(c.getNumerator(i), c.getDenominator(i));
+    abstractTiffType v = value.get(i);
+    if (v instanceof Rational)
+      return (Rational) v;
+    SRational r = (SRational) v;
+    return new Rational(r.getNumerator(), r.getDenominator());
+  }
+
+  /**
+   * Gets a value object, without building the whole list of values.
+   *
+   * @param i the index of the value
+   * @return the value object
+   */
+  private abstractTiffType element(int i) {
+    load();
+    PrimitiveValues c = compact;
+    if (c != null)
+      return c.box(i);
+    return value.get(i);
+  }
+
+  /**
+   * Checks if the tag has values.
+   *
+   * @return true, if the values are stored (as objects or in primitive arrays)
+   */
+  private boolean hasValue() {
+    load();
+    return compact != null || value != null;
+  }
 
   /**
    * Gets the list of values backups.
@@ -186,6 +433,13 @@ public class TagValue extends TiffObject implements Serializable {
    * @param value the new value
    */
   public void setValue(List<abstractTiffType> value) {
+    load();
+    loader = null;
+    if (readValueIsValue) {
+      readValue = getValue();
+      readValueIsValue = false;
+    }
+    compact = null;
     this.value = value;
   }
 
@@ -199,10 +453,15 @@ public class TagValue extends TiffObject implements Serializable {
   }
 
   public List<abstractTiffType> getReadValue() {
+    load();
+    if (readValueIsValue)
+      return getValue();
     return readValue;
   }
 
   public String getFirstTextReadValue() {
+    load();
+    if (readValueIsValue) return "";
     if (readValue == null) return "";
     for (abstractTiffType rVal : readValue){
       if (rVal instanceof Text){
@@ -213,7 +472,15 @@ public class TagValue extends TiffObject implements Serializable {
   }
 
   public void setReadValue() {
-    this.readValue = getDescriptiveValueObject();
+    Tag tag = TiffTags.getTag(id);
+    if (tag != null && !tag.hasReadableDescription()) {
+      // The readable values are the values, keep them unboxed
+      readValue = null;
+      readValueIsValue = true;
+    } else {
+      readValue = getDescriptiveValueObject();
+      readValueIsValue = false;
+    }
   }
 
   /**
@@ -222,7 +489,7 @@ public class TagValue extends TiffObject implements Serializable {
    * @param value the value
    */
   public void add(abstractTiffType value) {
-    this.value.add(value);
+    getValue().add(value);
   }
 
   /**
@@ -249,7 +516,11 @@ public class TagValue extends TiffObject implements Serializable {
    * @return the cardinality
    */
   public int getCardinality() {
-    return (value != null) ? value.size() : readValue.size() ;
+    load();
+    PrimitiveValues c = compact;
+    if (c != null)
+      return c.size();
+    return (value != null) ? value.size() : getReadValue().size();
   }
 
   /**
@@ -258,7 +529,14 @@ public class TagValue extends TiffObject implements Serializable {
    * @return the first integer value
    */
   public long getFirstNumericValue() {
-    String val = (value != null) ? value.get(0).toString() : readValue.get(0).toString();
+    load();
+    PrimitiveValues c = compact;
+    if (c != null && c.isInteger())
+      return c.getLong(0);
+    abstractTiffType first = hasValue() ? element(0) : getReadValue().get(0);
+    if (first.isInteger())
+      return first.longValue();
+    String val = first.toString();
     if (isInteger(val)) {
       return Long.parseLong(val);
     } else {
@@ -288,8 +566,10 @@ public class TagValue extends TiffObject implements Serializable {
    * @return the string
    */
   public String toString() {
-    if (value == null) return "";
+    load();
+    if (!hasValue()) return "";
     String s = "";
+    int n = getCardinality();
     if (type == 2 || type == 7) {
       s = readString();
     } else {
@@ -299,16 +579,15 @@ public class TagValue extends TiffObject implements Serializable {
       } catch (Exception ex) {
       }
       if (defined) {
-        if (value.size() > 0)
-          s = value.get(0).toString();
+        if (n > 0)
+          s = element(0).toString();
         else
           s = "";
-      } else if (type != 1 || value.size() < 10) {
-        int n = value.size();
+      } else if (type != 1 || n < 10) {
         if (n > 1)
           s += "[";
         for (int i = 0; i < n; i++) {
-          s += value.get(i).toString();
+          s += element(i).toString();
           if (n > 1 && i + 1 < n)
             s += ",";
           if (s.length() > Constants.MaxStringSize)
@@ -327,17 +606,25 @@ public class TagValue extends TiffObject implements Serializable {
    * @return String string
    */
   public String readString() {
-    int size = value.size();
+    if (!hasValue())
+      return "";
+    int size = getCardinality();
     if (size > Constants.MaxStringSize)
       size = Constants.MaxStringSize;
 
-    if (value == null || size == 0)
+    if (size == 0)
       return "";
 
-    byte[] bbs = new byte[size - 1];
-    for (int i = 0; i < size - 1; i++) {
-      abstractTiffType att = value.get(i);
-      bbs[i] = att.toByte();
+    byte[] bbs;
+    PrimitiveValues c = compact;
+    if (c != null && c.getByteArray() != null) {
+      bbs = Arrays.copyOf(c.getByteArray(), size - 1);
+    } else {
+      bbs = new byte[size - 1];
+      for (int i = 0; i < size - 1; i++) {
+        abstractTiffType att = element(i);
+        bbs[i] = att.toByte();
+      }
     }
     try {
       return new String(bbs, "UTF8");
@@ -368,7 +655,7 @@ public class TagValue extends TiffObject implements Serializable {
   public int getBytesBigEndian(int i, int j) {
     int result = 0;
     for (int k = i; k < i + j; k++) {
-      result += value.get(k).toUint();
+      result += element(k).toUint();
       if (k + 1 < i + j)
         result <<= 8;
     }
@@ -379,15 +666,19 @@ public class TagValue extends TiffObject implements Serializable {
    * Clears the list of values.
    */
   public void clear() {
-    value.clear();
+    getValue().clear();
   }
 
   /**
    * Reset.
    */
   public void reset() {
+    loader = null;
+    pending = false;
     value = new ArrayList<>();
+    compact = null;
     readValue = new ArrayList<>();
+    readValueIsValue = false;
   }
 }
 
@@ -35,9 +35,15 @@ import com.easyinnova.tiff.model.types.IFD;
 import com.easyinnova.tiff.model.types.IccProfile;
 import com.easyinnova.tiff.model.types.abstractTiffType;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Modeling of the TIFF file with methods to access its IFDs and metadata.
@@ -67,6 +73,12 @@ public class TiffDocument implements Serializable {
   private boolean fatalError;
   private String fatalErrorMessage;
 
+  /** The metadata contributed by each tag, to update the dictionary when the tags change. */
+  private transient Map<TagValue, Metadata> contributions;
+
+  /** The source of the tag values read on demand (null if all the values have been read). */
+  private transient Closeable source;
+
   /**
    * Instantiates a new tiff file.
    */
@@ -155,7 +167,7 @@ public class TiffDocument implements Serializable {
    */
   public int getIfdCount() {
     int c = 0;
-    if (metadata != null && metadata.contains("IFD"))
+    if (getMetadata().contains("IFD"))
       c = getMetadataList("IFD").size();
     return c;
   }
@@ -167,7 +179,7 @@ public class TiffDocument implements Serializable {
    */
   public int getIfdImagesCount() {
     int c = 0;
-    if (metadata.contains("IFD")) {
+    if (getMetadata().contains("IFD")) {
       List<TiffObject> l = getMetadataList("IFD");
       int n = 0;
       for (TiffObject to : l) {
@@ -233,7 +245,7 @@ public class TiffDocument implements Serializable {
    */
   public int getSubIfdCount() {
     int c = 0;
-    if (metadata != null && metadata.contains("SubIFDs"))
+    if (getMetadata().contains("SubIFDs"))
       c = getMetadataList("SubIFDs").size();
     return c;
   }
@@ -254,7 +266,7 @@ public class TiffDocument implements Serializable {
    */
   public List<TiffObject> getIfds() {
     List<TiffObject> l = new ArrayList<TiffObject>();
-    if (metadata != null && metadata.contains("IFD"))
+    if (getMetadata().contains("IFD"))
       l = getMetadataList("IFD");
     return l;
   }
@@ -300,7 +312,7 @@ public class TiffDocument implements Serializable {
    */
   public List<TiffObject> getSubIfds() {
     List<TiffObject> l = new ArrayList<TiffObject>();
-    if (metadata != null && metadata.contains("SubIFDs"))
+    if (getMetadata().contains("SubIFDs"))
       l = getMetadataList("SubIFDs");
     return l;
   }
@@ -371,7 +383,7 @@ public class TiffDocument implements Serializable {
   public String getMetadataSingleString(String name) {
     String s = "";
     if (metadata == null)
-      createMetadataDictionary();
+      buildMetadataDictionary();
     if (metadata.contains(name))
       s = metadata.get(name).toString();
     return s;
@@ -386,66 +398,159 @@ public class TiffDocument implements Serializable {
   public List<TiffObject> getMetadataList(String name) {
     List<TiffObject> l = new ArrayList<TiffObject>();
     if (metadata == null)
-      createMetadataDictionary();
+      buildMetadataDictionary();
     if (metadata.contains(name))
       l = metadata.getList(name);
     return l;
   }
 
   /**
-   * Creates the metadata dictionary.
+   * Creates the metadata dictionary from scratch.<br>
+   * The dictionary is created automatically the first time it is queried, and updated when tags are
+   * added or removed through this class, so this is only needed if the tags have been modified
+   * directly.
    */
   public void createMetadataDictionary() {
-    metadata = new Metadata();
+    contributions = null;
+    buildMetadataDictionary();
+  }
+
+  /**
+   * Builds the metadata dictionary, reusing the metadata of the tags that have not changed.
+   */
+  private void buildMetadataDictionary() {
+    if (contributions == null) {
+      contributions = new IdentityHashMap<>();
+    }
+    Metadata meta = new Metadata();
     if (firstIFD != null) {
-      addMetadataFromIFD(firstIFD, "IFD", false);
+      addMetadataFromIFD(meta, firstIFD, "IFD", false);
     }
+    metadata = meta;
   }
 
   /**
    * Adds the metadata from ifd.
    *
+   * @param target the dictionary where the metadata is added
    * @param ifd the ifd
    * @param key the key
    * @param exif the exif
-   * @the tiff tags io exception
    */
-  private void addMetadataFromIFD(IFD ifd, String key, boolean exif) {
-    metadata.add(key, ifd);
+  private void addMetadataFromIFD(Metadata target, IFD ifd, String key, boolean exif) {
+    target.add(key, ifd);
     for (TagValue tag : ifd.getMetadata().getTags()) {
+      target.addMetadata(getContribution(tag, key, exif));
+    }
+    if (ifd.hasNextIFD()) {
+      addMetadataFromIFD(target, ifd.getNextIFD(), key, false);
+    }
+  }
+
+  /**
+   * Gets the metadata contributed by a tag, creating it if it is not cached.
+   *
+   * @param tag the tag
+   * @param key the key of the IFDs
+   * @param exif whether the tag belongs to an EXIF IFD
+   * @return the metadata of the tag
+   */
+  private Metadata getContribution(TagValue tag, String key, boolean exif) {
+    Metadata meta = contributions.get(tag);
+    if (meta == null) {
+      meta = new Metadata();
       if (tag.getCardinality() == 1) {
         abstractTiffType t = tag.getValue().get(0);
         if (t.isIFD()) {
-          addMetadataFromIFD((IFD) t, key, true);
+          addMetadataFromIFD(meta, (IFD) t, key, true);
         } else if (t.containsMetadata()) {
           try {
-            Metadata meta = t.createMetadata();
-            metadata.addMetadata(meta);
+            meta.addMetadata(t.createMetadata());
           } catch (Exception ex) {
             // TODO: What?
           }
         } else {
           if (exif)
             t.setContainer("EXIF");
-          metadata.add(tag.getName(), t);
+          meta.add(tag.getName(), t);
         }
       } else {
         if (exif)
           tag.setContainer("EXIF");
-        metadata.add(tag.getName(), tag);
+        meta.add(tag.getName(), tag);
       }
+      contributions.put(tag, meta);
     }
-    if (ifd.hasNextIFD()) {
-      addMetadataFromIFD(ifd.getNextIFD(), key, false);
+    return meta;
+  }
+
+  /**
+   * Updates the metadata dictionary after a tag has been modified in place (for example, after
+   * editing its XMP or IPTC contents).
+   *
+   * @param tag the modified tag
+   */
+  public void invalidateMetadata(TagValue tag) {
+    if (contributions != null) {
+      contributions.remove(tag);
+    }
+    // The tag keeps its position, so the dictionary is merged again from the cached contributions
+    metadata = null;
+  }
+
+  /**
+   * Removes the metadata contributed by a tag that has been removed.
+   *
+   * @param tag the removed tag
+   */
+  private void removeContribution(TagValue tag) {
+    Metadata meta = contributions != null ? contributions.remove(tag) : null;
+    if (metadata != null) {
+      if (meta != null) {
+        metadata.removeMetadata(meta);
+      } else {
+        metadata = null;
+      }
     }
   }
 
+  /**
+   * Adds the metadata contributed by a tag that has been appended to the first IFD.
+   *
+   * @param tag the added tag
+   */
+  private void insertContribution(TagValue tag) {
+    if (contributions == null) {
+      // The contributions are not serialized, the dictionary is built again when it is queried
+      metadata = null;
+    }
+    if (metadata == null) {
+      return;
+    }
+    // In the dictionary, the new tag goes after the metadata of the other tags of the first IFD
+    Set<TiffObject> before = Collections.newSetFromMap(new IdentityHashMap<>());
+    before.add(firstIFD);
+    for (TagValue other : firstIFD.getMetadata().getTags()) {
+      if (other != tag) {
+        Metadata meta = contributions.get(other);
+        if (meta == null) {
+          metadata = null;
+          return;
+        }
+        for (String name : meta.keySet()) {
+          before.addAll(meta.getList(name));
+        }
+      }
+    }
+    metadata.insertMetadata(getContribution(tag, "IFD", false), before);
+  }
+
   /**
    * Prints the metadata.
    */
   public void printMetadata() {
     if (metadata == null)
-      createMetadataDictionary();
+      buildMetadataDictionary();
     System.out.println("METADATA");
     // if (metadata.getCreator() != null) System.out.println("Creator:" + metadata.getCreator());
     for (String name : metadata.keySet()) {
@@ -465,6 +570,8 @@ public class TiffDocument implements Serializable {
    * @return the metadata
    */
   public Metadata getMetadata() {
+    if (metadata == null)
+      buildMetadataDictionary();
     return metadata;
   }
 
@@ -479,14 +586,31 @@ public class TiffDocument implements Serializable {
     IFD ifd = firstIFD;
     while (ifd != null) {
       if (ifd.containsTagId(TiffTags.getTagId(tagName))) {
-        ifd.removeTag(tagName);
+        removeTag(ifd, tagName);
       }
       ifd = ifd.getNextIFD();
     }
-    createMetadataDictionary();
     return result;
   }
 
+  /**
+   * Removes the tag from an IFD, and its metadata from the dictionary.
+   *
+   * @param ifd the ifd
+   * @param tagName the tag name
+   */
+  private void removeTag(IFD ifd, String tagName) {
+    List<TagValue> removed = new ArrayList<>();
+    for (TagValue tag : ifd.getMetadata().getTags()) {
+      if (tag.getName().equals(tagName))
+        removed.add(tag);
+    }
+    ifd.removeTag(tagName);
+    for (TagValue tag : removed) {
+      removeContribution(tag);
+    }
+  }
+
   /**
    * Adds the tag.
    *
@@ -498,11 +622,34 @@ public class TiffDocument implements Serializable {
     boolean result = false;
     if (firstIFD != null) {
       if (firstIFD.containsTagId(TiffTags.getTagId(tagName))) {
-        firstIFD.removeTag(tagName);
+        removeTag(firstIFD, tagName);
       }
       firstIFD.addTag(tagName, tagValue);
-      createMetadataDictionary();
+      List<TagValue> tags = firstIFD.getMetadata().getTags();
+      insertContribution(tags.get(tags.size() - 1));
     }
     return result;
   }
+
+  /**
+   * Sets the source from which the tag values are read on demand.
+   *
+   * @param source the source, it is closed by {@link #close()}
+   */
+  public void setSource(Closeable source) {
+    this.source = source;
+  }
+
+  /**
+   * Closes the source of the tag values read on demand.<br>
+   * The values that have not been read yet cannot be read after closing it.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void close() throws IOException {
+    if (source != null) {
+      source.close();
+      source = null;
+    }
+  }
 }
@@ -0,0 +1,556 @@
+/**
+ * <h1>TiffDocumentCodec.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import com.easyinnova.tiff.model.types.IFD;
+import com.easyinnova.tiff.model.types.IPTC;
+import com.easyinnova.tiff.model.types.XMP;
+import com.easyinnova.tiff.model.types.abstractTiffType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a parsed {@link TiffDocument}, to store it in a cache or send it to
+ * another JVM without parsing the file again.<br>
+ * The values of the tags are written as raw primitive arrays, and the IFDs are written once and
+ * referenced by index. The XMP and IPTC contents are written in their serialized form and parsed
+ * again when decoding, so that they can be edited in the decoded document. Other typed values
+ * (such as the ICC profile) are written with Java serialization.<br>
+ * The metadata dictionary is not written, it is created again when it is requested.
+ */
+public final class TiffDocumentCodec {
+
+  /** The format identifier. */
+  private static final int MAGIC = 0x54444331;
+
+  /** The format version. */
+  private static final int VERSION = 1;
+
+  /** The tag values are stored in primitive arrays. */
+  private static final int VALUES_PRIMITIVE = 0;
+
+  /** The tag values are a list of objects. */
+  private static final int VALUES_OBJECTS = 1;
+
+  /** A reference to an IFD. */
+  private static final int OBJECT_IFD = 0;
+
+  /** An XMP packet. */
+  private static final int OBJECT_XMP = 1;
+
+  /** An IPTC block. */
+  private static final int OBJECT_IPTC = 2;
+
+  /** A Java serialized object. */
+  private static final int OBJECT_SERIALIZED = 3;
+
+  private TiffDocumentCodec() {
+  }
+
+  /**
+   * Encodes a document.
+   *
+   * @param document the document
+   * @return the encoded document
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static byte[] encode(TiffDocument document) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    write(document, bytes);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a document.
+   *
+   * @param bytes the encoded document
+   * @return the document
+   * @throws IOException if the data is not a valid encoded document
+   */
+  public static TiffDocument decode(byte[] bytes) throws IOException {
+    return read(new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * Writes a document.<br>
+   * The tag values read on demand are read from the source of the document.
+   *
+   * @param document the document
+   * @param out the output stream (it is flushed, but not closed)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static void write(TiffDocument document, OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    data.writeShort(document.getMagicNumber());
+    ByteOrder byteOrder = document.getEndianess();
+    data.writeByte(byteOrder == null ? -1 : byteOrder == ByteOrder.BIG_ENDIAN ? 1 : 0);
+    data.writeInt(document.getFirstIFDOffset());
+    data.writeLong(document.getSize());
+    data.writeBoolean(document.getFatalError());
+    writeNullable(data, document.getFatalErrorMEssage());
+
+    Map<IFD, Integer> index = new IdentityHashMap<>();
+    List<IFD> ifds = new ArrayList<>();
+    addIfd(document.getFirstIFD(), index, ifds);
+    // The list grows while the IFDs are visited
+    for (int i = 0; i < ifds.size(); i++) {
+      IFD ifd = ifds.get(i);
+      addIfd(ifd.getNextIFD(), index, ifds);
+      addIfd(ifd.getsubIFD(), index, ifds);
+      addIfd(ifd.getParent(), index, ifds);
+      for (TagValue tag : ifd.getMetadata().getTags()) {
+        if (tag.getPrimitiveValues() == null) {
+          for (abstractTiffType value : tag.getValue()) {
+            if (isIfd(value))
+              addIfd((IFD) value, index, ifds);
+          }
+        }
+      }
+    }
+
+    data.writeInt(ifds.size());
+    for (IFD ifd : ifds) {
+      data.writeBoolean(ifd.isImage());
+    }
+    data.writeInt(reference(document.getFirstIFD(), index));
+    for (IFD ifd : ifds) {
+      writeIfd(data, ifd, index);
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads a document.
+   *
+   * @param in the input stream (it is not closed)
+   * @return the document
+   * @throws IOException if the data is not a valid encoded document
+   */
+  public static TiffDocument read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Invalid encoded document");
+    }
+    int version = data.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported encoded document version " + version);
+    }
+    TiffDocument document = new TiffDocument();
+    document.setMagicNumber(data.readUnsignedShort());
+    int byteOrder = data.readByte();
+    if (byteOrder >= 0)
+      document.setByteOrder(byteOrder == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    document.setFirstIFDOffset(data.readInt());
+    document.setSize(data.readLong());
+    boolean fatalError = data.readBoolean();
+    document.setFatalError(fatalError, readNullable(data));
+
+    int n = data.readInt();
+    IFD[] ifds = new IFD[n];
+    for (int i = 0; i < n; i++) {
+      ifds[i] = new IFD(data.readBoolean());
+    }
+    IFD first = ifd(data.readInt(), ifds);
+    if (first != null)
+      document.addIfd0(first);
+    for (IFD ifd : ifds) {
+      readIfd(data, ifd, ifds);
+    }
+    return document;
+  }
+
+  /**
+   * Writes the contents of an IFD.
+   *
+   * @param data the output
+   * @param ifd the ifd
+   * @param index the indexes of the IFDs
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void writeIfd(DataOutputStream data, IFD ifd, Map<IFD, Integer> index)
+      throws IOException {
+    data.writeBoolean(ifd.isIFD());
+    data.writeInt(ifd.getOffset());
+    data.writeInt(ifd.getNextOffset());
+    writeNullable(data, ifd.getContainer());
+    data.writeInt(reference(ifd.getNextIFD(), index));
+    data.writeInt(reference(ifd.getsubIFD(), index));
+    data.writeInt(reference(ifd.getParent(), index));
+
+    List<TagValue> tags = ifd.getMetadata().getTags();
+    data.writeInt(tags.size());
+    for (TagValue tag : tags) {
+      writeTag(data, tag, index);
+    }
+
+    ImageStrips strips = ifd.getImageStrips();
+    data.writeBoolean(strips != null);
+    if (strips != null) {
+      data.writeLong(strips.getRowsPerStrip());
+      data.writeInt(strips.getStrips().size());
+      for (Strip strip : strips.getStrips()) {
+        data.writeInt(strip.getOffset());
+        data.writeInt(strip.getLength());
+        data.writeInt(strip.getStripRows());
+      }
+    }
+    ImageTiles tiles = ifd.getImageTiles();
+    data.writeBoolean(tiles != null);
+    if (tiles != null) {
+      data.writeInt(tiles.getTileWidth());
+      data.writeInt(tiles.getTileHeight());
+      data.writeInt(tiles.getTiles().size());
+      for (Tile tile : tiles.getTiles()) {
+        data.writeInt(tile.getOffset());
+        data.writeInt(tile.getWidth());
+        data.writeInt(tile.getHeight());
+        data.writeInt(tile.getPaddingX());
+        data.writeInt(tile.getPaddingY());
+      }
+    }
+  }
+
+  /**
+   * Reads the contents of an IFD.
+   *
+   * @param data the input
+   * @param ifd the ifd
+   * @param ifds the IFDs by index
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void readIfd(DataInputStream data, IFD ifd, IFD[] ifds) throws IOException {
+    ifd.setIsIFD(data.readBoolean());
+    ifd.setOffset(data.readInt());
+    ifd.setNextOffset(data.readInt());
+    ifd.setContainer(readNullable(data));
+    ifd.setNextIFD(ifd(data.readInt(), ifds));
+    ifd.setsubIFD(ifd(data.readInt(), ifds));
+    ifd.setParent(ifd(data.readInt(), ifds));
+
+    int ntags = data.readInt();
+    for (int i = 0; i < ntags; i++) {
+      ifd.addTag(readTag(data, ifds));
+    }
+
+    if (data.readBoolean()) {
+      ImageStrips strips = new ImageStrips();
+      strips.setRowsPerStrip(data.readLong());
+      int n = data.readInt();
+      List<Strip> list = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        Strip strip = new Strip();
+        strip.setOffset(data.readInt());
+        strip.setLength(data.readInt());
+        strip.setStripRows(data.readInt());
+        list.add(strip);
+      }
+      strips.setStrips(list);
+      ifd.setImageStrips(strips);
+    }
+    if (data.readBoolean()) {
+      ImageTiles tiles = new ImageTiles();
+      tiles.setTileWidth(data.readInt());
+      tiles.setTileHeight(data.readInt());
+      int n = data.readInt();
+      List<Tile> list = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        Tile tile = new Tile();
+        tile.setOffset(data.readInt());
+        tile.setWidth(data.readInt());
+        tile.setHeight(data.readInt());
+        int paddingX = data.readInt();
+        tile.setPadding(paddingX, data.readInt());
+        list.add(tile);
+      }
+      tiles.setTiles(list);
+      ifd.setImageTiles(tiles);
+    }
+  }
+
+  /**
+   * Writes a tag.
+   *
+   * @param data the output
+   * @param tag the tag
+   * @param index the indexes of the IFDs
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void writeTag(DataOutputStream data, TagValue tag, Map<IFD, Integer> index)
+      throws IOException {
+    data.writeShort(tag.getId());
+    data.writeShort(tag.getType());
+    data.writeInt(tag.getReadOffset());
+    data.writeInt(tag.getReadlength());
+    data.writeInt(tag.getTagOffset());
+    writeNullable(data, tag.getContainer());
+    data.writeBoolean(tag.hasReadValue());
+
+    PrimitiveValues values = tag.getPrimitiveValues();
+    if (values == null) {
+      values = PrimitiveValues.of(tag.getType(), tag.getValue());
+    }
+    if (values != null) {
+      data.writeByte(VALUES_PRIMITIVE);
+      values.writeTo(data);
+      return;
+    }
+    List<abstractTiffType> list = tag.getValue();
+    data.writeByte(VALUES_OBJECTS);
+    data.writeInt(list.size());
+    for (abstractTiffType value : list) {
+      if (isIfd(value)) {
+        data.writeByte(OBJECT_IFD);
+        data.writeInt(reference((IFD) value, index));
+      } else if (value instanceof XMP) {
+        data.writeByte(OBJECT_XMP);
+        writeBytes(data, serialize((XMP) value));
+      } else if (value instanceof IPTC && PrimitiveValues
+          .of(tag.getType(), ((IPTC) value).getOriginal()) != null) {
+        data.writeByte(OBJECT_IPTC);
+        PrimitiveValues.of(tag.getType(), ((IPTC) value).getOriginal()).writeTo(data);
+        writeBytes(data, ((IPTC) value).serialize());
+      } else {
+        data.writeByte(OBJECT_SERIALIZED);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bytes);
+        oos.writeObject(value);
+        oos.close();
+        writeBytes(data, bytes.toByteArray());
+      }
+    }
+  }
+
+  /**
+   * Reads a tag.
+   *
+   * @param data the input
+   * @param ifds the IFDs by index
+   * @return the tag
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static TagValue readTag(DataInputStream data, IFD[] ifds) throws IOException {
+    int id = data.readUnsignedShort();
+    int type = data.readUnsignedShort();
+    TagValue tag = new TagValue(id, type);
+    tag.setReadOffset(data.readInt());
+    tag.setReadLength(data.readInt());
+    tag.setTagOffset(data.readInt());
+    tag.setContainer(readNullable(data));
+    boolean hasReadValue = data.readBoolean();
+
+    int kind = data.readUnsignedByte();
+    if (kind == VALUES_PRIMITIVE) {
+      tag.setPrimitiveValues(PrimitiveValues.readFrom(data));
+    } else if (kind == VALUES_OBJECTS) {
+      int n = data.readInt();
+      for (int i = 0; i < n; i++) {
+        int object = data.readUnsignedByte();
+        switch (object) {
+          case OBJECT_IFD:
+            tag.add(ifd(data.readInt(), ifds));
+            break;
+          case OBJECT_XMP:
+            byte[] packet = readBytes(data);
+            PrimitiveValues bytes = new PrimitiveValues(7, packet.length);
+            System.arraycopy(packet, 0, bytes.getByteArray(), 0, packet.length);
+            TagValue xmpTag = new TagValue(id, type);
+            xmpTag.setPrimitiveValues(bytes);
+            try {
+              new XMP().read(xmpTag);
+            } catch (Exception ex) {
+              // Kept as read, like in the reader
+            }
+            tag.getValue().addAll(xmpTag.getValue());
+            break;
+          case OBJECT_IPTC:
+            TagValue iptcTag = new TagValue(id, type);
+            iptcTag.setPrimitiveValues(PrimitiveValues.readFrom(data));
+            new IPTC().read(iptcTag, readBytes(data));
+            tag.getValue().addAll(iptcTag.getValue());
+            break;
+          case OBJECT_SERIALIZED:
+            try {
+              ObjectInputStream ois =
+                  new ObjectInputStream(new ByteArrayInputStream(readBytes(data)));
+              tag.add((abstractTiffType) ois.readObject());
+            } catch (ClassNotFoundException | ClassCastException ex) {
+              throw new IOException("Invalid value of tag " + id, ex);
+            }
+            break;
+          default:
+            throw new IOException("Invalid value of tag " + id);
+        }
+      }
+    } else {
+      throw new IOException("Invalid values of tag " + id);
+    }
+    if (hasReadValue)
+      tag.setReadValue();
+    return tag;
+  }
+
+  /**
+   * Gets the XMP packet that has been read, or serializes it if it has been edited.
+   *
+   * @param xmp the xmp
+   * @return the XMP packet
+   */
+  private static byte[] serialize(XMP xmp) {
+    if (xmp.isEdited()) {
+      try {
+        return xmp.serialize();
+      } catch (Exception ex) {
+        // The packet that has been read is kept
+      }
+    }
+    return xmp.getBytes() == null ? new byte[0] : xmp.getBytes();
+  }
+
+  /**
+   * Checks if a value is an IFD written by reference.
+   *
+   * @param value the value
+   * @return true, if it is an IFD
+   */
+  private static boolean isIfd(abstractTiffType value) {
+    return value != null && value.getClass() == IFD.class;
+  }
+
+  /**
+   * Assigns an index to an IFD, if it does not have one.
+   *
+   * @param ifd the ifd (can be null)
+   * @param index the indexes of the IFDs
+   * @param ifds the IFDs in index order
+   */
+  private static void addIfd(IFD ifd, Map<IFD, Integer> index, List<IFD> ifds) {
+    if (ifd != null && !index.containsKey(ifd)) {
+      index.put(ifd, ifds.size());
+      ifds.add(ifd);
+    }
+  }
+
+  /**
+   * Gets the index of an IFD.
+   *
+   * @param ifd the ifd (can be null)
+   * @param index the indexes of the IFDs
+   * @return the index, -1 for null
+   */
+  private static int reference(IFD ifd, Map<IFD, Integer> index) {
+    return ifd == null ? -1 : index.get(ifd);
+  }
+
+  /**
+   * Gets an IFD by index.
+   *
+   * @param i the index, -1 for null
+   * @param ifds the IFDs by index
+   * @return the ifd
+   * @throws IOException if the index is not valid
+   */
+  private static IFD ifd(int i, IFD[] ifds) throws IOException {
+    if (i == -1) {
+      return null;
+    }
+    if (i < 0 || i >= ifds.length) {
+      throw new IOException("Invalid IFD reference " + i);
+    }
+    return ifds[i];
+  }
+
+  /**
+   * Writes a byte array with its length.
+   *
+   * @param data the output
+   * @param bytes the bytes
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void writeBytes(DataOutputStream data, byte[] bytes) throws IOException {
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  /**
+   * Reads a byte array written with {@link #writeBytes(DataOutputStream, byte[])}.
+   *
+   * @param data the input
+   * @return the bytes
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static byte[] readBytes(DataInputStream data) throws IOException {
+    int n = data.readInt();
+    if (n < 0) {
+      throw new IOException("Invalid length " + n);
+    }
+    byte[] bytes = new byte[n];
+    data.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Writes a string that can be null.
+   *
+   * @param data the output
+   * @param s the string
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void writeNullable(DataOutputStream data, String s) throws IOException {
+    data.writeBoolean(s != null);
+    if (s != null)
+      data.writeUTF(s);
+  }
+
+  /**
+   * Reads a string written with {@link #writeNullable(DataOutputStream, String)}.
+   *
+   * @param data the input
+   * @return the string
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static String readNullable(DataInputStream data) throws IOException {
+    return data.readBoolean() ? data.readUTF() : null;
+  }
+}
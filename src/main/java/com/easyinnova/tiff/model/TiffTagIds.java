@@ -0,0 +1,916 @@
+/*
+ * Generated by TiffTagsIndex from the tag definitions. Do not modify.
+ */
+package com.easyinnova.tiff.model;
+
+/**
+ * Identifiers of the known tags.
+ */
+public final class TiffTagIds {
+
+  /** ActiveArea. */
+  public static final int ACTIVE_AREA = 50829;
+
+  /** AliasLayerMetadata. */
+  public static final int ALIAS_LAYER_METADATA = 50784;
+
+  /** AnalogBalance. */
+  public static final int ANALOG_BALANCE = 50727;
+
+  /** AntiAliasStrength. */
+  public static final int ANTI_ALIAS_STRENGTH = 50738;
+
+  /** AperatureValue. */
+  public static final int APERATURE_VALUE = 37378;
+
+  /** Artist. */
+  public static final int ARTIST = 315;
+
+  /** AsSHORTWhiteXY. */
+  public static final int AS_SHORT_WHITE_XY = 50729;
+
+  /** AsShotICCProfile. */
+  public static final int AS_SHOT_ICC_PROFILE = 50831;
+
+  /** AsShotNeutral. */
+  public static final int AS_SHOT_NEUTRAL = 50728;
+
+  /** AsShotPreProfileMatrix. */
+  public static final int AS_SHOT_PRE_PROFILE_MATRIX = 50832;
+
+  /** AsShotProfileName. */
+  public static final int AS_SHOT_PROFILE_NAME = 50934;
+
+  /** BackgroundColorIndicator. */
+  public static final int BACKGROUND_COLOR_INDICATOR = 34024;
+
+  /** BackgroundColorValue. */
+  public static final int BACKGROUND_COLOR_VALUE = 34026;
+
+  /** BadFaxLines. */
+  public static final int BAD_FAX_LINES = 326;
+
+  /** BaselineExposure. */
+  public static final int BASELINE_EXPOSURE = 50730;
+
+  /** BaselineNoise. */
+  public static final int BASELINE_NOISE = 50731;
+
+  /** BaselineSharpness. */
+  public static final int BASELINE_SHARPNESS = 50732;
+
+  /** BayerGreenSplit. */
+  public static final int BAYER_GREEN_SPLIT = 50733;
+
+  /** BestQualityScale. */
+  public static final int BEST_QUALITY_SCALE = 50780;
+
+  /** BitsPerExtendedRunLength. */
+  public static final int BITS_PER_EXTENDED_RUN_LENGTH = 34021;
+
+  /** BitsPerRunLength. */
+  public static final int BITS_PER_RUN_LENGTH = 34020;
+
+  /** BitsPerSample. */
+  public static final int BITS_PER_SAMPLE = 258;
+
+  /** BlackLevel. */
+  public static final int BLACK_LEVEL = 50714;
+
+  /** BlackLevelDeltaH. */
+  public static final int BLACK_LEVEL_DELTA_H = 50715;
+
+  /** BlackLevelDeltaV. */
+  public static final int BLACK_LEVEL_DELTA_V = 50716;
+
+  /** BlackLevelRepeatDim. */
+  public static final int BLACK_LEVEL_REPEAT_DIM = 50713;
+
+  /** BrightnessValue. */
+  public static final int BRIGHTNESS_VALUE = 37379;
+
+  /** CalibrationIlluminant1. */
+  public static final int CALIBRATION_ILLUMINANT1 = 50778;
+
+  /** CalibrationIlluminant2. */
+  public static final int CALIBRATION_ILLUMINANT2 = 50779;
+
+  /** CallLength. */
+  public static final int CALL_LENGTH = 265;
+
+  /** CameraCalibration1. */
+  public static final int CAMERA_CALIBRATION1 = 50723;
+
+  /** CameraCalibration2. */
+  public static final int CAMERA_CALIBRATION2 = 50724;
+
+  /** CameraCalibrationSignature. */
+  public static final int CAMERA_CALIBRATION_SIGNATURE = 50931;
+
+  /** CameraSerialNumber. */
+  public static final int CAMERA_SERIAL_NUMBER = 50735;
+
+  /** CellWidth. */
+  public static final int CELL_WIDTH = 264;
+
+  /** CFALayout. */
+  public static final int CFA_LAYOUT = 50711;
+
+  /** CFAPattern. */
+  public static final int CFA_PATTERN = 41730;
+
+  /** CFAPlaneColor. */
+  public static final int CFA_PLANE_COLOR = 50710;
+
+  /** CFARepeatPatternDim. */
+  public static final int CFA_REPEAT_PATTERN_DIM = 33421;
+
+  /** ChromaBlurRadius. */
+  public static final int CHROMA_BLUR_RADIUS = 50737;
+
+  /** CleanFaxData. */
+  public static final int CLEAN_FAX_DATA = 327;
+
+  /** ClipPath. */
+  public static final int CLIP_PATH = 343;
+
+  /** CMYKEquivalent. */
+  public static final int CMYK_EQUIVALENT = 34032;
+
+  /** CodingMethods. */
+  public static final int CODING_METHODS = 403;
+
+  /** ColorimetricReference. */
+  public static final int COLORIMETRIC_REFERENCE = 50879;
+
+  /** ColorCharacterization. */
+  public static final int COLOR_CHARACTERIZATION = 34029;
+
+  /** ColorMap. */
+  public static final int COLOR_MAP = 320;
+
+  /** ColorMatrix1. */
+  public static final int COLOR_MATRIX1 = 50721;
+
+  /** ColorMatrix2. */
+  public static final int COLOR_MATRIX2 = 50722;
+
+  /** ColorResponseUnit. */
+  public static final int COLOR_RESPONSE_UNIT = 300;
+
+  /** ColorSequence. */
+  public static final int COLOR_SEQUENCE = 34017;
+
+  /** ColorSpace. */
+  public static final int COLOR_SPACE = 40961;
+
+  /** ColorTable. */
+  public static final int COLOR_TABLE = 34022;
+
+  /** ComponentsConfiguration. */
+  public static final int COMPONENTS_CONFIGURATION = 37121;
+
+  /** CompressedBitsPerPixel. */
+  public static final int COMPRESSED_BITS_PER_PIXEL = 37122;
+
+  /** Compression. */
+  public static final int COMPRESSION = 259;
+
+  /** ConsecutiveBadFaxLines. */
+  public static final int CONSECUTIVE_BAD_FAX_LINES = 328;
+
+  /** Contrast. */
+  public static final int CONTRAST = 41992;
+
+  /** Copyright. */
+  public static final int COPYRIGHT = 33432;
+
+  /** CurrentICCProfile. */
+  public static final int CURRENT_ICC_PROFILE = 50833;
+
+  /** CurrentPreProfileMatrix. */
+  public static final int CURRENT_PRE_PROFILE_MATRIX = 50834;
+
+  /** CustomRendered. */
+  public static final int CUSTOM_RENDERED = 41985;
+
+  /** DateTime. */
+  public static final int DATE_TIME = 306;
+
+  /** DateTimeDigitized. */
+  public static final int DATE_TIME_DIGITIZED = 36868;
+
+  /** DateTimeOriginal. */
+  public static final int DATE_TIME_ORIGINAL = 36867;
+
+  /** Decode. */
+  public static final int DECODE = 433;
+
+  /** DefaultCropOrigin. */
+  public static final int DEFAULT_CROP_ORIGIN = 50719;
+
+  /** DefaultCropSize. */
+  public static final int DEFAULT_CROP_SIZE = 50720;
+
+  /** DefaultScale. */
+  public static final int DEFAULT_SCALE = 50718;
+
+  /** DeviceSettingDescription. */
+  public static final int DEVICE_SETTING_DESCRIPTION = 41995;
+
+  /** DigitalZoomRatio. */
+  public static final int DIGITAL_ZOOM_RATIO = 41988;
+
+  /** DNGBackwardVersion. */
+  public static final int DNG_BACKWARD_VERSION = 50707;
+
+  /** DNGPrivateData. */
+  public static final int DNG_PRIVATE_DATA = 50740;
+
+  /** DNGVersion. */
+  public static final int DNG_VERSION = 50706;
+
+  /** DocumentName. */
+  public static final int DOCUMENT_NAME = 269;
+
+  /** DotRange. */
+  public static final int DOT_RANGE = 336;
+
+  /** ExifIFD. */
+  public static final int EXIF_IFD = 34665;
+
+  /** ExifVersion. */
+  public static final int EXIF_VERSION = 36864;
+
+  /** ExposureBiasValue. */
+  public static final int EXPOSURE_BIAS_VALUE = 37380;
+
+  /** ExposureIndex. */
+  public static final int EXPOSURE_INDEX = 41493;
+
+  /** ExposureMode. */
+  public static final int EXPOSURE_MODE = 41986;
+
+  /** ExposureProgram. */
+  public static final int EXPOSURE_PROGRAM = 34850;
+
+  /** ExposureTime. */
+  public static final int EXPOSURE_TIME = 33434;
+
+  /** ExtraCameraProfiles. */
+  public static final int EXTRA_CAMERA_PROFILES = 50933;
+
+  /** ExtraSamples. */
+  public static final int EXTRA_SAMPLES = 338;
+
+  /** FaxProfile. */
+  public static final int FAX_PROFILE = 402;
+
+  /** FileSource. */
+  public static final int FILE_SOURCE = 41728;
+
+  /** FillOrder. */
+  public static final int FILL_ORDER = 266;
+
+  /** Flash. */
+  public static final int FLASH = 37385;
+
+  /** FlashEnergy. */
+  public static final int FLASH_ENERGY = 41483;
+
+  /** FlashPixVersion. */
+  public static final int FLASH_PIX_VERSION = 40960;
+
+  /** FocalLength. */
+  public static final int FOCAL_LENGTH = 37386;
+
+  /** FocalLengthIn35mmFilm. */
+  public static final int FOCAL_LENGTH_IN35MM_FILM = 41989;
+
+  /** FocalPlaneResolutionUnit. */
+  public static final int FOCAL_PLANE_RESOLUTION_UNIT = 41488;
+
+  /** FocalPlaneXResolution. */
+  public static final int FOCAL_PLANE_X_RESOLUTION = 41486;
+
+  /** FocalPlaneYResolution. */
+  public static final int FOCAL_PLANE_Y_RESOLUTION = 41487;
+
+  /** ForwardMatrix1. */
+  public static final int FORWARD_MATRIX1 = 50964;
+
+  /** ForwardMatrix2. */
+  public static final int FORWARD_MATRIX2 = 50965;
+
+  /** FreeBYTECounts. */
+  public static final int FREE_BYTE_COUNTS = 289;
+
+  /** FreeOffsets. */
+  public static final int FREE_OFFSETS = 288;
+
+  /** FNumber. */
+  public static final int F_NUMBER = 33437;
+
+  /** GainControl. */
+  public static final int GAIN_CONTROL = 41991;
+
+  /** GeoAsciiParamsTag. */
+  public static final int GEO_ASCII_PARAMS_TAG = 34737;
+
+  /** GeoDOUBLEParamsTag. */
+  public static final int GEO_DOUBLE_PARAMS_TAG = 34736;
+
+  /** GlobalParameters. */
+  public static final int GLOBAL_PARAMETERS = 400;
+
+  /** GPSDOP. */
+  public static final int GPSDOP = 11;
+
+  /** GPSLONGitude. */
+  public static final int GPSLON_GITUDE = 4;
+
+  /** GPSLONGitudeRef. */
+  public static final int GPSLON_GITUDE_REF = 3;
+
+  /** GPSAltitude. */
+  public static final int GPS_ALTITUDE = 6;
+
+  /** GPSAltitudeRef. */
+  public static final int GPS_ALTITUDE_REF = 5;
+
+  /** GPSAreaInformation. */
+  public static final int GPS_AREA_INFORMATION = 28;
+
+  /** GPSDateStamp. */
+  public static final int GPS_DATE_STAMP = 29;
+
+  /** GPSDestBearing. */
+  public static final int GPS_DEST_BEARING = 24;
+
+  /** GPSDestBearingRef. */
+  public static final int GPS_DEST_BEARING_REF = 23;
+
+  /** GPSDestDistance. */
+  public static final int GPS_DEST_DISTANCE = 26;
+
+  /** GPSDestDistanceRef. */
+  public static final int GPS_DEST_DISTANCE_REF = 25;
+
+  /** GPSDestLatitude. */
+  public static final int GPS_DEST_LATITUDE = 20;
+
+  /** GPSDestLatitudeRef. */
+  public static final int GPS_DEST_LATITUDE_REF = 19;
+
+  /** GPSDestLONGitude. */
+  public static final int GPS_DEST_LON_GITUDE = 22;
+
+  /** GPSDestLONGitudeRef. */
+  public static final int GPS_DEST_LON_GITUDE_REF = 21;
+
+  /** GPSDifferential. */
+  public static final int GPS_DIFFERENTIAL = 30;
+
+  /** GPS IFD. */
+  public static final int GPS_IFD = 34853;
+
+  /** GPSImgDirection. */
+  public static final int GPS_IMG_DIRECTION = 17;
+
+  /** GPSImgDirectionRef. */
+  public static final int GPS_IMG_DIRECTION_REF = 16;
+
+  /** GPSLatitude. */
+  public static final int GPS_LATITUDE = 2;
+
+  /** GPSLatitudeRef. */
+  public static final int GPS_LATITUDE_REF = 1;
+
+  /** GPSMapDatum. */
+  public static final int GPS_MAP_DATUM = 18;
+
+  /** GPSMeasureMode. */
+  public static final int GPS_MEASURE_MODE = 10;
+
+  /** GPSProcessingMethod. */
+  public static final int GPS_PROCESSING_METHOD = 27;
+
+  /** GPSSatellites. */
+  public static final int GPS_SATELLITES = 8;
+
+  /** GPSSpeed. */
+  public static final int GPS_SPEED = 13;
+
+  /** GPSSpeedRef. */
+  public static final int GPS_SPEED_REF = 12;
+
+  /** GPSStatus. */
+  public static final int GPS_STATUS = 9;
+
+  /** GPSTimeStemp. */
+  public static final int GPS_TIME_STEMP = 7;
+
+  /** GPSTrack. */
+  public static final int GPS_TRACK = 15;
+
+  /** GPSTrackRef. */
+  public static final int GPS_TRACK_REF = 14;
+
+  /** GPSVersionID. */
+  public static final int GPS_VERSION_ID = 0;
+
+  /** GrayReponseCurve. */
+  public static final int GRAY_REPONSE_CURVE = 291;
+
+  /** GrayResponseUnit. */
+  public static final int GRAY_RESPONSE_UNIT = 290;
+
+  /** HalftoneHints. */
+  public static final int HALFTONE_HINTS = 321;
+
+  /** HCUsage. */
+  public static final int HC_USAGE = 34030;
+
+  /** HostComputer. */
+  public static final int HOST_COMPUTER = 316;
+
+  /** HylaFAX FaxRecvParams. */
+  public static final int HYLA_FAX_FAX_RECV_PARAMS = 34908;
+
+  /** HylaFAX FaxRecvTime. */
+  public static final int HYLA_FAX_FAX_RECV_TIME = 34910;
+
+  /** HylaFAX FaxSubAddress. */
+  public static final int HYLA_FAX_FAX_SUB_ADDRESS = 34909;
+
+  /** ICCProfile. */
+  public static final int ICC_PROFILE = 34675;
+
+  /** ImageBaseColor. */
+  public static final int IMAGE_BASE_COLOR = 434;
+
+  /** ImageColorIndicator. */
+  public static final int IMAGE_COLOR_INDICATOR = 34023;
+
+  /** ImageColorValue. */
+  public static final int IMAGE_COLOR_VALUE = 34025;
+
+  /** ImageDescription. */
+  public static final int IMAGE_DESCRIPTION = 270;
+
+  /** ImageID. */
+  public static final int IMAGE_ID = 32781;
+
+  /** ImageLayer. */
+  public static final int IMAGE_LAYER = 34732;
+
+  /** ImageLength. */
+  public static final int IMAGE_LENGTH = 257;
+
+  /** ImageSourceData. */
+  public static final int IMAGE_SOURCE_DATA = 37724;
+
+  /** ImageUniqueID. */
+  public static final int IMAGE_UNIQUE_ID = 42016;
+
+  /** ImageWidth. */
+  public static final int IMAGE_WIDTH = 256;
+
+  /** Indexed. */
+  public static final int INDEXED = 346;
+
+  /** InkNames. */
+  public static final int INK_NAMES = 333;
+
+  /** InkSet. */
+  public static final int INK_SET = 332;
+
+  /** IntergraphMatrixTag. */
+  public static final int INTERGRAPH_MATRIX_TAG = 33920;
+
+  /** Interlace. */
+  public static final int INTERLACE = 34857;
+
+  /** InteroperabilityIFD. */
+  public static final int INTEROPERABILITY_IFD = 40965;
+
+  /** IPTC. */
+  public static final int IPTC = 33723;
+
+  /** ISOSpeedRatings. */
+  public static final int ISO_SPEED_RATINGS = 34855;
+
+  /** IT8Header. */
+  public static final int IT8_HEADER = 34018;
+
+  /** JPEGACTables. */
+  public static final int JPEGAC_TABLES = 521;
+
+  /** JPEGDCTables. */
+  public static final int JPEGDC_TABLES = 520;
+
+  /** JPEGQTables. */
+  public static final int JPEGQ_TABLES = 519;
+
+  /** JPEGInterchangeFormat. */
+  public static final int JPEG_INTERCHANGE_FORMAT = 513;
+
+  /** JPEGInterfangeFormatLength. */
+  public static final int JPEG_INTERFANGE_FORMAT_LENGTH = 514;
+
+  /** JPEGLosslessPredictors. */
+  public static final int JPEG_LOSSLESS_PREDICTORS = 517;
+
+  /** JPEGPointTransforms. */
+  public static final int JPEG_POINT_TRANSFORMS = 518;
+
+  /** JPEGProc. */
+  public static final int JPEG_PROC = 512;
+
+  /** JPEGRestartInterval. */
+  public static final int JPEG_RESTART_INTERVAL = 515;
+
+  /** JPEGTables. */
+  public static final int JPEG_TABLES = 347;
+
+  /** LensInfo. */
+  public static final int LENS_INFO = 50736;
+
+  /** LightSource. */
+  public static final int LIGHT_SOURCE = 37384;
+
+  /** LinearizationTable. */
+  public static final int LINEARIZATION_TABLE = 50712;
+
+  /** LinearResponseLimit. */
+  public static final int LINEAR_RESPONSE_LIMIT = 50734;
+
+  /** LocalizedCameraModel. */
+  public static final int LOCALIZED_CAMERA_MODEL = 50709;
+
+  /** Make. */
+  public static final int MAKE = 271;
+
+  /** MakerNote. */
+  public static final int MAKER_NOTE = 37500;
+
+  /** MakerNoteSafety. */
+  public static final int MAKER_NOTE_SAFETY = 50741;
+
+  /** MaskedAreas. */
+  public static final int MASKED_AREAS = 50830;
+
+  /** MaxAperatureValue. */
+  public static final int MAX_APERATURE_VALUE = 37381;
+
+  /** MaxSampleValue. */
+  public static final int MAX_SAMPLE_VALUE = 281;
+
+  /** MeteringMode. */
+  public static final int METERING_MODE = 37383;
+
+  /** MinSampleValue. */
+  public static final int MIN_SAMPLE_VALUE = 280;
+
+  /** Model. */
+  public static final int MODEL = 272;
+
+  /** ModelPixelScaleTag. */
+  public static final int MODEL_PIXEL_SCALE_TAG = 33550;
+
+  /** ModelTiepointTag. */
+  public static final int MODEL_TIEPOINT_TAG = 33922;
+
+  /** ModelTransformationTag. */
+  public static final int MODEL_TRANSFORMATION_TAG = 34264;
+
+  /** ModeNumber. */
+  public static final int MODE_NUMBER = 405;
+
+  /** NewSubfileType. */
+  public static final int NEW_SUBFILE_TYPE = 254;
+
+  /** NoiseReductionApplied. */
+  public static final int NOISE_REDUCTION_APPLIED = 50935;
+
+  /** NoteNumber. */
+  public static final int NOTE_NUMBER = 405;
+
+  /** NumberOfInks. */
+  public static final int NUMBER_OF_INKS = 334;
+
+  /** OECF. */
+  public static final int OECF = 34856;
+
+  /** OPIProxy. */
+  public static final int OPI_PROXY = 351;
+
+  /** Orientation. */
+  public static final int ORIENTATION = 274;
+
+  /** OriginalRawFileData. */
+  public static final int ORIGINAL_RAW_FILE_DATA = 50828;
+
+  /** OriginalRawFileDigest. */
+  public static final int ORIGINAL_RAW_FILE_DIGEST = 50973;
+
+  /** OriginalRawFileName. */
+  public static final int ORIGINAL_RAW_FILE_NAME = 50827;
+
+  /** PageName. */
+  public static final int PAGE_NAME = 285;
+
+  /** PageNumber. */
+  public static final int PAGE_NUMBER = 297;
+
+  /** PhotometricInterpretation. */
+  public static final int PHOTOMETRIC_INTERPRETATION = 262;
+
+  /** Photoshop. */
+  public static final int PHOTOSHOP = 34377;
+
+  /** PixelIntensityRange. */
+  public static final int PIXEL_INTENSITY_RANGE = 34027;
+
+  /** PixelXDimension. */
+  public static final int PIXEL_X_DIMENSION = 40962;
+
+  /** PixelYDimension. */
+  public static final int PIXEL_Y_DIMENSION = 40963;
+
+  /** PlanarConfiguration. */
+  public static final int PLANAR_CONFIGURATION = 284;
+
+  /** Predictor. */
+  public static final int PREDICTOR = 317;
+
+  /** PreviewApplicationName. */
+  public static final int PREVIEW_APPLICATION_NAME = 50966;
+
+  /** PreviewApplicationVersion. */
+  public static final int PREVIEW_APPLICATION_VERSION = 50967;
+
+  /** PreviewColorSpace. */
+  public static final int PREVIEW_COLOR_SPACE = 50970;
+
+  /** PreviewDateTime. */
+  public static final int PREVIEW_DATE_TIME = 50971;
+
+  /** PreviewSettingsDigest. */
+  public static final int PREVIEW_SETTINGS_DIGEST = 50969;
+
+  /** PreviewSettingsName. */
+  public static final int PREVIEW_SETTINGS_NAME = 50968;
+
+  /** PrimaryChromaticities. */
+  public static final int PRIMARY_CHROMATICITIES = 319;
+
+  /** ProfileCalibrationSignature. */
+  public static final int PROFILE_CALIBRATION_SIGNATURE = 50932;
+
+  /** ProfileCopyright. */
+  public static final int PROFILE_COPYRIGHT = 50942;
+
+  /** ProfileEmbedPolicy. */
+  public static final int PROFILE_EMBED_POLICY = 50941;
+
+  /** ProfileHueSatMapData1. */
+  public static final int PROFILE_HUE_SAT_MAP_DATA1 = 50938;
+
+  /** ProfileHueSatMapData2. */
+  public static final int PROFILE_HUE_SAT_MAP_DATA2 = 50939;
+
+  /** ProfileHueSatMapDims. */
+  public static final int PROFILE_HUE_SAT_MAP_DIMS = 50937;
+
+  /** ProfileLookTableData. */
+  public static final int PROFILE_LOOK_TABLE_DATA = 50982;
+
+  /** ProfileLookTableDims. */
+  public static final int PROFILE_LOOK_TABLE_DIMS = 50981;
+
+  /** ProfileName. */
+  public static final int PROFILE_NAME = 50936;
+
+  /** ProfileToneCurve. */
+  public static final int PROFILE_TONE_CURVE = 50940;
+
+  /** ProfileType. */
+  public static final int PROFILE_TYPE = 401;
+
+  /** RasterPadding. */
+  public static final int RASTER_PADDING = 34019;
+
+  /** RawDataUniqueID. */
+  public static final int RAW_DATA_UNIQUE_ID = 50781;
+
+  /** RawImageDigest. */
+  public static final int RAW_IMAGE_DIGEST = 50972;
+
+  /** ReductionMatrix1. */
+  public static final int REDUCTION_MATRIX1 = 50725;
+
+  /** ReductionMatrix2. */
+  public static final int REDUCTION_MATRIX2 = 50726;
+
+  /** ReferenceBlackWhite. */
+  public static final int REFERENCE_BLACK_WHITE = 532;
+
+  /** RelatedSoundFile. */
+  public static final int RELATED_SOUND_FILE = 40964;
+
+  /** ResolutionUnit. */
+  public static final int RESOLUTION_UNIT = 296;
+
+  /** RowsPerStrip. */
+  public static final int ROWS_PER_STRIP = 278;
+
+  /** RowInterleaveFactor. */
+  public static final int ROW_INTERLEAVE_FACTOR = 50975;
+
+  /** SamplesPerPixel. */
+  public static final int SAMPLES_PER_PIXEL = 277;
+
+  /** SampleFormat. */
+  public static final int SAMPLE_FORMAT = 339;
+
+  /** Saturation. */
+  public static final int SATURATION = 41993;
+
+  /** SceneCaptureType. */
+  public static final int SCENE_CAPTURE_TYPE = 41990;
+
+  /** SceneType. */
+  public static final int SCENE_TYPE = 41729;
+
+  /** SelfTimerMode. */
+  public static final int SELF_TIMER_MODE = 34859;
+
+  /** SensingMethod. */
+  public static final int SENSING_METHOD = 41495;
+
+  /** ShadowScale. */
+  public static final int SHADOW_SCALE = 50739;
+
+  /** Sharpness. */
+  public static final int SHARPNESS = 41994;
+
+  /** ShutterSpeedValue. */
+  public static final int SHUTTER_SPEED_VALUE = 37377;
+
+  /** Site. */
+  public static final int SITE = 34016;
+
+  /** Software. */
+  public static final int SOFTWARE = 305;
+
+  /** SpatialFrequencyResponse. */
+  public static final int SPATIAL_FREQUENCY_RESPONSE = 41484;
+
+  /** SpectralSensitivity. */
+  public static final int SPECTRAL_SENSITIVITY = 34852;
+
+  /** StripBYTECount. */
+  public static final int STRIP_BYTE_COUNT = 279;
+
+  /** StripOffsets. */
+  public static final int STRIP_OFFSETS = 273;
+
+  /** StripRowCounts. */
+  public static final int STRIP_ROW_COUNTS = 559;
+
+  /** SubfileType. */
+  public static final int SUBFILE_TYPE = 255;
+
+  /** SubjectArea. */
+  public static final int SUBJECT_AREA = 37396;
+
+  /** SubjectDistance. */
+  public static final int SUBJECT_DISTANCE = 37382;
+
+  /** SubjectDistanceRange. */
+  public static final int SUBJECT_DISTANCE_RANGE = 41996;
+
+  /** SubjectLocation. */
+  public static final int SUBJECT_LOCATION = 41492;
+
+  /** SubIFDs. */
+  public static final int SUB_IF_DS = 330;
+
+  /** SubSecTime. */
+  public static final int SUB_SEC_TIME = 37520;
+
+  /** SubSecTimeDigitized. */
+  public static final int SUB_SEC_TIME_DIGITIZED = 37522;
+
+  /** SubSecTimeOriginal. */
+  public static final int SUB_SEC_TIME_ORIGINAL = 37521;
+
+  /** SubTileBlockSize. */
+  public static final int SUB_TILE_BLOCK_SIZE = 50974;
+
+  /** SMaxSampleValue. */
+  public static final int S_MAX_SAMPLE_VALUE = 341;
+
+  /** SMinSampleValue. */
+  public static final int S_MIN_SAMPLE_VALUE = 340;
+
+  /** T4Options. */
+  public static final int T4_OPTIONS = 292;
+
+  /** T6Options. */
+  public static final int T6_OPTIONS = 293;
+
+  /** T82Options. */
+  public static final int T82_OPTIONS = 435;
+
+  /** TargetPrinter. */
+  public static final int TARGET_PRINTER = 337;
+
+  /** Threshholding. */
+  public static final int THRESHHOLDING = 263;
+
+  /** TIFFEPStandardID. */
+  public static final int TIFFEP_STANDARD_ID = 37398;
+
+  /** TileBYTECounts. */
+  public static final int TILE_BYTE_COUNTS = 325;
+
+  /** TileLength. */
+  public static final int TILE_LENGTH = 323;
+
+  /** TileOffsets. */
+  public static final int TILE_OFFSETS = 324;
+
+  /** TileWidth. */
+  public static final int TILE_WIDTH = 322;
+
+  /** TimeZoneOffset. */
+  public static final int TIME_ZONE_OFFSET = 34858;
+
+  /** TransferFunction. */
+  public static final int TRANSFER_FUNCTION = 301;
+
+  /** TransferRange. */
+  public static final int TRANSFER_RANGE = 342;
+
+  /** TransparencyIndicator. */
+  public static final int TRANSPARENCY_INDICATOR = 34028;
+
+  /** TrapIndicator. */
+  public static final int TRAP_INDICATOR = 34031;
+
+  /** UniqueCameraModel. */
+  public static final int UNIQUE_CAMERA_MODEL = 50708;
+
+  /** UserComment. */
+  public static final int USER_COMMENT = 37510;
+
+  /** VersionYear. */
+  public static final int VERSION_YEAR = 404;
+
+  /** Wang Annotation. */
+  public static final int WANG_ANNOTATION = 32932;
+
+  /** WhiteBalance. */
+  public static final int WHITE_BALANCE = 41987;
+
+  /** WhiteLevel. */
+  public static final int WHITE_LEVEL = 50717;
+
+  /** WhitePoint. */
+  public static final int WHITE_POINT = 318;
+
+  /** XMP. */
+  public static final int XMP = 700;
+
+  /** XClipPathUnits. */
+  public static final int X_CLIP_PATH_UNITS = 344;
+
+  /** XPosition. */
+  public static final int X_POSITION = 286;
+
+  /** XResolution. */
+  public static final int X_RESOLUTION = 282;
+
+  /** YCbCrCoefficients. */
+  public static final int Y_CB_CR_COEFFICIENTS = 529;
+
+  /** YCbCrPositioning. */
+  public static final int Y_CB_CR_POSITIONING = 531;
+
+  /** YCbCrSubSampling. */
+  public static final int Y_CB_CR_SUB_SAMPLING = 530;
+
+  /** YClipPathUnits. */
+  public static final int Y_CLIP_PATH_UNITS = 345;
+
+  /** YPosition. */
+  public static final int Y_POSITION = 287;
+
+  /** YResolution. */
+  public static final int Y_RESOLUTION = 283;
+
+  private TiffTagIds() {
+  }
+}
@@ -21,50 +21,212 @@ package com.easyinnova.tiff.model;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.CodeSource;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 /**
- * The Class TiffTags.
+ * The Class TiffTags.<br>
+ * The dictionary of tags is loaded once, when the class is initialized, and it is immutable
+ * afterwards, so it can be read from any thread without locking. Tags are looked up by id in a
+ * dense array.
  */
 public class TiffTags {
 
+  /** The names of the tag types, indexed by type id. */
+  private static final String[] TYPE_NAMES = {null, "BYTE", "ASCII", "SHORT", "LONG", "RATIONAL",
+      "SBYTE", "UNDEFINED", "SSHORT", "SSHORT", "SRATIONAL", "FLOAT", "DOUBLE", "SUBIFD"};
+
+  /** The tags, indexed by tag id. */
+  private static final Tag[] tagsById;
+
+  /** The tags, by name. */
+  private static final Map<String, Tag> tagsByName;
+
   /**
-   * The tag map.
+   * The tag map.<br>
+   * Read-only: it is kept for compatibility, and it throws UnsupportedOperationException on any
+   * modification.
+   *
+   * @deprecated use {@link #getTag(int)} and {@link #hasTag(int)}
    */
-  public static HashMap<Integer, Tag> tagMap = new HashMap<Integer, Tag>();
+  @Deprecated
+  public static HashMap<Integer, Tag> tagMap;
+
   /**
-   * The tag types.
+   * The tag types.<br>
+   * Read-only: it is kept for compatibility, and it throws UnsupportedOperationException on any
+   * modification.
+   *
+   * @deprecated use {@link #getTagTypeName(int)}
    */
-  public static HashMap<Integer, String> tagTypes = new HashMap<Integer, String>();
+  @Deprecated
+  public static HashMap<Integer, String> tagTypes;
+
   /**
-   * The tag names.
+   * The tag names.<br>
+   * Read-only: it is kept for compatibility, and it throws UnsupportedOperationException on any
+   * modification.
+   *
+   * @deprecated use {@link #getTagId(String)}
    */
-  protected static HashMap<String, Tag> tagNames = new HashMap<String, Tag>();
+  @Deprecated
+  protected static HashMap<String, Tag> tagNames;
+
+  /** Whether the tags could not be loaded. */
+  private static final boolean loadError;
+
+  /** The singleton instance. */
+  private static final TiffTags instance = new TiffTags();
+
+  static {
+    List<Tag> tags;
+    boolean error = false;
+    try {
+      tags = loadTags();
+    } catch (Exception ex) {
+      tags = new ArrayList<>();
+      error = true;
+    }
+    loadError = error;
+
+    // Later definitions of the same id or name replace the previous ones
+    Map<Integer, Tag> byId = new LinkedHashMap<>();
+    Map<String, Tag> byName = new HashMap<>();
+    int maxId = -1;
+    for (Tag tag : tags) {
+      byId.put(tag.getId(), tag);
+      byName.put(tag.getName(), tag);
+      maxId = Math.max(maxId, tag.getId());
+    }
+    Tag[] array = new Tag[maxId + 1];
+    for (Tag tag : byId.values()) {
+      array[tag.getId()] = tag;
+    }
+    tagsById = array;
+    tagsByName = byName;
+    tagNames = new ReadOnlyHashMap<>(byName);
+    tagMap = new ReadOnlyHashMap<>(byId);
+
+    Map<Integer, String> types = new LinkedHashMap<>();
+    for (int i = 1; i < TYPE_NAMES.length; i++) {
+      types.put(i, TYPE_NAMES[i]);
+    }
+    tagTypes = new ReadOnlyHashMap<>(types);
+  }
+
   /**
-   * The singleton instance.
+   * A HashMap that cannot be modified, for the legacy public fields.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
    */
-  private static TiffTags instance = null;
+  private static class ReadOnlyHashMap<K, V> extends HashMap<K, V> {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Instantiates a new read only hash map with the entries of a map.
+     *
+     * @param map the map
+     */
+    ReadOnlyHashMap(Map<K, V> map) {
+      super(map);
+    }
+
+    @Override public V put(K key, V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public void putAll(Map<? extends K, ? extends V> m) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public V remove(Object key) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public void clear() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public V putIfAbsent(K key, V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean remove(Object key, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean replace(K key, V oldValue, V newValue) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public V replace(K key, V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public V computeIfAbsent(K key,
+        Function<? super K, ? extends V> mappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public V computeIfPresent(K key,
+        BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public V compute(K key,
+        BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public V merge(K key, V value,
+        BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override public Set<K> keySet() {
+      return Collections.unmodifiableSet(super.keySet());
+    }
+
+    @Override public Collection<V> values() {
+      return Collections.unmodifiableCollection(super.values());
+    }
+
+    @Override public Set<Map.Entry<K, V>> entrySet() {
+      return Collections.unmodifiableSet(super.entrySet());
+    }
+  }
 
   /**
-   * Read tag from buffer.
+   * Parses the JSON definition of a tag.
    *
-   * @param br the br
+   * @param br the reader of the JSON definition
+   * @param close whether to close the reader
    * @return the tag
    */
-  private static Tag readTagFromBuffer(BufferedReader br, boolean close) {
+  static Tag parseTag(BufferedReader br, boolean close) {
     int id = 0;
     String name = "", forceDescription = null;
     ArrayList<String> types = new ArrayList<>();
@@ -135,74 +297,53 @@ public class TiffTags {
       }
       tag.setValues(values);
     }
-
-    tagMap.put(tag.getId(), tag);
-    tagNames.put(tag.getName(), tag);
     return tag;
   }
 
   /**
-   * Instantiates a new tiff tags.
+   * Loads the tag definitions, from the precompiled index if it is available, or else from the
+   * JSON files in the source folder or in the jar.
    *
-   * @throws ReadTagsIOException the read tags io exception
+   * @return the tags, in the order they have to be registered
+   * @throws Exception if the definitions cannot be read
    */
-  protected TiffTags() throws ReadTagsIOException {
+  private static List<Tag> loadTags() throws Exception {
+    InputStream index = TiffTags.class.getResourceAsStream(TiffTagsIndex.RESOURCE);
+    if (index != null) {
+      // Precompiled index in the classpath
+      return TiffTagsIndex.read(index);
+    }
+    File folder = new File("./src/main/resources/tifftags/");
+    if (folder.exists() && folder.isDirectory()) {
+      // Look in current dir
+      return TiffTagsIndex.parse(folder);
+    }
+    // Look in JAR
+    CodeSource src = TiffTags.class.getProtectionDomain().getCodeSource();
+    if (src == null) {
+      throw new IOException("Tag definitions not found");
+    }
+    List<Tag> tags = new ArrayList<>();
+    URL jar = src.getLocation();
+    ZipInputStream zip = new ZipInputStream(jar.openStream());
     try {
-      Path path = Paths.get("./src/main/resources/tifftags");
-      if (Files.exists(path)) {
-        // Look in current dir
-        File folder = new File("./src/main/resources/tifftags/");
-        if (folder.exists() && folder.isDirectory()) {
-          for (final File fileEntry : folder.listFiles()) {
-            try {
-              FileReader fr = new FileReader(fileEntry.toPath().toString());
-              BufferedReader br = new BufferedReader(fr);
-              readTagFromBuffer(br, true);
-            } catch (FileNotFoundException e) {
-              throw new ReadTagsIOException();
-            }
-          }
-        }
-      } else {
-        // Look in JAR
-        CodeSource src = TiffTags.class.getProtectionDomain().getCodeSource();
-        if (src != null) {
-          URL jar = src.getLocation();
-          ZipInputStream zip = new ZipInputStream(jar.openStream());
-          ZipEntry zipFile;
-          while ((zipFile = zip.getNextEntry()) != null) {
-            String name = zipFile.getName();
-            if (name.startsWith("tifftags/") && !name.equals("tifftags/")) {
-              try {
-                BufferedReader in = new BufferedReader(new InputStreamReader(zip));
-                readTagFromBuffer(in, false);
-              } catch (Exception ex) {
-                throw new ReadTagsIOException();
-              }
-            }
-          }
-        } else {
-          throw new ReadTagsIOException();
+      ZipEntry zipFile;
+      while ((zipFile = zip.getNextEntry()) != null) {
+        String name = zipFile.getName();
+        if (name.startsWith("tifftags/") && !name.equals("tifftags/")) {
+          tags.add(parseTag(new BufferedReader(new InputStreamReader(zip)), false));
         }
       }
-      // generateTagRules();
-
-      tagTypes.put(1, "BYTE");
-      tagTypes.put(2, "ASCII");
-      tagTypes.put(3, "SHORT");
-      tagTypes.put(4, "LONG");
-      tagTypes.put(5, "RATIONAL");
-      tagTypes.put(6, "SBYTE");
-      tagTypes.put(7, "UNDEFINED");
-      tagTypes.put(8, "SSHORT");
-      tagTypes.put(9, "SSHORT");
-      tagTypes.put(10, "SRATIONAL");
-      tagTypes.put(11, "FLOAT");
-      tagTypes.put(12, "DOUBLE");
-      tagTypes.put(13, "SUBIFD");
-    } catch (Exception ex) {
-      throw new ReadTagsIOException();
+    } finally {
+      zip.close();
     }
+    return tags;
+  }
+
+  /**
+   * Instantiates a new tiff tags.
+   */
+  protected TiffTags() {
   }
 
   /**
@@ -213,8 +354,9 @@ public class TiffTags {
   protected void generateTagRules() throws ReadTagsIOException {
     try {
       PrintWriter writer = new PrintWriter("typecheck.xml", "UTF-8");
-      for (int tagId : tagMap.keySet()) {
-        Tag tag = tagMap.get(tagId);
+      for (Tag tag : tagsById) {
+        if (tag == null)
+          continue;
         writer.println("  <rule context=\"tag[id=" + tag.getId() + "]\">");
         String typeRule = "";
         for (String tagType : tag.getType()) {
@@ -228,9 +370,8 @@ public class TiffTags {
       writer.close();
 
       writer = new PrintWriter("cardinalitycheck.xml", "UTF-8");
-      for (int tagId : tagMap.keySet()) {
-        Tag tag = tagMap.get(tagId);
-        if (tag.getCardinality().length() > 0 && !tag.getCardinality().equals("N")) {
+      for (Tag tag : tagsById) {
+        if (tag != null && tag.getCardinality().length() > 0 && !tag.getCardinality().equals("N")) {
           try {
             int card = Integer.parseInt(tag.getCardinality());
             writer.println("  <rule context=\"tag[id=" + tag.getId() + "]\">");
@@ -254,11 +395,11 @@ public class TiffTags {
    * Gets the tiff tags.
    *
    * @return the singleton instance
-   * @throws ReadTagsIOException the read tags io exception
+   * @throws ReadTagsIOException if the tag definitions could not be loaded
    */
-  public static synchronized TiffTags getTiffTags() throws ReadTagsIOException {
-    if (instance == null) {
-      instance = new TiffTags();
+  public static TiffTags getTiffTags() throws ReadTagsIOException {
+    if (loadError) {
+      throw new ReadTagsIOException();
     }
     return instance;
   }
@@ -270,16 +411,8 @@ public class TiffTags {
    * @return the tag or null if the identifier does not exist
    */
   public static Tag getTag(int identifier) {
-    Tag t = null;
-    try {
-      if (instance == null)
-        getTiffTags();
-    } catch (ReadTagsIOException e) {
-      /*Nothing to be shown*/
-    }
-    if (tagMap.containsKey(identifier))
-      t = tagMap.get(identifier);
-    return t;
+    Tag[] tags = tagsById;
+    return identifier >= 0 && identifier < tags.length ? tags[identifier] : null;
   }
 
   /**
@@ -317,19 +450,11 @@ public class TiffTags {
    * Gets the tag id.
    *
    * @param name the name
-   * @return the tag id
+   * @return the tag id, or -1 if the name does not exist
    */
   public static int getTagId(String name) {
-    int id = -1;
-    try {
-      if (instance == null)
-        getTiffTags();
-    } catch (ReadTagsIOException e) {
-      /*Nothing to be shown*/
-    }
-    if (tagNames.containsKey(name))
-      id = tagNames.get(name).getId();
-    return id;
+    Tag tag = tagsByName.get(name);
+    return tag != null ? tag.getId() : -1;
   }
 
   /**
@@ -339,7 +464,7 @@ public class TiffTags {
    * @return true, if successful
    */
   public static boolean hasTag(int id) {
-    return tagMap.containsKey(id);
+    return getTag(id) != null;
   }
 
   /**
@@ -349,6 +474,6 @@ public class TiffTags {
    * @return the tag type name
    */
   public static String getTagTypeName(int id) {
-    return tagTypes.get(id);
+    return id > 0 && id < TYPE_NAMES.length ? TYPE_NAMES[id] : null;
   }
 }
@@ -0,0 +1,294 @@
+/**
+ * <h1>TiffTagsIndex.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Precompiled binary index of the tag definitions.<br>
+ * The JSON definitions in the tifftags folder are compiled with {@link #main(String[])} into the
+ * {@link #RESOURCE} classpath resource, which is loaded with a single read instead of scanning and
+ * parsing every JSON file. The same step generates the {@link TiffTagIds} constants.
+ */
+public class TiffTagsIndex {
+
+  /** The classpath resource of the index. */
+  public static final String RESOURCE = "/tifftags.idx";
+
+  /** The index format identifier. */
+  private static final int MAGIC = 0x54544931;
+
+  /**
+   * Reads the tags from an index.
+   *
+   * @param in the input stream of the index (it is closed after reading)
+   * @return the tags, in the order they have to be registered
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static List<Tag> read(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      byte[] b = new byte[65536];
+      int n;
+      while ((n = in.read(b)) > 0) {
+        bytes.write(b, 0, n);
+      }
+    } finally {
+      in.close();
+    }
+
+    DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Invalid tag index");
+    }
+    int count = data.readInt();
+    List<Tag> tags = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int id = data.readInt();
+      String name = data.readUTF().intern();
+      int ntypes = data.readUnsignedShort();
+      ArrayList<String> types = new ArrayList<>(ntypes);
+      for (int j = 0; j < ntypes; j++) {
+        types.add(data.readUTF());
+      }
+      String cardinality = data.readUTF();
+      String defaultValue = data.readUTF();
+      String typedef = readNullable(data);
+      String forceDescription = readNullable(data);
+      Tag tag = new Tag(id, name, types, cardinality, defaultValue, typedef, forceDescription);
+      tag.setDescription(readNullable(data));
+      tag.createValuesDictionary();
+      int nvalues = data.readUnsignedShort();
+      if (nvalues > 0) {
+        HashMap<String, String> values = new HashMap<String, String>();
+        for (int j = 0; j < nvalues; j++) {
+          values.put(data.readUTF(), data.readUTF());
+        }
+        tag.setValues(values);
+      }
+      tags.add(tag);
+    }
+    return tags;
+  }
+
+  /**
+   * Writes the tags to an index.
+   *
+   * @param tags the tags, in the order they have to be registered
+   * @param out the output stream
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static void write(List<Tag> tags, OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(tags.size());
+    for (Tag tag : tags) {
+      data.writeInt(tag.getId());
+      data.writeUTF(tag.getName());
+      data.writeShort(tag.getType().size());
+      for (String type : tag.getType()) {
+        data.writeUTF(type);
+      }
+      data.writeUTF(tag.getCardinality());
+      data.writeUTF(tag.getDefaultValue());
+      writeNullable(data, tag.getTypedef());
+      writeNullable(data, tag.getForceDescription());
+      writeNullable(data, tag.getDescription());
+      // Sorted, so that the index does not depend on the hash order
+      Map<String, String> values = new TreeMap<>(tag.getValues());
+      data.writeShort(values.size());
+      for (Map.Entry<String, String> entry : values.entrySet()) {
+        data.writeUTF(entry.getKey());
+        data.writeUTF(entry.getValue());
+      }
+    }
+    data.flush();
+  }
+
+  /**
+   * Parses the JSON definitions of a folder, sorted by file name.
+   *
+   * @param folder the folder
+   * @return the tags
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static List<Tag> parse(File folder) throws IOException {
+    File[] files = folder.listFiles();
+    if (files == null) {
+      throw new IOException("Cannot list " + folder);
+    }
+    Arrays.sort(files);
+    List<Tag> tags = new ArrayList<>();
+    for (File file : files) {
+      if (file.getName().endsWith(".json")) {
+        tags.add(TiffTags.parseTag(new BufferedReader(new FileReader(file)), true));
+      }
+    }
+    return tags;
+  }
+
+  /**
+   * Gets the constant name of a tag (ImageWidth is IMAGE_WIDTH).
+   *
+   * @param name the tag name
+   * @return the constant name
+   */
+  public static String constantName(String name) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!Character.isLetterOrDigit(c)) {
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '_')
+          sb.append('_');
+        continue;
+      }
+      if (i > 0 && Character.isUpperCase(c) && sb.length() > 0
+          && sb.charAt(sb.length() - 1) != '_') {
+        char prev = name.charAt(i - 1);
+        boolean nextLower = i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1));
+        if (Character.isLowerCase(prev) || Character.isDigit(prev)
+            || (Character.isUpperCase(prev) && nextLower))
+          sb.append('_');
+      }
+      sb.append(Character.toUpperCase(c));
+    }
+    if (sb.length() == 0 || Character.isDigit(sb.charAt(0)))
+      sb.insert(0, "TAG_");
+    return sb.toString();
+  }
+
+  /**
+   * Writes the source of the class with the constants of the tag ids.
+   *
+   * @param tags the tags
+   * @param out the writer
+   * @throws IOException if two tags have the same constant name
+   */
+  public static void writeConstants(List<Tag> tags, PrintWriter out) throws IOException {
+    Map<String, Tag> constants = new TreeMap<>();
+    Set<String> names = new HashSet<>();
+    for (Tag tag : tags) {
+      if (!names.add(tag.getName())) {
+        continue;
+      }
+      String constant = constantName(tag.getName());
+      if (constants.containsKey(constant)) {
+        throw new IOException("Duplicate constant " + constant);
+      }
+      constants.put(constant, tag);
+    }
+
+    out.println("/*");
+    out.println(" * Generated by TiffTagsIndex from the tag definitions. Do not modify.");
+    out.println(" */");
+    out.println("package com.easyinnova.tiff.model;");
+    out.println();
+    out.println("/**");
+    out.println(" * Identifiers of the known tags.");
+    out.println(" */");
+    out.println("public final class TiffTagIds {");
+    for (Map.Entry<String, Tag> entry : constants.entrySet()) {
+      out.println();
+      out.println("  /** " + entry.getValue().getName() + ". */");
+      out.println("  public static final int " + entry.getKey() + " = "
+          + entry.getValue().getId() + ";");
+    }
+    out.println();
+    out.println("  private TiffTagIds() {");
+    out.println("  }");
+    out.println("}");
+    out.flush();
+  }
+
+  /**
+   * Reads a string that can be null.
+   *
+   * @param data the input
+   * @return the string
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static String readNullable(DataInputStream data) throws IOException {
+    return data.readBoolean() ? data.readUTF() : null;
+  }
+
+  /**
+   * Writes a string that can be null.
+   *
+   * @param data the output
+   * @param s the string
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void writeNullable(DataOutputStream data, String s) throws IOException {
+    data.writeBoolean(s != null);
+    if (s != null) {
+      data.writeUTF(s);
+    }
+  }
+
+  /**
+   * Compiles the tag definitions into the index and the constants class.
+   *
+   * @param args the definitions folder, the index file and the constants source file (by default,
+   *        the ones of the source tree)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static void main(String[] args) throws IOException {
+    String folder = args.length > 0 ? args[0] : "src/main/resources/tifftags";
+    String index = args.length > 1 ? args[1] : "src/main/resources" + RESOURCE;
+    String constants = args.length > 2 ? args[2]
+        : "src/main/java/com/easyinnova/tiff/model/TiffTagIds.java";
+
+    List<Tag> tags = parse(new File(folder));
+    try (OutputStream out = new FileOutputStream(index)) {
+      write(tags, out);
+    }
+    try (PrintWriter out = new PrintWriter(constants, "UTF-8")) {
+      writeConstants(tags, out);
+    }
+  }
+}
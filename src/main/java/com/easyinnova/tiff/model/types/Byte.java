@@ -76,6 +76,26 @@ public class Byte extends abstractTiffType {
 	return value;
   }
 
+  @Override
+  public int toInt() {
+    return value & 0xFF;
+  }
+
+  @Override
+  public long longValue() {
+    return value & 0xFF;
+  }
+
+  @Override
+  public double doubleValue() {
+    return longValue();
+  }
+
+  @Override
+  public boolean isInteger() {
+    return true;
+  }
+
   @Override
   public String toString() {
     return "" + (int) (value & 0xFF);
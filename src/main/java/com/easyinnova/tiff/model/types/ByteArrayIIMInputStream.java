@@ -0,0 +1,91 @@
+/**
+ * <h1>ByteArrayIIMInputStream.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model.types;
+
+import com.nmote.iim4j.stream.IIMInputStream;
+
+import java.io.IOException;
+
+/**
+ * IIM input stream over an array of bytes, used to parse the IPTC of in-memory files.
+ */
+class ByteArrayIIMInputStream implements IIMInputStream {
+
+  /** The bytes. */
+  private final byte[] bytes;
+
+  /** The current position. */
+  private int position;
+
+  /**
+   * Instantiates a new IIM input stream over the given bytes.
+   *
+   * @param bytes the bytes
+   */
+  ByteArrayIIMInputStream(byte[] bytes) {
+    this.bytes = bytes;
+    position = 0;
+  }
+
+  @Override public boolean isCached() {
+    return true;
+  }
+
+  @Override public void seek(long position) throws IOException {
+    this.position = (int) Math.min(Math.max(position, 0), bytes.length);
+  }
+
+  @Override public long position() throws IOException {
+    return position;
+  }
+
+  @Override public int read() throws IOException {
+    if (position >= bytes.length) {
+      return -1;
+    }
+    return bytes[position++] & 0xFF;
+  }
+
+  @Override public int read(byte[] b) throws IOException {
+    return read(b, 0, b.length);
+  }
+
+  @Override public int read(byte[] b, int off, int len) throws IOException {
+    if (position >= bytes.length) {
+      return -1;
+    }
+    int n = Math.min(len, bytes.length - position);
+    System.arraycopy(bytes, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override public void close() throws IOException {
+  }
+}
@@ -79,6 +79,16 @@ public class Float extends abstractTiffType {
     this.value = value;
   }
 
+  @Override
+  public long longValue() {
+    return (long) doubleValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
   @Override
   public String toString() {
     return "" + value;
@@ -357,7 +357,7 @@ public class IFD extends abstractTiffType {
         if (TiffTags.hasTag(ie.getId()))
           name = TiffTags.getTag(ie.getId()).getName();
         String val = ie.toString();
-        String type = TiffTags.tagTypes.get(ie.getType());
+        String type = TiffTags.getTagTypeName(ie.getType());
         System.out.println(name + "(" + ie.getType() + "->" + type + "): " + val);
       } catch (Exception ex) {
         System.out.println("Tag error");
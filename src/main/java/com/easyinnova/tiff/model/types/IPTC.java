@@ -48,6 +48,7 @@ import com.nmote.iim4j.serialize.SerializationException;
 import com.nmote.iim4j.serialize.Serializer;
 import com.nmote.iim4j.stream.DefaultIIMOutputStream;
 import com.nmote.iim4j.stream.FileIIMInputStream;
+import com.nmote.iim4j.stream.IIMInputStream;
 import com.nmote.iim4j.stream.IIMOutputStream;
 import com.nmote.iim4j.stream.JPEGIIMInputStream;
 import com.nmote.iim4j.stream.SubIIMInputStream;
@@ -264,15 +265,40 @@ public class IPTC extends abstractTiffType {
    * @param tv the TagValue containing the array of bytes of the IPTC
    */
   public void read(TagValue tv, String filename) {
-    originalValue = tv.getValue();
-    File file = new File(filename);
-    IIMReader reader = null;
     SubIIMInputStream subStream = null;
     try {
       int offset = tv.getReadOffset();
       int length = tv.getReadlength();
-      subStream = new SubIIMInputStream(new FileIIMInputStream(file), offset, length);
+      subStream = new SubIIMInputStream(new FileIIMInputStream(new File(filename)), offset, length);
+    } catch (IOException e) {
+      //e.printStackTrace();
+      originalValue = tv.getValue();
+      return;
+    }
+    read(tv, subStream);
+  }
+
+  /**
+   * Reads the IPTC from the raw bytes of the tag value, for the files that are not read from a
+   * file path.
+   *
+   * @param tv the TagValue containing the array of bytes of the IPTC
+   * @param bytes the raw bytes of the IPTC
+   */
+  public void read(TagValue tv, byte[] bytes) {
+    read(tv, new ByteArrayIIMInputStream(bytes));
+  }
 
+  /**
+   * Reads the IPTC from the given stream.
+   *
+   * @param tv the TagValue containing the array of bytes of the IPTC
+   * @param subStream the stream containing the IPTC
+   */
+  private void read(TagValue tv, IIMInputStream subStream) {
+    originalValue = tv.getValue();
+    IIMReader reader = null;
+    try {
       reader = new IIMReader(subStream, new IIMDataSetInfoFactory());
 
       IIMFile iimFileReader = new IIMFile();
@@ -310,17 +336,24 @@ public class IPTC extends abstractTiffType {
     }
   }
 
+  /**
+   * Serializes the IPTC data sets, including the edited values.
+   *
+   * @return the IIM bytes
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public byte[] serialize() throws IOException {
+    ByteArrayOutputStream sw = new ByteArrayOutputStream();
+    IIMWriter writer = new IIMWriter(new DefaultIIMOutputStream(sw));
+    iimFile.writeTo(writer);
+    writer.close();
+    return sw.toByteArray();
+  }
+
   public void write(TiffOutputStream data) throws IOException {
     try {
-      ByteArrayOutputStream sw = new ByteArrayOutputStream();
-      IIMWriter writer = new IIMWriter(new DefaultIIMOutputStream(sw));
-      iimFile.writeTo(writer);
-      writer.close();
-
-      byte[] bytes = sw.toByteArray();
-      for (byte b : bytes) {
-        data.put(b);
-      }
+      byte[] bytes = serialize();
+      data.put(bytes, 0, bytes.length);
       data.put((byte) 0);
 
       return;
@@ -331,11 +364,7 @@ public class IPTC extends abstractTiffType {
 
   public int getLength() {
     try {
-      ByteArrayOutputStream sw = new ByteArrayOutputStream();
-      IIMWriter writer = new IIMWriter(new DefaultIIMOutputStream(sw));
-      iimFile.writeTo(writer);
-      writer.close();
-      return sw.size();
+      return serialize().length;
     } catch (IOException e) {
       e.printStackTrace();
     }
@@ -30,10 +30,15 @@
  */
 package com.easyinnova.tiff.model.types;
 
+import java.io.Serializable;
+
 /**
  * The Class IccTag.
  */
-public class IccTag {
+public class IccTag implements Serializable {
+  /** Do not modify! */
+  private static final long serialVersionUID = 2946L;
+
   /** Tag signature. */
   int signature;
 
@@ -76,6 +76,30 @@ public class Long extends abstractTiffType {
     this.value = value;
   }
 
+  @Override
+  public int toInt() {
+    long v = getValue();
+    if (v > Integer.MAX_VALUE) {
+      throw new NumberFormatException("Value out of int range: " + v);
+    }
+    return (int) v;
+  }
+
+  @Override
+  public long longValue() {
+    return getValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    return longValue();
+  }
+
+  @Override
+  public boolean isInteger() {
+    return true;
+  }
+
   @Override
   public String toString() {
     return "" + ( ((long) value) & (0xffffffffl));
@@ -102,6 +102,17 @@ public class Rational extends abstractTiffType {
     return (float) numerator.getValue() / denominator.getValue();
   }
 
+  @Override
+  public long longValue() {
+    return (long) doubleValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    return denominator.getValue() == 0 ? 0
+        : (double) numerator.getValue() / denominator.getValue();
+  }
+
   @Override
   public String toString() {
     return numerator.toString() + "/" + denominator.toString();
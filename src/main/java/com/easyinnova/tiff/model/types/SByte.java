@@ -79,6 +79,31 @@ public class SByte extends abstractTiffType {
     return v;
   }
 
+  @Override
+  public int toInt() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public double doubleValue() {
+    return longValue();
+  }
+
+  @Override
+  public boolean isInteger() {
+    return true;
+  }
+
+  @Override
+  public byte toByte() {
+    return value;
+  }
+
   @Override
   public String toString() {
     return "" + value;
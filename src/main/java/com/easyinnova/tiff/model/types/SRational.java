@@ -91,6 +91,17 @@ public class SRational extends abstractTiffType {
     this.denominator = new SLong(denominator);
   }
 
+  @Override
+  public long longValue() {
+    return (long) doubleValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    return denominator.getValue() == 0 ? 0
+        : (double) numerator.getValue() / denominator.getValue();
+  }
+
   @Override
   public String toString() {
     return numerator.toString() + "/" + denominator.toString();
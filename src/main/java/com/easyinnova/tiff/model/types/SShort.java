@@ -67,6 +67,26 @@ public class SShort extends abstractTiffType{
     this.value = value;
   }
 
+  @Override
+  public int toInt() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public double doubleValue() {
+    return longValue();
+  }
+
+  @Override
+  public boolean isInteger() {
+    return true;
+  }
+
   @Override
   public String toString() {
     return "" + value;
@@ -67,6 +67,26 @@ public class Short extends abstractTiffType{
     this.value = value;
   }
 
+  @Override
+  public int toInt() {
+    return value & 0xFFFF;
+  }
+
+  @Override
+  public long longValue() {
+    return value & 0xFFFF;
+  }
+
+  @Override
+  public double doubleValue() {
+    return longValue();
+  }
+
+  @Override
+  public boolean isInteger() {
+    return true;
+  }
+
   @Override
   public String toString() {
     return "" + (int) (value & 0xffff);
@@ -0,0 +1,114 @@
+/**
+ * <h1>TypedefRegistry.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model.types;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Factories of the typed tag values, keyed by the typedef of the tag definition.<br>
+ * The types of this library are registered by default. Other typed tags can register their own
+ * factory, which is used for every tag whose definition has that typedef.
+ */
+public class TypedefRegistry {
+
+  /** The factories, by typedef. */
+  private static final Map<String, Supplier<? extends abstractTiffType>> factories =
+      new ConcurrentHashMap<>();
+
+  /** Whether the values of each typedef are IFDs. */
+  private static final Map<String, Boolean> ifds = new ConcurrentHashMap<>();
+
+  static {
+    register("ExifIFD", ExifIFD::new);
+    register("IPTC", IPTC::new);
+    register("IccProfile", IccProfile::new);
+    register("SubIFD", SubIFD::new);
+    register("XMP", XMP::new);
+  }
+
+  /**
+   * Registers the factory of a typedef, replacing the previous one.
+   *
+   * @param typedef the typedef
+   * @param factory the factory of empty values, to be read from the tag
+   */
+  public static void register(String typedef, Supplier<? extends abstractTiffType> factory) {
+    factories.put(typedef, factory);
+    ifds.remove(typedef);
+  }
+
+  /**
+   * Removes the factory of a typedef.
+   *
+   * @param typedef the typedef
+   */
+  public static void unregister(String typedef) {
+    factories.remove(typedef);
+    ifds.remove(typedef);
+  }
+
+  /**
+   * Checks if a typedef has a factory.
+   *
+   * @param typedef the typedef
+   * @return true, if it is registered
+   */
+  public static boolean isRegistered(String typedef) {
+    return factories.containsKey(typedef);
+  }
+
+  /**
+   * Creates an empty value of a typedef.
+   *
+   * @param typedef the typedef
+   * @return the value, or null if the typedef is not registered
+   */
+  public static abstractTiffType create(String typedef) {
+    Supplier<? extends abstractTiffType> factory = factories.get(typedef);
+    return factory != null ? factory.get() : null;
+  }
+
+  /**
+   * Checks if the values of a typedef are IFDs.
+   *
+   * @param typedef the typedef
+   * @return true, if the values are IFDs (or the typedef is not registered)
+   */
+  public static boolean isIFD(String typedef) {
+    Boolean ifd = ifds.get(typedef);
+    if (ifd == null) {
+      abstractTiffType value = create(typedef);
+      ifd = value == null || value.isIFD();
+      ifds.put(typedef, ifd);
+    }
+    return ifd;
+  }
+}
@@ -66,6 +66,31 @@ public class Undefined extends abstractTiffType{
     this.value = value;
   }
 
+  @Override
+  public int toInt() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public double doubleValue() {
+    return longValue();
+  }
+
+  @Override
+  public boolean isInteger() {
+    return true;
+  }
+
+  @Override
+  public byte toByte() {
+    return value;
+  }
+
   @Override
   public String toString() {
     return "" + value;
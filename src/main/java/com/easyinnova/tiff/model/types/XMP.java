@@ -78,6 +78,9 @@ public class XMP extends XmlType {
   /** The history */
   private List<Hashtable<String, String>> history;
 
+  /** Whether the XMP has been edited after reading it. */
+  private boolean edited;
+
   /**
    * Default constructor.
    */
@@ -213,6 +216,7 @@ public class XMP extends XmlType {
     String name = tagName;
     if (mdo.isDublinCore()) name = "dc:" + name + "[1]";
     xmpMeta.setProperty(schema, name, tagValue);
+    edited = true;
     reCreateMetadata();
   }
 
@@ -322,18 +326,34 @@ public class XMP extends XmlType {
     createMetadata();
   }
 
-  public void write(TiffOutputStream data) throws IOException, XMPException {
+  /**
+   * Checks if the XMP has been edited after reading it.
+   *
+   * @return true, if any value has been edited
+   */
+  public boolean isEdited() {
+    return edited;
+  }
+
+  /**
+   * Serializes the XMP, including the edited values.
+   *
+   * @return the XMP packet
+   * @throws XMPException the XMP exception
+   */
+  public byte[] serialize() throws XMPException {
     SerializeOptions options = new SerializeOptions();
-    byte[] buffer = XMPMetaFactory.serializeToBuffer(xmpMeta, options);
-    for (byte b : buffer) {
-      data.put(b);
-    }
+    return XMPMetaFactory.serializeToBuffer(xmpMeta, options);
+  }
+
+  public void write(TiffOutputStream data) throws IOException, XMPException {
+    byte[] buffer = serialize();
+    data.put(buffer, 0, buffer.length);
   }
 
   public int getLength() {
-    SerializeOptions options = new SerializeOptions();
     try {
-      byte[] buffer = XMPMetaFactory.serializeToBuffer(xmpMeta, options);
+      byte[] buffer = serialize();
       return buffer.length;
     } catch (XMPException e) {
       e.printStackTrace();
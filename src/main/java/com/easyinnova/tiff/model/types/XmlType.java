@@ -121,9 +121,7 @@ public class XmlType extends abstractTiffType {
 
 	public void writeXml(TiffOutputStream data) throws IOException, XMPException {
 		SerializeOptions options = new SerializeOptions();
-		for (byte b : bytes) {
-			data.put(b);
-		}
+		data.put(bytes, 0, bytes.length);
 	}
 }
 
@@ -86,6 +86,46 @@ public class abstractTiffType extends TiffObject implements Serializable {
     return Integer.parseInt(this.toString());
   }
 
+  /**
+   * Gets the value as a long.<br>
+   * Unsigned types are zero-extended; rationals and floating point values are truncated.
+   *
+   * @return the value
+   * @throws NumberFormatException if the value is not numeric
+   */
+  public long longValue() throws NumberFormatException {
+    return java.lang.Long.parseLong(this.toString());
+  }
+
+  /**
+   * Gets the value as an int (the low 32 bits of {@link #longValue()}).
+   *
+   * @return the value
+   * @throws NumberFormatException if the value is not numeric
+   */
+  public int intValue() throws NumberFormatException {
+    return (int) longValue();
+  }
+
+  /**
+   * Gets the value as a double.
+   *
+   * @return the value
+   * @throws NumberFormatException if the value is not numeric
+   */
+  public double doubleValue() throws NumberFormatException {
+    return java.lang.Double.parseDouble(this.toString());
+  }
+
+  /**
+   * Checks if the value is an integer.
+   *
+   * @return true, if the value is of an integer type
+   */
+  public boolean isInteger() {
+    return false;
+  }
+
   /**
    * Read.
    *
@@ -141,14 +141,14 @@ public class BaselineProfile extends GenericProfile implements Profile {
     } catch (ReadTagsIOException e) {
     }
     for (TagValue ie : metadata.getTags()) {
-      if (!TiffTags.tagMap.containsKey(ie.getId())) {
+      if (!TiffTags.hasTag(ie.getId())) {
         validation.addWarning("Ignoring undefined tag id " + ie.getId(), "", "Metadata");
-      } else if (!TiffTags.tagTypes.containsKey(ie.getType())) {
+      } else if (TiffTags.getTagTypeName(ie.getType()) == null) {
         validation.addWarning("Ignoring unknown tag type " + ie.getType(), "", "Metadata");
       }
       else {
         Tag t = TiffTags.getTag(ie.getId());
-        String stype = TiffTags.tagTypes.get(ie.getType());
+        String stype = TiffTags.getTagTypeName(ie.getType());
         if (ie.getId() == 320) {
           // Colormap length check
           long bps = 0;
@@ -377,8 +377,8 @@ public class BaselineProfile extends GenericProfile implements Profile {
       validation.addErrorLoc("Missing BitsPerSample", "IFD" + n);
     } else {
       for (abstractTiffType vi : metadata.get(TiffTags.getTagId("BitsPerSample")).getValue()) {
-        if (vi.toInt() != 8) {
-          validation.addError("Invalid BitsPerSample", "IFD" + n, vi.toInt());
+        if (vi.intValue() != 8) {
+          validation.addError("Invalid BitsPerSample", "IFD" + n, vi.intValue());
           break;
         }
       }
@@ -414,8 +414,8 @@ public class BaselineProfile extends GenericProfile implements Profile {
       validation.addErrorLoc("Missing BitsPerSample", "IFD" + n);
     } else {
       for (abstractTiffType vi : metadata.get(TiffTags.getTagId("BitsPerSample")).getValue()) {
-        if (vi.toInt() != 8) {
-          validation.addError("Invalid BitsPerSample", "IFD" + n, vi.toInt());
+        if (vi.intValue() != 8) {
+          validation.addError("Invalid BitsPerSample", "IFD" + n, vi.intValue());
           break;
         }
       }
@@ -573,7 +573,7 @@ public class BaselineProfile extends GenericProfile implements Profile {
         } else {
           boolean distinct_bps_samples = false;
           for (int i = 1; i < lbps.getCardinality(); i++) {
-            if (lbps.getValue().get(i).toInt() != lbps.getValue().get(i - 1).toInt())
+            if (lbps.getInt(i) != lbps.getInt(i - 1))
               distinct_bps_samples = true;
           }
           if (distinct_bps_samples)
@@ -615,13 +615,13 @@ public class BaselineProfile extends GenericProfile implements Profile {
 
     int pixelSize = 0;
     for (int i = 0; i < metadata.get("BitsPerSample").getCardinality(); i++) {
-      pixelSize += metadata.get("BitsPerSample").getValue().get(i).toInt();
+      pixelSize += metadata.get("BitsPerSample").getInt(i);
     }
     if (metadata.get("Compression").getFirstNumericValue() == 1
  && pixelSize >= 8) {
       int calculatedImageLength = 0;
       for (int i = 0; i < nsc; i++) {
-        calculatedImageLength += metadata.get(id).getValue().get(i).toInt();
+        calculatedImageLength += metadata.get(id).getInt(i);
       }
       if (calculatedImageLength != metadata.get("ImageLength").getFirstNumericValue()
           * metadata.get("ImageWidth").getFirstNumericValue() * pixelSize / 8) {
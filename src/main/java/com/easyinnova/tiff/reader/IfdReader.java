@@ -21,6 +21,7 @@ package com.easyinnova.tiff.reader;
 import com.easyinnova.tiff.model.ImageStrips;
 import com.easyinnova.tiff.model.ImageTiles;
 import com.easyinnova.tiff.model.Strip;
+import com.easyinnova.tiff.model.TagValue;
 import com.easyinnova.tiff.model.TiffTags;
 import com.easyinnova.tiff.model.Tile;
 import com.easyinnova.tiff.model.types.IFD;
@@ -105,9 +106,10 @@ public class IfdReader {
       long tilesHeight = ifd.getTag("TileLength").getFirstNumericValue();
       int actualWidth = 0;
       long actualHeight = tilesHeight;
-      for (int i = 0; i < ifd.getTag("TileOffsets").getValue().size(); i++) {
+      TagValue tileOffsets = ifd.getTag("TileOffsets");
+      for (int i = 0; i < tileOffsets.getCardinality(); i++) {
         try {
-          int to = ifd.getTag("TileOffsets").getValue().get(i).toInt();
+          int to = Math.toIntExact(tileOffsets.getLong(i));
           Tile tile = new Tile();
           tile.setOffset(to);
           tile.setWidth((int) tilesWidth);
@@ -157,10 +159,12 @@ public class IfdReader {
       long rowLength = tsbc / rps;
       if (rowLength == 0)
         rowLength = 1;
-      for (int i = 0; i < ifd.getTag("StripOffsets").getValue().size(); i++) {
+      TagValue stripOffsets = ifd.getTag("StripOffsets");
+      TagValue stripSizes = ifd.getTag("StripBYTECount");
+      for (int i = 0; i < stripOffsets.getCardinality(); i++) {
         try {
-          int so = ifd.getTag("StripOffsets").getValue().get(i).toInt();
-          int sbc = ifd.getTag("StripBYTECount").getValue().get(i).toInt();
+          int so = Math.toIntExact(stripOffsets.getLong(i));
+          int sbc = Math.toIntExact(stripSizes.getLong(i));
           Strip strip = new Strip();
           strip.setOffset(so);
           strip.setLength(sbc);
@@ -0,0 +1,626 @@
+/**
+ * <h1>ReaderOptions.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import com.easyinnova.tiff.io.PagedInputBuffer;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Immutable options of a {@link TiffReader}: which validations are run, which tags are read and
+ * decoded, and how the files are accessed.<br>
+ * The options are created with a {@link Builder}, and can be shared by several readers.
+ */
+public final class ReaderOptions {
+
+  /** The default options: all the tags are read and decoded, with baseline validation. */
+  public static final ReaderOptions DEFAULT = builder().build();
+
+  /**
+   * How the files are accessed.
+   */
+  public enum IoStrategy {
+    /**
+     * The files are memory mapped (or read with random access if they cannot be mapped).
+     */
+    MAPPED,
+    /**
+     * The files are read through the pages of the input buffer, without mapping them. It avoids
+     * the cost of the mappings when many small files are read.
+     */
+    PAGED
+  }
+
+  /** Whether the files are validated with the baseline profile. */
+  private final boolean baselineValidation;
+
+  /** Whether the files are validated with the TIFF/EP profile. */
+  private final boolean epValidation;
+
+  /** The TIFF/IT profile of the validation (-1: not validated). */
+  private final int itValidationProfile;
+
+  /** Whether the metadata dictionary is built after reading. */
+  private final boolean metadataDictionary;
+
+  /** The typedefs whose values are not decoded. */
+  private final Set<String> disabledTypedefs;
+
+  /** Whether the sub IFDs are read. */
+  private final boolean subIfds;
+
+  /** The ids of the tags whose values are read (null: all). */
+  private final BitSet wantedTags;
+
+  /** The typedefs of the tags whose values are read. */
+  private final Set<String> wantedTypedefs;
+
+  /** Whether the values of the tags are read when they are first accessed. */
+  private final boolean lazyValues;
+
+  /** The way the files are read. */
+  private final IoStrategy ioStrategy;
+
+  /** The size of the pages of the input buffer. */
+  private final int pageSize;
+
+  /** The maximum number of pages of the input buffer. */
+  private final int maxPages;
+
+  /** The tolerance to duplicate tags. */
+  private final int duplicateTagTolerance;
+
+  /** The tolerance to wrong next IFD offsets. */
+  private final int nextIFDTolerance;
+
+  /** The tolerance to a wrong byte order. */
+  private final int byteOrderErrorTolerance;
+
+  /** The executor that parses the IFDs concurrently (null: serial parsing). */
+  private final Executor ifdExecutor;
+
+  /**
+   * Instantiates the options from a builder.
+   *
+   * @param b the builder
+   */
+  private ReaderOptions(Builder b) {
+    baselineValidation = b.baselineValidation;
+    epValidation = b.epValidation;
+    itValidationProfile = b.itValidationProfile;
+    metadataDictionary = b.metadataDictionary;
+    disabledTypedefs = Collections.unmodifiableSet(new HashSet<>(b.disabledTypedefs));
+    subIfds = b.subIfds;
+    wantedTags = b.wantedTags == null ? null : (BitSet) b.wantedTags.clone();
+    wantedTypedefs = b.wantedTypedefs == null ? null
+        : Collections.unmodifiableSet(new HashSet<>(b.wantedTypedefs));
+    lazyValues = b.lazyValues;
+    ioStrategy = b.ioStrategy;
+    pageSize = b.pageSize;
+    maxPages = b.maxPages;
+    duplicateTagTolerance = b.duplicateTagTolerance;
+    nextIFDTolerance = b.nextIFDTolerance;
+    byteOrderErrorTolerance = b.byteOrderErrorTolerance;
+    ifdExecutor = b.ifdExecutor;
+  }
+
+  /**
+   * Creates a builder with the default options.
+   *
+   * @return the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a builder initialized with these options.
+   *
+   * @return the builder
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Checks if the files are validated with the baseline profile.
+   *
+   * @return true, if the baseline validation is run
+   */
+  public boolean isBaselineValidation() {
+    return baselineValidation;
+  }
+
+  /**
+   * Checks if the files are validated with the TIFF/EP profile.
+   *
+   * @return true, if the TIFF/EP validation is run
+   */
+  public boolean isEPValidation() {
+    return epValidation;
+  }
+
+  /**
+   * Gets the TIFF/IT profile the files are validated with.
+   *
+   * @return the profile (0: default, 1: P1, 2: P2), or -1 if the TIFF/IT validation is not run
+   */
+  public int getITValidationProfile() {
+    return itValidationProfile;
+  }
+
+  /**
+   * Checks if the metadata dictionary is created when the file is read. Otherwise, it is created
+   * the first time that it is requested.
+   *
+   * @return true, if the dictionary is created when the file is read
+   */
+  public boolean isMetadataDictionary() {
+    return metadataDictionary;
+  }
+
+  /**
+   * Checks if the tags of a typedef are decoded.
+   *
+   * @param typedef the typedef name (for example "XMP", "IPTC", "IccProfile" or "ExifIFD")
+   * @return true, if the tags are decoded
+   */
+  public boolean isDecoded(String typedef) {
+    return !disabledTypedefs.contains(typedef);
+  }
+
+  /**
+   * Checks if the sub IFDs are read.
+   *
+   * @return true, if the sub IFDs are read
+   */
+  public boolean isSubIfds() {
+    return subIfds;
+  }
+
+  /**
+   * Checks if the values of a tag are read (see {@link Builder#wantedTags(Collection,
+   * Collection)}).
+   *
+   * @param id the tag id
+   * @param typedef the typedef of the tag, can be null
+   * @return true, if the values are read
+   */
+  public boolean isWanted(int id, String typedef) {
+    return wantedTags == null || wantedTags.get(id)
+        || (typedef != null && wantedTypedefs.contains(typedef));
+  }
+
+  /**
+   * Checks if all the tags are read and decoded, so that the model is complete.
+   *
+   * @return true, if the model read with these options is complete
+   */
+  boolean isCompleteModel() {
+    return disabledTypedefs.isEmpty() && subIfds && wantedTags == null;
+  }
+
+  /**
+   * Checks if the values that do not fit in the directory entries are read on demand.
+   *
+   * @return true, if the values are read on demand
+   */
+  public boolean isLazyValues() {
+    return lazyValues;
+  }
+
+  /**
+   * Gets how the files are accessed.
+   *
+   * @return the I/O strategy
+   */
+  public IoStrategy getIoStrategy() {
+    return ioStrategy;
+  }
+
+  /**
+   * Gets the page size of the input buffer.
+   *
+   * @return the page size in bytes
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Gets the maximum number of pages of the input buffer.
+   *
+   * @return the maximum number of pages
+   */
+  public int getMaxPages() {
+    return maxPages;
+  }
+
+  /**
+   * Gets the tolerance to duplicate tags.
+   *
+   * @return 0: no tolerance, 1: tolerate duplicates keeping the first appearance only
+   */
+  public int getDuplicateTagTolerance() {
+    return duplicateTagTolerance;
+  }
+
+  /**
+   * Gets the tolerance to errors in the next IFD pointer.
+   *
+   * @return 0: no tolerance, 1: tolerate errors assuming there is no next IFD
+   */
+  public int getNextIFDTolerance() {
+    return nextIFDTolerance;
+  }
+
+  /**
+   * Gets the tolerance to errors in the byte ordering.
+   *
+   * @return 0: no tolerance, 1: lower case tolerance, 2: full tolerance, assuming little endian
+   */
+  public int getByteOrderErrorTolerance() {
+    return byteOrderErrorTolerance;
+  }
+
+  /**
+   * Gets the executor where the IFDs are parsed concurrently.
+   *
+   * @return the executor, or null if the IFDs are parsed serially
+   */
+  public Executor getIfdExecutor() {
+    return ifdExecutor;
+  }
+
+  /**
+   * Builder of {@link ReaderOptions}.
+   */
+  public static final class Builder {
+    /** Whether the files are validated with the baseline profile. */
+    private boolean baselineValidation = true;
+
+    /** Whether the files are validated with the TIFF/EP profile. */
+    private boolean epValidation = false;
+
+    /** The TIFF/IT profile of the validation (-1: not validated). */
+    private int itValidationProfile = -1;
+
+    /** Whether the metadata dictionary is built after reading. */
+    private boolean metadataDictionary = false;
+
+    /** The typedefs whose values are not decoded. */
+    private Set<String> disabledTypedefs = new HashSet<>();
+
+    /** Whether the sub IFDs are read. */
+    private boolean subIfds = true;
+
+    /** The ids of the tags whose values are read (null: all). */
+    private BitSet wantedTags;
+
+    /** The typedefs of the tags whose values are read. */
+    private Set<String> wantedTypedefs;
+
+    /** Whether the values of the tags are read when they are first accessed. */
+    private boolean lazyValues = false;
+
+    /** The way the files are read. */
+    private IoStrategy ioStrategy = IoStrategy.MAPPED;
+
+    /** The size of the pages of the input buffer. */
+    private int pageSize = PagedInputBuffer.DEFAULT_PAGE_SIZE;
+
+    /** The maximum number of pages of the input buffer. */
+    private int maxPages = PagedInputBuffer.DEFAULT_MAX_PAGES;
+
+    /** The tolerance to duplicate tags. */
+    private int duplicateTagTolerance = 10;
+
+    /** The tolerance to wrong next IFD offsets. */
+    private int nextIFDTolerance = 0;
+
+    /** The tolerance to a wrong byte order. */
+    private int byteOrderErrorTolerance = 0;
+
+    /** The executor that parses the IFDs concurrently (null: serial parsing). */
+    private Executor ifdExecutor;
+
+    /**
+     * Instantiates a new builder with the default options.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Instantiates a new builder initialized with the given options.
+     *
+     * @param o the options
+     */
+    private Builder(ReaderOptions o) {
+      baselineValidation = o.baselineValidation;
+      epValidation = o.epValidation;
+      itValidationProfile = o.itValidationProfile;
+      metadataDictionary = o.metadataDictionary;
+      disabledTypedefs = new HashSet<>(o.disabledTypedefs);
+      subIfds = o.subIfds;
+      wantedTags = o.wantedTags;
+      wantedTypedefs = o.wantedTypedefs;
+      lazyValues = o.lazyValues;
+      ioStrategy = o.ioStrategy;
+      pageSize = o.pageSize;
+      maxPages = o.maxPages;
+      duplicateTagTolerance = o.duplicateTagTolerance;
+      nextIFDTolerance = o.nextIFDTolerance;
+      byteOrderErrorTolerance = o.byteOrderErrorTolerance;
+      ifdExecutor = o.ifdExecutor;
+    }
+
+    /**
+     * Sets whether the files are validated with the baseline profile (true by default).
+     *
+     * @param enabled true, to run the validation
+     * @return the builder
+     */
+    public Builder baselineValidation(boolean enabled) {
+      baselineValidation = enabled;
+      return this;
+    }
+
+    /**
+     * Sets whether the files are validated with the TIFF/EP profile (false by default).
+     *
+     * @param enabled true, to run the validation
+     * @return the builder
+     */
+    public Builder epValidation(boolean enabled) {
+      epValidation = enabled;
+      return this;
+    }
+
+    /**
+     * Sets the TIFF/IT profile the files are validated with (none by default).
+     *
+     * @param profile the profile (0: default, 1: P1, 2: P2), or -1 to not run the validation
+     * @return the builder
+     */
+    public Builder itValidation(int profile) {
+      itValidationProfile = profile;
+      return this;
+    }
+
+    /**
+     * Sets whether the metadata dictionary is created when the file is read (false by default,
+     * it is created the first time that it is requested).
+     *
+     * @param enabled true, to create the dictionary when the file is read
+     * @return the builder
+     */
+    public Builder metadataDictionary(boolean enabled) {
+      metadataDictionary = enabled;
+      return this;
+    }
+
+    /**
+     * Sets whether the tags of a typedef are decoded (true by default). The tags that are not
+     * decoded keep their raw values.
+     *
+     * @param typedef the typedef name
+     * @param enabled true, to decode the tags
+     * @return the builder
+     */
+    public Builder decode(String typedef, boolean enabled) {
+      if (enabled)
+        disabledTypedefs.remove(typedef);
+      else
+        disabledTypedefs.add(typedef);
+      return this;
+    }
+
+    /**
+     * Sets whether the XMP packets are decoded (true by default).
+     *
+     * @param enabled true, to decode the XMP
+     * @return the builder
+     */
+    public Builder xmp(boolean enabled) {
+      return decode("XMP", enabled);
+    }
+
+    /**
+     * Sets whether the IPTC blocks are decoded (true by default).
+     *
+     * @param enabled true, to decode the IPTC
+     * @return the builder
+     */
+    public Builder iptc(boolean enabled) {
+      return decode("IPTC", enabled);
+    }
+
+    /**
+     * Sets whether the ICC profiles are decoded (true by default).
+     *
+     * @param enabled true, to decode the ICC profiles
+     * @return the builder
+     */
+    public Builder iccProfile(boolean enabled) {
+      return decode("IccProfile", enabled);
+    }
+
+    /**
+     * Sets whether the EXIF IFDs are read (true by default). Otherwise, the EXIF tags keep the
+     * offset of the IFD.
+     *
+     * @param enabled true, to read the EXIF IFDs
+     * @return the builder
+     */
+    public Builder exif(boolean enabled) {
+      return decode("ExifIFD", enabled);
+    }
+
+    /**
+     * Sets whether the sub IFDs are read (true by default). Otherwise, the SubIFDs tags keep the
+     * offsets of the IFDs.
+     *
+     * @param enabled true, to read the sub IFDs
+     * @return the builder
+     */
+    public Builder subIfds(boolean enabled) {
+      subIfds = enabled;
+      return this;
+    }
+
+    /**
+     * Sets the tags whose values are read (all by default).<br>
+     * The other tags only keep their directory entry (id, type, count and offset), without reading
+     * their values or decoding them, so they have no values in the model. The tags needed to
+     * locate the image data are always read. The validation of the files read this way reports
+     * the skipped values as missing, so it should be disabled.
+     *
+     * @param tagIds the ids of the tags to read, or null to read all the tags
+     * @param typedefs the typedefs of the tags to read (for example "XMP", "IPTC", "IccProfile" or
+     *        "ExifIFD"), can be null
+     * @return the builder
+     */
+    public Builder wantedTags(Collection<Integer> tagIds, Collection<String> typedefs) {
+      if (tagIds == null) {
+        wantedTags = null;
+        wantedTypedefs = null;
+        return this;
+      }
+      BitSet ids = new BitSet();
+      for (int id : tagIds) {
+        ids.set(id);
+      }
+      for (int id : TiffReader.IMAGE_TAGS) {
+        ids.set(id);
+      }
+      wantedTags = ids;
+      wantedTypedefs = typedefs == null ? Collections.<String>emptySet() : new HashSet<>(typedefs);
+      return this;
+    }
+
+    /**
+     * Sets whether the values that do not fit in the directory entries are read on demand (false
+     * by default). See {@link TiffReader#setLazyValues(boolean)}.
+     *
+     * @param enabled true, to read the values on demand
+     * @return the builder
+     */
+    public Builder lazyValues(boolean enabled) {
+      lazyValues = enabled;
+      return this;
+    }
+
+    /**
+     * Sets how the files are accessed ({@link IoStrategy#MAPPED} by default).
+     *
+     * @param strategy the I/O strategy
+     * @return the builder
+     */
+    public Builder ioStrategy(IoStrategy strategy) {
+      ioStrategy = strategy;
+      return this;
+    }
+
+    /**
+     * Sets the geometry of the input buffer.
+     *
+     * @param pageSize the page size in bytes
+     * @param maxPages the maximum number of pages
+     * @return the builder
+     */
+    public Builder pageCache(int pageSize, int maxPages) {
+      this.pageSize = pageSize;
+      this.maxPages = maxPages;
+      return this;
+    }
+
+    /**
+     * Sets the tolerance to duplicate tags (10 by default).
+     *
+     * @param tolerance 0: no tolerance, 1: tolerate duplicates keeping the first appearance only
+     * @return the builder
+     */
+    public Builder duplicateTagTolerance(int tolerance) {
+      duplicateTagTolerance = tolerance;
+      return this;
+    }
+
+    /**
+     * Sets the tolerance to errors in the next IFD pointer (0 by default).
+     *
+     * @param tolerance 0: no tolerance, 1: tolerate errors assuming there is no next IFD
+     * @return the builder
+     */
+    public Builder nextIFDTolerance(int tolerance) {
+      nextIFDTolerance = tolerance;
+      return this;
+    }
+
+    /**
+     * Sets the tolerance to errors in the byte ordering (0 by default).
+     *
+     * @param tolerance 0: no tolerance, 1: lower case tolerance, 2: full tolerance, assuming
+     *        little endian
+     * @return the builder
+     */
+    public Builder byteOrderErrorTolerance(int tolerance) {
+      byteOrderErrorTolerance = tolerance;
+      return this;
+    }
+
+    /**
+     * Sets the executor where the IFDs are parsed concurrently (none by default).<br>
+     * With an executor, the chain of IFDs is first discovered reading only the number of entries
+     * and the next IFD offset of each IFD, and then the IFDs are parsed concurrently and linked
+     * in order. It speeds up the reading of documents with many pages. The reading thread parses
+     * the IFDs that the executor has not started yet, so a busy executor cannot block it.
+     *
+     * @param executor the executor, or null to parse the IFDs serially
+     * @return the builder
+     */
+    public Builder ifdExecutor(Executor executor) {
+      ifdExecutor = executor;
+      return this;
+    }
+
+    /**
+     * Builds the options.
+     *
+     * @return the options
+     */
+    public ReaderOptions build() {
+      return new ReaderOptions(this);
+    }
+  }
+}
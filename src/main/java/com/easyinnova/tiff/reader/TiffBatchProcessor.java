@@ -0,0 +1,568 @@
+/**
+ * <h1>TiffBatchProcessor.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import com.easyinnova.tiff.model.TiffDocument;
+import com.easyinnova.tiff.model.ValidationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads and validates batches of Tiff files concurrently.<br>
+ * The files are parsed on an executor (a thread pool or a fork join pool) with a bounded number
+ * of files in flight, so that arbitrarily long streams of paths can be processed with bounded
+ * memory. Each worker thread reuses its own {@link TiffReader}. The result of each file is
+ * delivered to a callback (or a blocking queue) as soon as it is read, in completion order.
+ */
+public class TiffBatchProcessor {
+
+  /** The executor where the files are read. */
+  private final ExecutorService executor;
+
+  /** The maximum number of files read or waiting to be read at the same time. */
+  private final int maxInFlight;
+
+  /** The reading options. */
+  private ReaderOptions options = ReaderOptions.DEFAULT;
+
+  /** The cache of parsed models (null if not used). */
+  private TiffModelCache modelCache;
+
+  /** Whether the models are kept in the results. */
+  private boolean keepModels = true;
+
+  /** The reader of each worker thread. */
+  private final ThreadLocal<TiffReader> readers = new ThreadLocal<TiffReader>();
+
+  /**
+   * The result of reading a file.
+   */
+  public static class Result {
+
+    /** The file path. */
+    private final Path path;
+
+    /** The result code of the reader. */
+    private final int code;
+
+    /** The model (null if the models are not kept). */
+    private final TiffDocument model;
+
+    /** The baseline validation result. */
+    private final ValidationResult baselineValidation;
+
+    /** The TIFF/EP validation result. */
+    private final ValidationResult epValidation;
+
+    /** The TIFF/IT validation result. */
+    private final ValidationResult itValidation;
+
+    /** The exception that prevented reading the file. */
+    private final Exception exception;
+
+    /** The reading time in nanoseconds. */
+    private final long nanos;
+
+    /**
+     * Instantiates a new result.
+     *
+     * @param path the file path
+     * @param code the result code of the reader
+     * @param model the model
+     * @param baselineValidation the baseline validation result
+     * @param epValidation the TIFF/EP validation result
+     * @param itValidation the TIFF/IT validation result
+     * @param exception the exception that prevented reading the file
+     * @param nanos the reading time in nanoseconds
+     */
+    Result(Path path, int code, TiffDocument model, ValidationResult baselineValidation,
+        ValidationResult epValidation, ValidationResult itValidation, Exception exception,
+        long nanos) {
+      this.path = path;
+      this.code = code;
+      this.model = model;
+      this.baselineValidation = baselineValidation;
+      this.epValidation = epValidation;
+      this.itValidation = itValidation;
+      this.exception = exception;
+      this.nanos = nanos;
+    }
+
+    /**
+     * Gets the file path.
+     *
+     * @return the path
+     */
+    public Path getPath() {
+      return path;
+    }
+
+    /**
+     * Gets the result code of the reader.
+     *
+     * @return 0: successful, -1: file not found, -2: IO exception
+     */
+    public int getCode() {
+      return code;
+    }
+
+    /**
+     * Gets the model of the file.
+     *
+     * @return the model, or null if the models are not kept
+     */
+    public TiffDocument getModel() {
+      return model;
+    }
+
+    /**
+     * Gets the result of the baseline validation.
+     *
+     * @return the validation result, or null if the file could not be read
+     */
+    public ValidationResult getBaselineValidation() {
+      return baselineValidation;
+    }
+
+    /**
+     * Gets the result of the TIFF/EP validation.
+     *
+     * @return the validation result, or null if it is not enabled in the options
+     */
+    public ValidationResult getTiffEPValidation() {
+      return epValidation;
+    }
+
+    /**
+     * Gets the result of the TIFF/IT validation.
+     *
+     * @return the validation result, or null if it is not enabled in the options
+     */
+    public ValidationResult getTiffITValidation() {
+      return itValidation;
+    }
+
+    /**
+     * Gets the exception that prevented reading the file.
+     *
+     * @return the exception, or null
+     */
+    public Exception getException() {
+      return exception;
+    }
+
+    /**
+     * Gets the reading time.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    /**
+     * Checks if the file was read and it is correct.
+     *
+     * @return true, if the file is correct
+     */
+    public boolean isCorrect() {
+      return code == 0 && exception == null && baselineValidation != null
+          && baselineValidation.isCorrect() && !baselineValidation.getFatalError();
+    }
+  }
+
+  /**
+   * Aggregate statistics of a batch.
+   */
+  public static class Statistics {
+
+    /** The number of processed files. */
+    private final AtomicLong files = new AtomicLong();
+
+    /** The number of correct files. */
+    private final AtomicLong correct = new AtomicLong();
+
+    /** The number of files read with validation errors. */
+    private final AtomicLong invalid = new AtomicLong();
+
+    /** The number of files that could not be read. */
+    private final AtomicLong failed = new AtomicLong();
+
+    /** The total number of baseline validation errors. */
+    private final AtomicLong errors = new AtomicLong();
+
+    /** The total number of baseline validation warnings. */
+    private final AtomicLong warnings = new AtomicLong();
+
+    /** The total size of the files read, in bytes. */
+    private final AtomicLong bytes = new AtomicLong();
+
+    /** The sum of the reading times of the files, in nanoseconds. */
+    private final AtomicLong readNanos = new AtomicLong();
+
+    /** The wall clock time of the batch, in nanoseconds. */
+    private volatile long elapsedNanos;
+
+    /**
+     * Adds the result of a file.
+     *
+     * @param result the result
+     */
+    void add(Result result) {
+      files.incrementAndGet();
+      readNanos.addAndGet(result.getNanos());
+      if (result.getCode() != 0 || result.getException() != null) {
+        failed.incrementAndGet();
+        return;
+      }
+      if (result.isCorrect())
+        correct.incrementAndGet();
+      else
+        invalid.incrementAndGet();
+      ValidationResult validation = result.getBaselineValidation();
+      if (validation != null) {
+        errors.addAndGet(validation.getErrors().size());
+        warnings.addAndGet(validation.getWarnings().size());
+      }
+      try {
+        bytes.addAndGet(Files.size(result.getPath()));
+      } catch (IOException ex) {
+        /* the file has been removed, its size is not counted */
+      }
+    }
+
+    /**
+     * Gets the number of processed files.
+     *
+     * @return the number of files
+     */
+    public long getFiles() {
+      return files.get();
+    }
+
+    /**
+     * Gets the number of correct files.
+     *
+     * @return the number of files
+     */
+    public long getCorrect() {
+      return correct.get();
+    }
+
+    /**
+     * Gets the number of files read with validation errors.
+     *
+     * @return the number of files
+     */
+    public long getInvalid() {
+      return invalid.get();
+    }
+
+    /**
+     * Gets the number of files that could not be read.
+     *
+     * @return the number of files
+     */
+    public long getFailed() {
+      return failed.get();
+    }
+
+    /**
+     * Gets the total number of baseline validation errors.
+     *
+     * @return the number of errors
+     */
+    public long getErrors() {
+      return errors.get();
+    }
+
+    /**
+     * Gets the total number of baseline validation warnings.
+     *
+     * @return the number of warnings
+     */
+    public long getWarnings() {
+      return warnings.get();
+    }
+
+    /**
+     * Gets the total size of the files read.
+     *
+     * @return the size in bytes
+     */
+    public long getBytes() {
+      return bytes.get();
+    }
+
+    /**
+     * Gets the sum of the reading times of the files.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getReadNanos() {
+      return readNanos.get();
+    }
+
+    /**
+     * Gets the wall clock time of the batch.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Gets the throughput of the batch.
+     *
+     * @return the files per second
+     */
+    public double getFilesPerSecond() {
+      return elapsedNanos == 0 ? 0 : getFiles() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the throughput of the batch.
+     *
+     * @return the bytes per second
+     */
+    public double getBytesPerSecond() {
+      return elapsedNanos == 0 ? 0 : getBytes() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d files (%d correct, %d invalid, %d failed), %d errors, "
+          + "%d warnings, %.1f files/s, %.1f MB/s", getFiles(), getCorrect(), getInvalid(),
+          getFailed(), getErrors(), getWarnings(), getFilesPerSecond(),
+          getBytesPerSecond() / (1024 * 1024));
+    }
+  }
+
+  /**
+   * Instantiates a new batch processor.
+   *
+   * @param executor the executor where the files are read (it is not shut down by the processor)
+   * @param maxInFlight the maximum number of files read or waiting to be read at the same time
+   */
+  public TiffBatchProcessor(ExecutorService executor, int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("Invalid number of files in flight " + maxInFlight);
+    }
+    this.executor = executor;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Sets the reading options.
+   *
+   * @param options the options
+   */
+  public void setOptions(ReaderOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * Sets the cache of parsed models (see {@link TiffReader#setModelCache(TiffModelCache)}).
+   *
+   * @param modelCache the cache, or null to always parse the files
+   */
+  public void setModelCache(TiffModelCache modelCache) {
+    this.modelCache = modelCache;
+  }
+
+  /**
+   * Sets whether the models are kept in the results (true by default). Validation-only batches
+   * should not keep them, so that they can be collected as soon as each file is validated. The
+   * models that are not kept are closed.
+   *
+   * @param keepModels true, to keep the models
+   */
+  public void setKeepModels(boolean keepModels) {
+    this.keepModels = keepModels;
+  }
+
+  /**
+   * Lists the regular files of a directory.
+   *
+   * @param dir the directory
+   * @param recursive whether the subdirectories are listed too
+   * @return the stream of files (it must be closed)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static Stream<Path> listFiles(Path dir, boolean recursive) throws IOException {
+    Stream<Path> paths = recursive ? Files.walk(dir) : Files.list(dir);
+    return paths.filter(Files::isRegularFile);
+  }
+
+  /**
+   * Reads the files and delivers their results to a callback.<br>
+   * The paths are consumed as the files are read, and the method returns when all of them have
+   * been processed. The callback is called from the worker threads, so it must be thread safe.
+   *
+   * @param paths the paths of the files
+   * @param callback the callback that receives the result of each file
+   * @return the statistics of the batch
+   * @throws InterruptedException if the thread is interrupted while waiting for the files
+   */
+  public Statistics process(Stream<Path> paths, Consumer<Result> callback)
+      throws InterruptedException {
+    return process(paths, callback, new AtomicBoolean());
+  }
+
+  /**
+   * Reads the files and delivers their results to a callback, until the batch is cancelled.
+   *
+   * @param paths the paths of the files
+   * @param callback the callback that receives the result of each file
+   * @param cancelled whether the batch has been cancelled (no more files are submitted)
+   * @return the statistics of the batch
+   * @throws InterruptedException if the thread is interrupted while waiting for the files
+   */
+  private Statistics process(Stream<Path> paths, Consumer<Result> callback,
+      AtomicBoolean cancelled) throws InterruptedException {
+    Statistics statistics = new Statistics();
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    long start = System.nanoTime();
+    try {
+      Iterator<Path> it = paths.iterator();
+      while (it.hasNext()) {
+        Path path = it.next();
+        inFlight.acquire();
+        if (cancelled.get()) {
+          inFlight.release();
+          break;
+        }
+        try {
+          executor.execute(() -> {
+            try {
+              Result result = read(path);
+              statistics.add(result);
+              callback.accept(result);
+            } finally {
+              inFlight.release();
+            }
+          });
+        } catch (RuntimeException ex) {
+          inFlight.release();
+          throw ex;
+        }
+      }
+    } finally {
+      // Wait for the files in flight
+      inFlight.acquireUninterruptibly(maxInFlight);
+      inFlight.release(maxInFlight);
+      statistics.elapsedNanos = System.nanoTime() - start;
+    }
+    return statistics;
+  }
+
+  /**
+   * Reads the files and puts their results in a queue.<br>
+   * The workers block while the queue is full, so a bounded queue limits the results waiting to
+   * be consumed.
+   *
+   * @param paths the paths of the files
+   * @param queue the queue that receives the result of each file
+   * @return the statistics of the batch
+   * @throws InterruptedException if the thread is interrupted while waiting for the files, or a
+   *         worker is interrupted while waiting for space in the queue (the batch is stopped, and
+   *         the results of the files in flight may be missing from the queue)
+   */
+  public Statistics process(Stream<Path> paths, BlockingQueue<Result> queue)
+      throws InterruptedException {
+    AtomicBoolean interrupted = new AtomicBoolean();
+    Statistics statistics = process(paths, result -> {
+      if (interrupted.get()) {
+        // the batch is stopped, do not block the files in flight
+        queue.offer(result);
+        return;
+      }
+      try {
+        queue.put(result);
+      } catch (InterruptedException ex) {
+        interrupted.set(true);
+        Thread.currentThread().interrupt();
+      }
+    }, interrupted);
+    if (interrupted.get()) {
+      throw new InterruptedException("Interrupted while delivering the results");
+    }
+    return statistics;
+  }
+
+  /**
+   * Reads and validates a file with the reader of the current thread.
+   *
+   * @param path the file path
+   * @return the result
+   */
+  private Result read(Path path) {
+    long start = System.nanoTime();
+    if (!Files.exists(path)) {
+      return new Result(path, -1, null, null, null, null, null, System.nanoTime() - start);
+    }
+    try {
+      TiffReader reader = readers.get();
+      if (reader == null) {
+        reader = new TiffReader();
+        readers.set(reader);
+      }
+      reader.setOptions(options);
+      reader.setModelCache(modelCache);
+      int code = reader.readFile(path.toString());
+      TiffDocument model = reader.getModel();
+      ValidationResult baseline = reader.getBaselineValidation();
+      ValidationResult ep = reader.epValidation;
+      ValidationResult it = reader.itValidation;
+      // The reader does not keep the model of the last file
+      reader.tiffModel = null;
+      reader.validation = null;
+      reader.epValidation = null;
+      reader.itValidation = null;
+      if (!keepModels && model != null) {
+        model.close();
+        model = null;
+      }
+      return new Result(path, code, model, baseline, ep, it, null, System.nanoTime() - start);
+    } catch (Exception ex) {
+      return new Result(path, -2, null, null, null, null, ex, System.nanoTime() - start);
+    }
+  }
+}
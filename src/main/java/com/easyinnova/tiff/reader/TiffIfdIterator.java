@@ -0,0 +1,261 @@
+/**
+ * <h1>TiffIfdIterator.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import com.easyinnova.tiff.io.TiffInputStream;
+import com.easyinnova.tiff.model.TiffDocument;
+import com.easyinnova.tiff.model.ValidationResult;
+import com.easyinnova.tiff.model.types.IFD;
+import com.easyinnova.tiff.profiles.BaselineProfile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over the IFDs (pages) of a Tiff file, created with
+ * {@link TiffReader#iterateIFDs(String)}.<br>
+ * Each IFD is parsed, with its sub IFDs, when the iterator reaches it, and it is not linked to the
+ * other IFDs nor retained by the iterator, so it can be garbage collected once the caller moves
+ * on. Only the offsets of the IFDs already read are kept, to detect circular references.<br>
+ * Each IFD has its own validation result, with its parsing errors and, if the baseline validation
+ * is enabled in the reader options, the errors of the baseline profile on the IFD.
+ */
+public class TiffIfdIterator implements Iterator<IFD>, Closeable {
+
+  /**
+   * Listener of the pages read by the iterator.
+   */
+  public interface PageListener {
+    /**
+     * Called when a page has been read, before it is returned by the iterator.
+     *
+     * @param index the page index
+     * @param ifd the page IFD
+     * @param validation the validation result of the page
+     */
+    void page(int index, IFD ifd, ValidationResult validation);
+  }
+
+  /** The reader that parses the IFDs. */
+  private final TiffReader reader;
+
+  /** The stream of the file. */
+  private final TiffInputStream data;
+
+  /** The validation result of the header and the chain of IFDs. */
+  private final ValidationResult validation;
+
+  /** The offsets of the IFDs already read. */
+  private final Set<Integer> usedOffsets = new HashSet<Integer>();
+
+  /** The offset of the next IFD to read (0 if there are no more). */
+  private int nextOffset;
+
+  /** The index of the next IFD to read. */
+  private int index;
+
+  /** The IFD read but not returned yet. */
+  private IFD next;
+
+  /** The validation result of the IFD read but not returned yet. */
+  private ValidationResult nextValidation;
+
+  /** The validation result of the last IFD returned. */
+  private ValidationResult pageValidation;
+
+  /** The listener of the pages (null if none). */
+  private PageListener listener;
+
+  /** Whether the file is closed. */
+  private boolean closed;
+
+  /**
+   * Instantiates a new iterator.
+   *
+   * @param reader the reader, with the header of the file read
+   * @param data the stream of the file
+   * @param offset0 the offset of the first IFD (0 if the file has no valid IFDs)
+   */
+  TiffIfdIterator(TiffReader reader, TiffInputStream data, int offset0) {
+    this.reader = reader;
+    this.data = data;
+    this.validation = reader.getBaselineValidation();
+    nextOffset = offset0;
+    index = 0;
+  }
+
+  /**
+   * Sets the listener of the pages.
+   *
+   * @param listener the listener, or null
+   */
+  public void setPageListener(PageListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Gets the validation result of the header and the chain of IFDs.
+   *
+   * @return the validation result
+   */
+  public ValidationResult getValidation() {
+    return validation;
+  }
+
+  /**
+   * Gets the validation result of the last IFD returned by {@link #next()}.
+   *
+   * @return the validation result, or null if no IFD has been returned
+   */
+  public ValidationResult getPageValidation() {
+    return pageValidation;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      readNext();
+    }
+    return next != null;
+  }
+
+  @Override
+  public IFD next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    IFD ifd = next;
+    pageValidation = nextValidation;
+    next = null;
+    nextValidation = null;
+    if (listener != null) {
+      listener.page(index - 1, ifd, pageValidation);
+    }
+    return ifd;
+  }
+
+  /**
+   * Reads the next IFD of the chain, checking the chain as
+   * {@link TiffReader#readFile(String, boolean)} does.
+   */
+  private void readNext() {
+    if (closed || nextOffset <= 0) {
+      return;
+    }
+    ReaderOptions options = reader.getOptions();
+    int offset = nextOffset;
+    nextOffset = 0;
+    if (usedOffsets.contains(offset)) {
+      // Circular reference
+      validation.addErrorLoc("IFD offset already used", "IFD" + index);
+    } else if (offset > data.size()) {
+      validation.addErrorLoc("Incorrect offset", "IFD" + index);
+    } else {
+      usedOffsets.add(offset);
+      ValidationResult result = new ValidationResult(options.isBaselineValidation());
+      IfdReader ir = reader.readIFD(data, result, offset, true, index);
+      if (ir == null) {
+        validation.add(result);
+        validation.addErrorLoc("Parsing error in IFD " + index, "IFD" + index);
+      } else {
+        IFD ifd = ir.getIfd();
+        ifd.setNextOffset(ir.getNextIfdOffset());
+        if (options.isBaselineValidation()) {
+          TiffDocument page = new TiffDocument();
+          page.setByteOrder(data.getByteOrder());
+          page.setSize(data.size());
+          page.addIfd0(ifd);
+          BaselineProfile bp = new BaselineProfile(page);
+          bp.validate();
+          result.add(bp.getValidation());
+        }
+        next = ifd;
+        nextValidation = result;
+        nextOffset = ir.getNextIfdOffset();
+        index++;
+      }
+    }
+    if (next == null && !options.isLazyValues()) {
+      // The last IFD has been read
+      closeQuietly();
+    }
+  }
+
+  /**
+   * Gets a sequential stream of the IFDs. Closing the stream closes the iterator.
+   *
+   * @return the stream
+   */
+  public Stream<IFD> stream() {
+    Spliterator<IFD> spliterator = Spliterators.spliteratorUnknownSize(this,
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+  }
+
+  /**
+   * Closes the file. With lazy values, the values not read yet cannot be read after closing it.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      next = null;
+      nextValidation = null;
+      data.close();
+    }
+  }
+
+  /**
+   * Closes the file, ignoring the errors.
+   */
+  private void closeQuietly() {
+    try {
+      close();
+    } catch (IOException ex) {
+      /* nothing to be done */
+    }
+  }
+}
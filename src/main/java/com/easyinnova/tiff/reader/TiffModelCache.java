@@ -0,0 +1,417 @@
+/**
+ * <h1>TiffModelCache.java</h1>
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version; or, at your choice, under the terms of the
+ * Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p>
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License and the Mozilla Public License for more details.
+ * </p>
+ * <p>
+ * You should have received a copy of the GNU General Public License and the Mozilla Public License
+ * along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a> and at
+ * <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> .
+ * </p>
+ * <p>
+ * NB: for the © statement, include Easy Innova SL or other company/Person contributing the code.
+ * </p>
+ * <p>
+ * © 2015 Easy Innova, SL
+ * </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import com.easyinnova.tiff.model.TiffDocument;
+import com.easyinnova.tiff.model.TiffDocumentCodec;
+import com.easyinnova.tiff.model.ValidationResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of parsed models, used by {@link TiffReader#readFile(String, boolean)} to skip the
+ * parsing of files that have not changed.<br>
+ * The entries are identified by the file path, size and modification time, plus a checksum of the
+ * header and the first IFD. Each entry stores the encoded model (see {@link TiffDocumentCodec})
+ * and the baseline validation result. When the entries exceed the maximum size, the least recently
+ * used ones are removed.
+ */
+public class TiffModelCache {
+
+  /** The entry format identifier. */
+  private static final int MAGIC = 0x544d4331;
+
+  /** The extension of the entry files. */
+  private static final String EXTENSION = ".tmc";
+
+  /** The extension of the entry files being written. */
+  private static final String TEMP_EXTENSION = ".tmp";
+
+  /** The maximum number of bytes of the first IFD included in the checksum. */
+  private static final int MAX_DIGEST_BYTES = 65536;
+
+  /** The cache directory. */
+  private final File directory;
+
+  /** The maximum size of the entries in bytes. */
+  private final long maxBytes;
+
+  /** The current size of the entries in bytes. */
+  private long size;
+
+  /** The number of hits. */
+  private long hits;
+
+  /** The number of misses. */
+  private long misses;
+
+  /** The number of evicted entries. */
+  private long evictions;
+
+  /**
+   * A cached model and its validation result.
+   */
+  public static class Entry {
+
+    /** The model. */
+    private final TiffDocument model;
+
+    /** The baseline validation result. */
+    private final ValidationResult validation;
+
+    /**
+     * Instantiates a new entry.
+     *
+     * @param model the model
+     * @param validation the validation result
+     */
+    Entry(TiffDocument model, ValidationResult validation) {
+      this.model = model;
+      this.validation = validation;
+    }
+
+    /**
+     * Gets the model.
+     *
+     * @return the model
+     */
+    public TiffDocument getModel() {
+      return model;
+    }
+
+    /**
+     * Gets the baseline validation result.
+     *
+     * @return the validation result
+     */
+    public ValidationResult getValidation() {
+      return validation;
+    }
+  }
+
+  /**
+   * Instantiates a new cache.
+   *
+   * @param directory the cache directory (it is created if it does not exist)
+   * @param maxBytes the maximum size of the entries in bytes
+   * @throws IOException if the directory cannot be created
+   */
+  public TiffModelCache(File directory, long maxBytes) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create the cache directory " + directory);
+    }
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    for (File f : entries()) {
+      size += f.length();
+    }
+  }
+
+  /**
+   * Gets the cached model of a file.<br>
+   * The entry is read and decoded without holding the lock of the cache, so several threads can
+   * read entries concurrently.
+   *
+   * @param file the file
+   * @param validate whether the file is validated
+   * @return the entry, or null if the file is not in the cache or has changed
+   */
+  public Entry get(File file, boolean validate) {
+    String key = key(file, validate);
+    Entry entry = key == null ? null : readEntry(entryFile(key), key);
+    synchronized (this) {
+      if (entry != null)
+        hits++;
+      else
+        misses++;
+    }
+    return entry;
+  }
+
+  /**
+   * Reads an entry file, removing it if it is corrupt.
+   *
+   * @param f the entry file
+   * @param key the expected key
+   * @return the entry, or null if the file does not exist or is not valid
+   */
+  private Entry readEntry(File f, String key) {
+    if (!f.isFile()) {
+      return null;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+      if (in.readInt() == MAGIC && in.readUTF().equals(key)) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        ValidationResult validation = (ValidationResult) new ObjectInputStream(
+            new ByteArrayInputStream(bytes)).readObject();
+        TiffDocument model = TiffDocumentCodec.read(in);
+        f.setLastModified(System.currentTimeMillis());
+        return new Entry(model, validation);
+      }
+    } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+      // A corrupt entry is discarded
+    }
+    synchronized (this) {
+      remove(f);
+    }
+    return null;
+  }
+
+  /**
+   * Stores the model of a file.<br>
+   * The entry is encoded to a temporary file without holding the lock of the cache, and then
+   * renamed atomically, so the readers never see half-written entries.
+   *
+   * @param file the file
+   * @param validate whether the file has been validated
+   * @param model the model
+   * @param validation the baseline validation result
+   * @return true, if the model has been stored
+   */
+  public boolean put(File file, boolean validate, TiffDocument model,
+      ValidationResult validation) {
+    String key = key(file, validate);
+    if (key == null) {
+      return false;
+    }
+    File f = entryFile(key);
+    File tmp;
+    try {
+      tmp = File.createTempFile("entry", TEMP_EXTENSION, directory);
+    } catch (IOException ex) {
+      return false;
+    }
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(MAGIC);
+      out.writeUTF(key);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(bytes);
+      oos.writeObject(validation);
+      oos.close();
+      out.writeInt(bytes.size());
+      bytes.writeTo(out);
+      TiffDocumentCodec.write(model, out);
+    } catch (IOException ex) {
+      tmp.delete();
+      return false;
+    }
+    long length = tmp.length();
+    synchronized (this) {
+      long previous = f.isFile() ? f.length() : 0;
+      try {
+        Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException ex) {
+        tmp.delete();
+        return false;
+      }
+      size += length - previous;
+      evict();
+    }
+    return true;
+  }
+
+  /**
+   * Removes all the entries.
+   */
+  public synchronized void clear() {
+    for (File f : entries()) {
+      remove(f);
+    }
+  }
+
+  /**
+   * Gets the number of hits.
+   *
+   * @return the hit count
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of misses.
+   *
+   * @return the miss count
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of entries removed to keep the cache under its maximum size.
+   *
+   * @return the eviction count
+   */
+  public synchronized long getEvictionCount() {
+    return evictions;
+  }
+
+  /**
+   * Gets the current size of the entries.
+   *
+   * @return the size in bytes
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /**
+   * Removes the least recently used entries until the cache is under its maximum size.
+   */
+  private void evict() {
+    if (size <= maxBytes) {
+      return;
+    }
+    File[] files = entries();
+    Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+    for (int i = 0; i < files.length && size > maxBytes; i++) {
+      remove(files[i]);
+      evictions++;
+    }
+  }
+
+  /**
+   * Removes an entry file.
+   *
+   * @param f the entry file
+   */
+  private void remove(File f) {
+    long length = f.length();
+    if (f.isFile() && f.delete()) {
+      size -= length;
+    }
+  }
+
+  /**
+   * Lists the entry files.
+   *
+   * @return the entry files
+   */
+  private File[] entries() {
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+    return files == null ? new File[0] : files;
+  }
+
+  /**
+   * Gets the file of an entry.
+   *
+   * @param key the entry key
+   * @return the entry file
+   */
+  private File entryFile(String key) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-1");
+      StringBuilder sb = new StringBuilder();
+      for (byte b : md.digest(key.getBytes(StandardCharsets.UTF_8))) {
+        sb.append(String.format("%02x", b));
+      }
+      return new File(directory, sb + EXTENSION);
+    } catch (NoSuchAlgorithmException ex) {
+      return new File(directory, Integer.toHexString(key.hashCode()) + EXTENSION);
+    }
+  }
+
+  /**
+   * Gets the key of a file.
+   *
+   * @param file the file
+   * @param validate whether the file is validated
+   * @return the key, or null if the file cannot be read
+   */
+  static String key(File file, boolean validate) {
+    try {
+      String path = file.getCanonicalPath();
+      return path + "|" + file.length() + "|" + file.lastModified() + "|"
+          + Long.toHexString(headerChecksum(file)) + "|" + validate;
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Computes a checksum of the header and the first IFD of a file.
+   *
+   * @param file the file
+   * @return the checksum
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  static long headerChecksum(File file) throws IOException {
+    CRC32 crc = new CRC32();
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      byte[] header = new byte[(int) Math.min(8, raf.length())];
+      raf.readFully(header);
+      crc.update(header);
+      if (header.length == 8 && (header[0] == 'I' || header[0] == 'M')) {
+        boolean little = header[0] == 'I';
+        long offset = little
+            ? (header[4] & 0xFFL) | (header[5] & 0xFFL) << 8 | (header[6] & 0xFFL) << 16
+                | (header[7] & 0xFFL) << 24
+            : (header[7] & 0xFFL) | (header[6] & 0xFFL) << 8 | (header[5] & 0xFFL) << 16
+                | (header[4] & 0xFFL) << 24;
+        if (offset + 2 <= raf.length()) {
+          raf.seek(offset);
+          int b0 = raf.read();
+          int b1 = raf.read();
+          int entries = little ? b0 | b1 << 8 : b1 | b0 << 8;
+          long length = Math.min(Math.min(2L + entries * 12L + 4, MAX_DIGEST_BYTES),
+              raf.length() - offset);
+          byte[] ifd = new byte[(int) length];
+          raf.seek(offset);
+          raf.readFully(ifd);
+          crc.update(ifd);
+        }
+      }
+    }
+    return crc.getValue();
+  }
+}
@@ -31,27 +31,43 @@
  */
 package com.easyinnova.tiff.reader;
 
+import com.easyinnova.tiff.io.ByteArraySource;
+import com.easyinnova.tiff.io.ByteBufferSource;
+import com.easyinnova.tiff.io.ByteSource;
+import com.easyinnova.tiff.io.ChannelSource;
 import com.easyinnova.tiff.io.TiffInputStream;
 import com.easyinnova.tiff.model.ByteOrder;
+import com.easyinnova.tiff.model.PrimitiveValues;
 import com.easyinnova.tiff.model.IccProfileCreators;
 import com.easyinnova.tiff.model.ReadIccConfigIOException;
 import com.easyinnova.tiff.model.ReadTagsIOException;
 import com.easyinnova.tiff.model.Tag;
 import com.easyinnova.tiff.model.TagValue;
 import com.easyinnova.tiff.model.TiffDocument;
+import com.easyinnova.tiff.model.TiffTagIds;
 import com.easyinnova.tiff.model.TiffTags;
 import com.easyinnova.tiff.model.ValidationResult;
 import com.easyinnova.tiff.model.types.IFD;
+import com.easyinnova.tiff.model.types.IPTC;
+import com.easyinnova.tiff.model.types.TypedefRegistry;
 import com.easyinnova.tiff.model.types.abstractTiffType;
 import com.easyinnova.tiff.profiles.BaselineProfile;
 import com.easyinnova.tiff.profiles.TiffEPProfile;
 import com.easyinnova.tiff.profiles.TiffITProfile;
 
+import java.io.EOFException;
 import java.io.File;
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.FutureTask;
 
 /**
  * Reads and parses a Tiff file, storing it in an internal model.
@@ -71,23 +87,23 @@ public class TiffReader {
   /** The result of the validation. */
   ValidationResult validation;
 
-  /**
-   * Tolerance to duplicate tags.<br>
-   * 0: No tolerance. 1: Tolerate duplicates keeping first appearance only
-   */
-  int duplicateTagTolerance = 10;
+  /** The result of the TIFF/EP validation run when the file was read (null if not run). */
+  ValidationResult epValidation;
 
-  /**
-   * Tolerance to errors in the next IFD pointer.<br>
-   * 0: No tolerance. 1: Tolerate errors assuming there is no next Ifd (offset = 0)
-   */
-  int nextIFDTolerance = 0;
+  /** The result of the TIFF/IT validation run when the file was read (null if not run). */
+  ValidationResult itValidation;
 
-  /**
-   * Tolerance to errors in the byte ordering.<br>
-   * 0: No tolerance. 1: Lower case tolerance. 2: Full tolerance, assuming little endian.
-   * */
-  int byteOrderErrorTolerance = 0;
+  /** The reading options. */
+  ReaderOptions options = ReaderOptions.DEFAULT;
+
+  /** The cache of parsed models of the files (null if not used). */
+  TiffModelCache modelCache;
+
+  /** The tags needed to locate the image data, which are always read. */
+  static final int[] IMAGE_TAGS = {TiffTagIds.IMAGE_WIDTH, TiffTagIds.IMAGE_LENGTH,
+      TiffTagIds.ROWS_PER_STRIP, TiffTagIds.STRIP_OFFSETS, TiffTagIds.STRIP_BYTE_COUNT,
+      TiffTagIds.TILE_WIDTH, TiffTagIds.TILE_LENGTH, TiffTagIds.TILE_OFFSETS,
+      TiffTagIds.TILE_BYTE_COUNTS};
 
   /**
    * Default constructor.<br>
@@ -102,6 +118,81 @@ public class TiffReader {
     IccProfileCreators.getIccProfileCreators();
   }
 
+  /**
+   * Sets the reading options.
+   *
+   * @param options the options
+   */
+  public void setOptions(ReaderOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * Gets the reading options.
+   *
+   * @return the options
+   */
+  public ReaderOptions getOptions() {
+    return options;
+  }
+
+  /**
+   * Sets the geometry of the input buffer used for the files that cannot be memory mapped.
+   *
+   * @param pageSize the page size in bytes
+   * @param maxPages the maximum number of pages
+   */
+  public void setPageCache(int pageSize, int maxPages) {
+    options = options.toBuilder().pageCache(pageSize, maxPages).build();
+  }
+
+  /**
+   * Sets whether the tag values that do not fit in the directory entries are read on demand.<br>
+   * In that case, the values are read from the file the first time that they are accessed, and
+   * the file is kept open until the model is closed with {@link TiffDocument#close()}. The parse
+   * errors of those values are added to the validation result when they are read.
+   *
+   * @param lazyValues true, to read the values on demand
+   */
+  public void setLazyValues(boolean lazyValues) {
+    options = options.toBuilder().lazyValues(lazyValues).build();
+  }
+
+  /**
+   * Sets the tags whose values are read.<br>
+   * The other tags only keep their directory entry (id, type, count and offset), without reading
+   * their values or parsing their contents, so they have no values in the model. The tags needed
+   * to locate the image data are always read. The validation of the files read this way reports
+   * the skipped values as missing, so it should be disabled.
+   *
+   * @param tagIds the ids of the tags to read
+   * @param typedefs the typedefs of the tags to read (for example "XMP", "IPTC", "IccProfile" or
+   *        "ExifIFD"), can be null
+   */
+  public void setWantedTags(Collection<Integer> tagIds, Collection<String> typedefs) {
+    options = options.toBuilder().wantedTags(tagIds, typedefs).build();
+  }
+
+  /**
+   * Reads the values of all the tags (the default).
+   */
+  public void setAllTagsWanted() {
+    options = options.toBuilder().wantedTags(null, null).build();
+  }
+
+  /**
+   * Sets the cache of parsed models used by {@link #readFile(String, boolean)}.<br>
+   * When a file has not changed since it was stored in the cache, its model and baseline
+   * validation result are taken from the cache, without parsing the file (in that case
+   * {@link #getStream()} returns null). Storing a model read with lazy values reads all of them.
+   * The cache is not used when the options skip or do not decode some tags.
+   *
+   * @param modelCache the cache, or null to always parse the files
+   */
+  public void setModelCache(TiffModelCache modelCache) {
+    this.modelCache = modelCache;
+  }
+
   /**
    * Gets the internal model of the Tiff file.
    *
@@ -133,36 +224,54 @@ public class TiffReader {
   }
 
   /**
-   * Gets the result of the validation.
+   * Gets the result of the validation.<br>
+   * If the TIFF/EP validation is enabled in the options, it returns the result of the validation
+   * run when the file was read.
    *
    * @return the validation result
    */
   public ValidationResult getTiffEPValidation() {
+    if (epValidation != null) {
+      return epValidation;
+    }
     TiffEPProfile bpep = new TiffEPProfile(tiffModel);
     bpep.validate();
     return bpep.getValidation();
   }
 
   /**
-   * Gets the result of the validation.
+   * Gets the result of the validation.<br>
+   * If the TIFF/IT validation with the same profile is enabled in the options, it returns the
+   * result of the validation run when the file was read.
    *
    * @param profile the TiffIT profile (0: default, 1: P1, 2: P2)
    * @return the validation result
    */
   public ValidationResult getTiffITValidation(int profile) {
+    if (itValidation != null && profile == options.getITValidationProfile()) {
+      return itValidation;
+    }
     TiffITProfile bpit = new TiffITProfile(tiffModel, profile);
     bpit.validate();
     return bpit.getValidation();
   }
 
+  /**
+   * Parses a Tiff File and create an internal model representation, with the validations enabled
+   * in the options.
+   *
+   * @param filename the Tiff filename
+   * @return Error code (0: successful, -1: file not found, -2: IO exception)
+   */
   public int readFile(String filename) {
-    return readFile(filename, true);
+    return readFile(filename, options.isBaselineValidation());
   }
 
   /**
    * Parses a Tiff File and create an internal model representation.
    *
    * @param filename the Tiff filename
+   * @param validate whether to validate the file with the baseline profile
    * @return Error code (0: successful, -1: file not found, -2: IO exception)
    */
   public int readFile(String filename, boolean validate) {
@@ -170,34 +279,21 @@ public class TiffReader {
 
     try {
       if (Files.exists(Paths.get(filename))) {
-        data = new TiffInputStream(new File(filename));
-
-        tiffModel = new TiffDocument();
-        validation = new ValidationResult(validate);
-        tiffModel.setSize(data.size());
-        boolean correctHeader = readHeader();
-        if (correctHeader) {
-          if (tiffModel.getMagicNumber() < 42) {
-            validation
-                .addError("Incorrect tiff magic number", "Header", tiffModel.getMagicNumber());
-          } else if (tiffModel.getMagicNumber() == 43) {
-            validation.addErrorLoc("Big tiff file not yet supported", "Header");
-          } else if (validation.isCorrect()) {
-            readIFDs();
-
-            if (validate) {
-              BaselineProfile bp = new BaselineProfile(tiffModel);
-              bp.validate();
-              getBaselineValidation().add(bp.getValidation());
-            }
+        File file = new File(filename);
+        TiffModelCache cache = options.isCompleteModel() ? modelCache : null;
+        TiffModelCache.Entry cached = cache == null ? null : cache.get(file, validate);
+        if (cached != null) {
+          data = null;
+          tiffModel = cached.getModel();
+          validation = cached.getValidation();
+          runProfiles();
+        } else {
+          data = openFile(file);
+          readStream(validate);
+          if (cache != null) {
+            cache.put(file, validate, tiffModel, validation);
           }
         }
-
-        if (getBaselineValidation().getFatalError()) {
-          tiffModel.setFatalError(true, getBaselineValidation().getFatalErrorMessage());
-        }
-
-        data.close();
       } else {
         // File not found
         result = -1;
@@ -212,6 +308,228 @@ public class TiffReader {
     return result;
   }
 
+  /**
+   * Parses an in-memory Tiff file and create an internal model representation.
+   *
+   * @param bytes the bytes of the Tiff file
+   * @return Error code (0: successful, -2: IO exception)
+   */
+  public int read(byte[] bytes) {
+    return read(new ByteArraySource(bytes), options.isBaselineValidation());
+  }
+
+  /**
+   * Parses an in-memory Tiff file and create an internal model representation.
+   *
+   * @param buffer the buffer containing the Tiff file (from its position to its limit)
+   * @return Error code (0: successful, -2: IO exception)
+   */
+  public int read(ByteBuffer buffer) {
+    return read(new ByteBufferSource(buffer), options.isBaselineValidation());
+  }
+
+  /**
+   * Parses a Tiff file from a channel and create an internal model representation.
+   *
+   * @param channel the channel (it is closed after reading)
+   * @return Error code (0: successful, -2: IO exception)
+   */
+  public int read(SeekableByteChannel channel) {
+    try {
+      return read(new ChannelSource(channel), options.isBaselineValidation());
+    } catch (IOException ex) {
+      tiffModel = new TiffDocument();
+      tiffModel.setFatalError(true, "IO Exception");
+      return -2;
+    }
+  }
+
+  /**
+   * Parses a Tiff file from a byte source and create an internal model representation.
+   *
+   * @param source the byte source (it is closed after reading)
+   * @return Error code (0: successful, -2: IO exception)
+   */
+  public int read(ByteSource source) {
+    return read(source, options.isBaselineValidation());
+  }
+
+  /**
+   * Parses a Tiff file from a byte source and create an internal model representation.
+   *
+   * @param source the byte source (it is closed after reading)
+   * @param validate whether to validate the file
+   * @return Error code (0: successful, -2: IO exception)
+   */
+  public int read(ByteSource source, boolean validate) {
+    int result = 0;
+
+    try {
+      data = new TiffInputStream(source, options.getPageSize(), options.getMaxPages());
+      readStream(validate);
+    } catch (Exception ex) {
+      // IO exception
+      result = -2;
+      if (tiffModel == null) {
+        tiffModel = new TiffDocument();
+      }
+      tiffModel.setFatalError(true, "IO Exception");
+    }
+
+    return result;
+  }
+
+  /**
+   * Opens a Tiff file to iterate its IFDs, parsing each one on demand.<br>
+   * The IFDs are not linked to each other nor retained by the iterator, so the pages of huge
+   * files can be processed in constant memory. The model of the reader only contains the header
+   * of the file, and its validation result the errors of the header and the chain of IFDs.
+   *
+   * @param filename the Tiff filename
+   * @return the iterator (it must be closed)
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public TiffIfdIterator iterateIFDs(String filename) throws IOException {
+    data = openFile(new File(filename));
+    tiffModel = new TiffDocument();
+    validation = new ValidationResult(true);
+    epValidation = null;
+    itValidation = null;
+    tiffModel.setSize(data.size());
+    int offset0 = 0;
+    if (readHeader()) {
+      if (tiffModel.getMagicNumber() < 42) {
+        validation
+            .addError("Incorrect tiff magic number", "Header", tiffModel.getMagicNumber());
+      } else if (tiffModel.getMagicNumber() == 43) {
+        validation.addErrorLoc("Big tiff file not yet supported", "Header");
+      } else {
+        offset0 = readFirstIFDOffset();
+      }
+    }
+    return new TiffIfdIterator(this, data, validation.isCorrect() ? offset0 : 0);
+  }
+
+  /**
+   * Opens a file with the I/O strategy of the options.
+   *
+   * @param file the file
+   * @return the input stream
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private TiffInputStream openFile(File file) throws IOException {
+    if (options.getIoStrategy() == ReaderOptions.IoStrategy.PAGED) {
+      return new TiffInputStream(new ChannelSource(Files.newByteChannel(file.toPath())),
+          options.getPageSize(), options.getMaxPages());
+    }
+    return new TiffInputStream(file, options.getPageSize(), options.getMaxPages());
+  }
+
+  /**
+   * Runs the validations and builds the structures that the options enable after reading.
+   */
+  private void runProfiles() {
+    epValidation = null;
+    itValidation = null;
+    if (tiffModel == null || tiffModel.getFirstIFD() == null) {
+      return;
+    }
+    if (options.isMetadataDictionary()) {
+      tiffModel.createMetadataDictionary();
+    }
+    if (options.isEPValidation()) {
+      TiffEPProfile bpep = new TiffEPProfile(tiffModel);
+      bpep.validate();
+      epValidation = bpep.getValidation();
+    }
+    if (options.getITValidationProfile() >= 0) {
+      TiffITProfile bpit = new TiffITProfile(tiffModel, options.getITValidationProfile());
+      bpit.validate();
+      itValidation = bpit.getValidation();
+    }
+  }
+
+  /**
+   * Parses the opened stream and create an internal model representation.
+   *
+   * @param validate whether to validate the file
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private void readStream(boolean validate) throws IOException {
+    boolean parsed = false;
+    try {
+      parseStream(validate);
+      parsed = true;
+    } finally {
+      if (!parsed) {
+        // release the pages of the stream, no value will be loaded from it
+        try {
+          data.close();
+        } catch (IOException ex) {
+          // the parsing error is the one reported
+        }
+      }
+    }
+
+    if (options.isLazyValues()) {
+      tiffModel.setSource(data::close);
+    } else {
+      data.close();
+    }
+  }
+
+  /**
+   * Parses the data stream.
+   *
+   * @param validate whether to validate the file
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private void parseStream(boolean validate) throws IOException {
+    tiffModel = new TiffDocument();
+    validation = new ValidationResult(validate);
+    tiffModel.setSize(data.size());
+    boolean correctHeader = readHeader();
+    if (correctHeader) {
+      if (tiffModel.getMagicNumber() < 42) {
+        validation
+            .addError("Incorrect tiff magic number", "Header", tiffModel.getMagicNumber());
+      } else if (tiffModel.getMagicNumber() == 43) {
+        validation.addErrorLoc("Big tiff file not yet supported", "Header");
+      } else if (validation.isCorrect()) {
+        readIFDs(validate);
+
+        if (validate) {
+          BaselineProfile bp = new BaselineProfile(tiffModel);
+          bp.validate();
+          getBaselineValidation().add(bp.getValidation());
+        }
+      }
+    }
+
+    if (getBaselineValidation().getFatalError()) {
+      tiffModel.setFatalError(true, getBaselineValidation().getFatalErrorMessage());
+    }
+
+    runProfiles();
+  }
+
+  /**
+   * Reads the raw bytes of a tag value.
+   *
+   * @param in the input stream
+   * @param tv the tag value
+   * @return the bytes
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private byte[] readRawValue(TiffInputStream in, TagValue tv) throws IOException {
+    byte[] bytes = new byte[tv.getReadlength()];
+    int n = in.readBytesAt(tv.getReadOffset(), bytes, 0, bytes.length);
+    if (n < bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(n, 0));
+    }
+    return bytes;
+  }
+
   /**
    * Reads the Tiff header.
    *
@@ -235,13 +553,13 @@ public class TiffReader {
     } else if (c1 == 'M' && c2 == 'M') {
       byteOrder = ByteOrder.BIG_ENDIAN;
     }
-    else if (byteOrderErrorTolerance > 0 && c1 == 'i' && c2 == 'i') {
+    else if (options.getByteOrderErrorTolerance() > 0 && c1 == 'i' && c2 == 'i') {
       validation.addWarning("Byte Order in lower case", "" + c1 + c2, "Header");
       byteOrder = ByteOrder.LITTLE_ENDIAN;
-    } else if (byteOrderErrorTolerance > 0 && c1 == 'm' && c2 == 'm') {
+    } else if (options.getByteOrderErrorTolerance() > 0 && c1 == 'm' && c2 == 'm') {
       validation.addWarning("Byte Order in lower case", "" + c1 + c2, "Header");
       byteOrder = ByteOrder.BIG_ENDIAN;
-    } else if (byteOrderErrorTolerance > 1) {
+    } else if (options.getByteOrderErrorTolerance() > 1) {
       validation.addWarning("Non-sense Byte Order. Trying Little Endian.", "" + c1 + c2, "Header");
       byteOrder = ByteOrder.LITTLE_ENDIAN;
     } else {
@@ -266,25 +584,20 @@ public class TiffReader {
 
   /**
    * Read the IFDs contained in the Tiff file.
+   *
+   * @param validate whether the file is validated
    */
-  private void readIFDs() {
-    int offset0 = 0;
-    try {
-      // The pointer to the first IFD is located in bytes 4-7
-      offset0 = data.readLong(4).toInt();
-      tiffModel.setFirstIFDOffset(offset0);
-      if (offset0 == 0)
-        validation.addErrorLoc("There is no first IFD", "Header");
-      else if (offset0 > data.size())
-        validation.addErrorLoc("Incorrect offset", "Header");
-    } catch (Exception ex) {
-      validation.addErrorLoc("IO exception", "Header");
-    }
-      
+  private void readIFDs(boolean validate) {
+    int offset0 = readFirstIFDOffset();
     if (validation.isCorrect()) {
+      if (options.getIfdExecutor() != null) {
+        readIFDsConcurrently(offset0, validate);
+        // The metadata dictionary is created when it is first requested
+        return;
+      }
       int nifd = 1;
       try {
-        IfdReader ifd0 = readIFD(offset0, true, 0);
+        IfdReader ifd0 = readIFD(data, validation, offset0, true, 0);
         HashSet<Integer> usedOffsets = new HashSet<Integer>();
         usedOffsets.add(offset0);
         if (ifd0.getIfd() == null) {
@@ -308,7 +621,8 @@ public class TiffReader {
               stop = true;
             } else {
               usedOffsets.add(current_ifd.getNextIfdOffset());
-              IfdReader next_ifd = readIFD(current_ifd.getNextIfdOffset(), true, nifd);
+              IfdReader next_ifd =
+                  readIFD(data, validation, current_ifd.getNextIfdOffset(), true, nifd);
               if (next_ifd == null) {
                 validation.addErrorLoc("Parsing error in IFD " + nifd, "IFD" + nifd);
                 stop = true;
@@ -325,23 +639,168 @@ public class TiffReader {
       } catch (Exception ex) {
         validation.addErrorLoc("IFD parsing error", "IFD" + nifd);
       }
+      // The metadata dictionary is created when it is first requested
+    }
+  }
 
-      try {
-        tiffModel.createMetadataDictionary();
-      } catch (Exception ex) {
+  /**
+   * Reads the offset of the first IFD.
+   *
+   * @return the offset
+   */
+  private int readFirstIFDOffset() {
+    int offset0 = 0;
+    try {
+      // The pointer to the first IFD is located in bytes 4-7
+      offset0 = data.readLong(4).toInt();
+      tiffModel.setFirstIFDOffset(offset0);
+      if (offset0 == 0)
+        validation.addErrorLoc("There is no first IFD", "Header");
+      else if (offset0 > data.size())
+        validation.addErrorLoc("Incorrect offset", "Header");
+    } catch (Exception ex) {
+      validation.addErrorLoc("IO exception", "Header");
+    }
+    return offset0;
+  }
+
+  /**
+   * Reads the IFDs in two phases: first the chain of IFDs is discovered reading only the number of
+   * entries and the next IFD offset of each one, and then the IFDs are parsed concurrently on the
+   * executor of the options and linked in order.<br>
+   * The resulting model and validation errors are the same as when the IFDs are read serially.
+   *
+   * @param offset0 the offset of the first IFD
+   * @param validate whether the file is validated
+   */
+  private void readIFDsConcurrently(int offset0, boolean validate) {
+    // Discover the chain
+    List<Integer> offsets = new ArrayList<Integer>();
+    offsets.add(offset0);
+    HashSet<Integer> usedOffsets = new HashSet<Integer>();
+    usedOffsets.add(offset0);
+    String chainError = null;
+    int offset = offset0;
+    while (true) {
+      int next = peekNextIFDOffset(offset);
+      if (next <= 0) {
+        break;
+      } else if (usedOffsets.contains(next)) {
+        // Circular reference
+        chainError = "IFD offset already used";
+        break;
+      } else if (next > data.size()) {
+        chainError = "Incorrect offset";
+        break;
       }
+      usedOffsets.add(next);
+      offsets.add(next);
+      offset = next;
+    }
+
+    // Parse the IFDs
+    List<FutureTask<IfdReader>> tasks = new ArrayList<FutureTask<IfdReader>>();
+    List<ValidationResult> results = new ArrayList<ValidationResult>();
+    for (int i = 0; i < offsets.size(); i++) {
+      ValidationResult result = new ValidationResult(validate);
+      int ifdOffset = offsets.get(i);
+      int nifd = i;
+      FutureTask<IfdReader> task =
+          new FutureTask<IfdReader>(() -> readIFD(data, result, ifdOffset, true, nifd));
+      tasks.add(task);
+      results.add(result);
+    }
+    for (int i = 1; i < tasks.size(); i++) {
+      options.getIfdExecutor().execute(tasks.get(i));
+    }
+
+    // Link them in order
+    IfdReader previous = null;
+    int nifd = 0;
+    try {
+      for (; nifd < tasks.size(); nifd++) {
+        // The IFDs not started yet by the executor are parsed in this thread
+        tasks.get(nifd).run();
+        IfdReader ifd = tasks.get(nifd).get();
+        mergeValidation(results.get(nifd));
+        if (ifd == null) {
+          if (nifd == 0) {
+            // The serial reading fails getting the first IFD
+            throw new IOException();
+          }
+          validation.addErrorLoc("Parsing error in IFD " + nifd, "IFD" + nifd);
+          chainError = null;
+          break;
+        }
+        ifd.getIfd().setNextOffset(ifd.getNextIfdOffset());
+        if (previous == null)
+          tiffModel.addIfd0(ifd.getIfd());
+        else
+          previous.getIfd().setNextIFD(ifd.getIfd());
+        previous = ifd;
+      }
+      if (chainError != null) {
+        validation.addErrorLoc(chainError, "IFD" + nifd);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      validation.addErrorLoc("IFD parsing error", "IFD" + Math.max(nifd, 1));
+    } catch (Exception ex) {
+      validation.addErrorLoc("IFD parsing error", "IFD" + Math.max(nifd, 1));
+    } finally {
+      for (FutureTask<IfdReader> task : tasks) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Reads only the number of entries and the next IFD offset of an IFD.
+   *
+   * @param offset the file offset (in bytes) pointing to the IFD
+   * @return the next IFD offset, or 0 if the IFD has no next IFD or cannot be read
+   */
+  private int peekNextIFDOffset(int offset) {
+    try {
+      int directoryEntries = data.readShortAt(offset) & 0xFFFF;
+      if (directoryEntries < 1 || directoryEntries > 500) {
+        return 0;
+      }
+      long next = data.readIntAt(offset + 2 + 12L * directoryEntries) & 0xFFFFFFFFL;
+      if (next > Integer.MAX_VALUE || next < 7) {
+        return 0;
+      }
+      return (int) next;
+    } catch (Exception ex) {
+      return 0;
+    }
+  }
+
+  /**
+   * Adds the errors of the parsing of an IFD to the validation result.
+   *
+   * @param result the validation result of the IFD
+   */
+  private void mergeValidation(ValidationResult result) {
+    validation.add(result);
+    if (result.getFatalError()) {
+      validation.setFatalError(true, result.getFatalErrorMessage());
     }
   }
 
   /**
-   * Parses the image file descriptor data.
+   * Parses the image file descriptor data.<br>
+   * Only positional reads are used, so several IFDs can be parsed concurrently.
    *
+   * @param in the input stream
+   * @param result the validation result where the errors are added
    * @param offset the file offset (in bytes) pointing to the IFD
    * @param isImage the is image
    * @param n the IFD number
    * @return the ifd reading result
    */
-  private IfdReader readIFD(int offset, boolean isImage, int n) {
+  IfdReader readIFD(TiffInputStream in, ValidationResult result, int offset,
+      boolean isImage, int n) {
     IFD ifd = new IFD(isImage);
     ifd.setOffset(offset);
     IfdReader ir = new IfdReader();
@@ -349,21 +808,21 @@ public class TiffReader {
     int nextIfdOffset = 0;
     try {
       if (offset % 2 != 0) {
-        validation.addErrorLoc("Bad word alignment in the offset of the IFD", "IFD" + n);
+        result.addErrorLoc("Bad word alignment in the offset of the IFD", "IFD" + n);
       }
       int index = offset;
-      int directoryEntries = data.readShort(offset).toInt();
+      int directoryEntries = in.readShortAt(offset) & 0xFFFF;
       if (directoryEntries < 1) {
-        validation.addError("Incorrect number of IFD entries", "IFD" + n,
+        result.addError("Incorrect number of IFD entries", "IFD" + n,
             directoryEntries);
-        validation.setFatalError(true, "Incorrect number of IFD entries");
+        result.setFatalError(true, "Incorrect number of IFD entries");
       } else if (directoryEntries > 500) {
         if (n < 0) {
-          validation.addError("Incorrect number of IFD entries", "SubIFD" + (-n), directoryEntries);
-          validation.setFatalError(true, "Incorrect number of IFD entries");
+          result.addError("Incorrect number of IFD entries", "SubIFD" + (-n), directoryEntries);
+          result.setFatalError(true, "Incorrect number of IFD entries");
         } else {
-          validation.addError("Incorrect number of IFD entries", "IFD" + n, directoryEntries);
-          validation.setFatalError(true, "Incorrect number of IFD entries");
+          result.addError("Incorrect number of IFD entries", "IFD" + n, directoryEntries);
+          result.setFatalError(true, "Incorrect number of IFD entries");
         }
       } else {
         index += 2;
@@ -374,21 +833,25 @@ public class TiffReader {
           int tagType = -1;
           int tagN = -1;
           try {
-            tagid = data.readShort(index).toInt();
-            tagType = data.readShort(index + 2).toInt();
-            tagN = data.readLong(index + 4).toInt();
-            boolean ok = checkType(tagid, tagType, n);
+            tagid = in.readShortAt(index) & 0xFFFF;
+            tagType = in.readShortAt(index + 2) & 0xFFFF;
+            tagN = readOffset(in, index + 4);
+            boolean ok = checkType(result, tagid, tagType, n);
             if (!ok && tagN > 1000) tagN = 1000;
-            TagValue tv = getValue(tagType, tagN, tagid, index + 8, ifd, n);
+            TagValue tv;
+            if (isWanted(tagid))
+              tv = getValue(in, result, tagType, tagN, tagid, index + 8, ifd, n);
+            else
+              tv = getEntry(in, tagType, tagN, tagid, index + 8);
             if (ifd.containsTagId(tagid)) {
-              if (duplicateTagTolerance > 0)
-                validation.addWarning("Duplicate tag", "" + tagid, "IFD" + n);
+              if (options.getDuplicateTagTolerance() > 0)
+                result.addWarning("Duplicate tag", "" + tagid, "IFD" + n);
               else
-                validation.addError("Duplicate tag", "IFD" + n, tagid);
+                result.addError("Duplicate tag", "IFD" + n, tagid);
             }
             ifd.addTag(tv);
           } catch (Exception ex) {
-            validation.addErrorLoc("Parse error in tag #" + i + " (" + tagid + ")", "IFD" + n);
+            result.addErrorLoc("Parse error in tag #" + i + " (" + tagid + ")", "IFD" + n);
             TagValue tv = new TagValue(tagid, tagType);
             tv.setReadOffset(index + 8);
             tv.setReadLength(tagN);
@@ -401,27 +864,27 @@ public class TiffReader {
         // Reads the position of the next IFD
         nextIfdOffset = 0;
         try {
-          nextIfdOffset = data.readLong(index).toInt();
+          nextIfdOffset = readOffset(in, index);
         } catch (Exception ex) {
           nextIfdOffset = 0;
-          if (nextIFDTolerance > 0)
-            validation.addWarning("Unreadable next IFD offset", "", "IFD" + n);
+          if (options.getNextIFDTolerance() > 0)
+            result.addWarning("Unreadable next IFD offset", "", "IFD" + n);
           else
-            validation.addErrorLoc("Unreadable next IFD offset", "IFD" + n);
+            result.addErrorLoc("Unreadable next IFD offset", "IFD" + n);
         }
         if (nextIfdOffset > 0 && nextIfdOffset < 7) {
-          validation.addError("Invalid next IFD offset", "IFD" + n, nextIfdOffset);
+          result.addError("Invalid next IFD offset", "IFD" + n, nextIfdOffset);
           nextIfdOffset = 0;
         }
         ir.setNextIfdOffset(nextIfdOffset);
 
         ir.readImage();
         if (isImage && !ifd.hasStrips() && !ifd.hasTiles()) {
-          validation.setFatalError(true, "Incorrect image");
+          result.setFatalError(true, "Incorrect image");
         }
       }
     } catch (Exception ex) {
-      validation.addErrorLoc("IO Exception", "IFD" + n);
+      result.addErrorLoc("IO Exception", "IFD" + n);
       return null;
     }
     return ir;
@@ -430,11 +893,12 @@ public class TiffReader {
   /**
    * Check tag type.
    *
+   * @param result the validation result where the errors are added
    * @param tagid the tagid
    * @param tagType the tag type
    * @param n the n
    */
-  private boolean checkType(int tagid, int tagType, int n) {
+  private boolean checkType(ValidationResult result, int tagid, int tagType, int n) {
     if (TiffTags.hasTag(tagid) && !TiffTags.getTag(tagid).getName().equals("IPTC")) {
       boolean found = false;
       String stagType = TiffTags.getTagTypeName(tagType);
@@ -453,7 +917,7 @@ public class TiffReader {
         }
       }
       if (!found) {
-        validation.addError("Incorrect type for tag " + TiffTags.getTag(tagid).getName(),
+        result.addError("Incorrect type for tag " + TiffTags.getTag(tagid).getName(),
             "IFD" + n, stagType);
         return false;
       }
@@ -474,8 +938,29 @@ public class TiffReader {
    * @return the tag value object
    */
   protected TagValue getValue(int tagtype, int n, int id, int beginOffset, IFD parentIFD, int nifd) {
+    return getValue(data, validation, tagtype, n, id, beginOffset, parentIFD, nifd);
+  }
+
+  /**
+   * Gets the value of the given tag field.
+   *
+   * @param in the input stream
+   * @param result the validation result where the errors are added
+   * @param tagtype the tag type
+   * @param n the cardinality
+   * @param id the tag id
+   * @param beginOffset the offset position of the tag value
+   * @param parentIFD the parent ifd
+   * @param nifd the ifd number
+   * @return the tag value object
+   */
+  private TagValue getValue(TiffInputStream in, ValidationResult result, int tagtype, int n,
+      int id, int beginOffset, IFD parentIFD, int nifd) {
     int type = tagtype;
-    if (id == 330 && type != 13)
+    if (!options.isSubIfds()) {
+      if (type == 13)
+        type = 4;
+    } else if (id == 330 && type != 13)
       type = 13;
 
     // Create TagValue object
@@ -493,12 +978,12 @@ public class TiffReader {
     // Check if the tag value fits in the directory entry value field, and get offset if not
     if (typeSize * n > tagValueSize) {
       try {
-        offset = data.readLong(offset).toInt();
+        offset = readOffset(in, offset);
         if (offset % 2 != 0) {
-          validation.addErrorLoc("Bad word alignment in the offset of tag " + id, "IFD" + n);
+          result.addErrorLoc("Bad word alignment in the offset of tag " + id, "IFD" + n);
         }
       } catch (Exception ex) {
-        validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + n);
+        result.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + n);
         ok = false;
       }
     }
@@ -506,53 +991,161 @@ public class TiffReader {
     tv.setReadOffset(offset);
     tv.setReadLength(n);
     if (ok) {
+      if (options.isLazyValues() && isDeferrable(tv, typeSize)) {
+        // The errors found when the values are read go to the validation of the file
+        ValidationResult fileResult = validation;
+        int valueOffset = offset;
+        tv.setLoader(t -> {
+          if (in.isClosed()) {
+            throw new IllegalStateException("document closed");
+          }
+          readValues(in, fileResult, t, valueOffset, parentIFD, nifd);
+        });
+      } else {
+        readValues(in, result, tv, offset, parentIFD, nifd);
+      }
+    }
+    return tv;
+  }
+
+  /**
+   * Checks if the values of a tag have to be read.
+   *
+   * @param id the tag id
+   * @return true, if the tag is wanted
+   */
+  private boolean isWanted(int id) {
+    Tag t = TiffTags.getTag(id);
+    return options.isWanted(id, t != null && t.hasTypedef() ? t.getTypedef() : null);
+  }
+
+  /**
+   * Gets a tag without reading its values, keeping only its directory entry.
+   *
+   * @param in the input stream
+   * @param type the tag type
+   * @param n the cardinality
+   * @param id the tag id
+   * @param beginOffset the offset position of the tag value
+   * @return the tag value object, without values
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private TagValue getEntry(TiffInputStream in, int type, int n, int id, int beginOffset)
+      throws IOException {
+    TagValue tv = new TagValue(id, type);
+    tv.setTagOffset(beginOffset - 8);
+    int offset = beginOffset;
+    if ((long) TiffTags.getTypeSize(type) * n > tagValueSize) {
+      offset = readOffset(in, offset);
+    }
+    tv.setReadOffset(offset);
+    tv.setReadLength(n);
+    return tv;
+  }
+
+  /**
+   * Reads an offset (an unsigned 4 bytes value) with a positional read.
+   *
+   * @param in the input stream
+   * @param position the position of the offset
+   * @return the offset
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static int readOffset(TiffInputStream in, long position) throws IOException {
+    long value = in.readIntAt(position) & 0xFFFFFFFFL;
+    if (value > Integer.MAX_VALUE) {
+      throw new NumberFormatException("Value out of int range: " + value);
+    }
+    return (int) value;
+  }
+
+  /**
+   * Checks if the values of a tag can be read on demand.<br>
+   * The values that fit in the directory entry and the sub IFDs are always read.
+   *
+   * @param tv the tag value
+   * @param typeSize the size of the tag type
+   * @return true, if the values can be deferred
+   */
+  private boolean isDeferrable(TagValue tv, int typeSize) {
+    if (!PrimitiveValues.supports(tv.getType())
+        || (long) typeSize * tv.getReadlength() <= tagValueSize) {
+      return false;
+    }
+    Tag t = TiffTags.getTag(tv.getId());
+    return t == null || !t.hasTypedef() || !TypedefRegistry.isIFD(t.getTypedef());
+  }
+
+  /**
+   * Reads the values of a tag.
+   *
+   * @param in the input stream
+   * @param result the validation result where the errors are added
+   * @param tv the tag value
+   * @param offset the offset position of the values
+   * @param parentIFD the parent ifd
+   * @param nifd the ifd number
+   */
+  private void readValues(TiffInputStream in, ValidationResult result, TagValue tv, int offset,
+      IFD parentIFD, int nifd) {
+    int type = tv.getType();
+    int id = tv.getId();
+    int n = tv.getReadlength();
+    int typeSize = TiffTags.getTypeSize(type);
+    boolean ok = true;
+    if (PrimitiveValues.supports(type)) {
+      // Only the values that fit in the file are allocated, the count can be corrupt
+      int fit = (int) Math.max(0, Math.min(n, (in.size() - offset) / typeSize));
+      PrimitiveValues values = new PrimitiveValues(type, fit);
+      int count = 0;
+      try {
+        if (typeSize == 1) {
+          // Bytes are read in bulk
+          count = Math.max(in.readBytesAt(offset, values.getByteArray(), 0, fit), 0);
+        } else {
+          for (; count < fit; count++) {
+            // Get N tag values
+            switch (type) {
+              case 3:
+              case 8:
+                values.setShort(count, in.readShortAt(offset));
+                break;
+              case 4:
+              case 9:
+              case 11:
+                values.setInt(count, in.readIntAt(offset));
+                break;
+              case 5:
+              case 10:
+                values.setRational(count, in.readIntAt(offset), in.readIntAt(offset + 4));
+                break;
+              case 12:
+                values.setLong(count, in.readLongAt(offset));
+                break;
+            }
+            offset += typeSize;
+          }
+        }
+        if (count < n)
+          throw new EOFException();
+      } catch (Exception ex) {
+        result.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
+        values.truncate(count);
+        ok = false;
+      }
+      tv.setPrimitiveValues(values);
+    } else {
       try {
         for (int i = 0; i < n; i++) {
           // Get N tag values
           switch (type) {
-            case 1:
-              tv.add(data.readByte(offset));
-              break;
-            case 2:
-              tv.add(data.readAscii(offset));
-              break;
-            case 6:
-              tv.add(data.readSByte(offset));
-              break;
-            case 7:
-              tv.add(data.readUndefined(offset));
-              break;
-            case 3:
-              tv.add(data.readShort(offset));
-              break;
-            case 8:
-              tv.add(data.readSShort(offset));
-              break;
-            case 4:
-              tv.add(data.readLong(offset));
-              break;
-            case 9:
-              tv.add(data.readSLong(offset));
-              break;
-            case 5:
-              tv.add(data.readRational(offset));
-              break;
-            case 10:
-              tv.add(data.readSRational(offset));
-              break;
-            case 11:
-              tv.add(data.readFloat(offset));
-              break;
-            case 12:
-              tv.add(data.readDouble(offset));
-              break;
             case 13:
-              int ifdOffset = data.readLong(offset).toInt();
+              int ifdOffset = readOffset(in, offset);
               if (ifdOffset % 2 != 0) {
-                validation
+                result
                     .addErrorLoc("Bad word alignment in the offset of the sub IFD", "IFD" + n);
               }
-              IfdReader ifd = readIFD(ifdOffset, true, -nifd);
+              IfdReader ifd = readIFD(in, result, ifdOffset, true, -nifd);
               IFD subIfd = ifd.getIfd();
               subIfd.setParent(parentIFD);
               parentIFD.setsubIFD(subIfd);
@@ -562,7 +1155,7 @@ public class TiffReader {
           offset += typeSize;
         }
       } catch (Exception ex) {
-        validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
+        result.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
         ok = false;
       }
     }
@@ -572,55 +1165,41 @@ public class TiffReader {
 
     if (ok && TiffTags.hasTag(id)) {
       Tag t = TiffTags.getTag(id);
-      if (t.hasTypedef() && !t.getTypedef().equals("SubIFD")) {
-        String tagclass = t.getTypedef();
-
+      if (t.hasTypedef() && !t.getTypedef().equals("SubIFD")
+          && options.isDecoded(t.getTypedef())) {
         try {
-          abstractTiffType instanceOfMyClass =
-              (abstractTiffType) Class.forName("com.easyinnova.tiff.model.types." + tagclass)
-                  .getConstructor().newInstance();
-          if (instanceOfMyClass.isIFD()) {
+          abstractTiffType instanceOfMyClass = TypedefRegistry.create(t.getTypedef());
+          if (instanceOfMyClass == null) {
+            result.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
+          } else if (instanceOfMyClass.isIFD()) {
             long ifdOffset = tv.getFirstNumericValue();
             try {
               if (ifdOffset % 2 != 0) {
-                validation.addErrorLoc("Bad word alignment in the offset of Exif", "IFD" + n);
+                result.addErrorLoc("Bad word alignment in the offset of Exif", "IFD" + n);
               }
-              IfdReader ifd = readIFD((int) ifdOffset, false, -1);
+              IfdReader ifd = readIFD(in, result, (int) ifdOffset, false, -1);
               IFD exifIfd = ifd.getIfd();
               exifIfd.setIsIFD(true);
               tv.clear();
               tv.add(exifIfd);
             } catch (Exception ex) {
-              validation.addErrorLoc("Parse error in Exif", "IFD" + nifd);
+              result.addErrorLoc("Parse error in Exif", "IFD" + nifd);
             }
           } else {
-            if (tv.getId() == 33723)
-              instanceOfMyClass.read(tv, data.getFilePath());
+            if (tv.getId() == 33723 && in.getFilePath() != null)
+              instanceOfMyClass.read(tv, in.getFilePath());
+            else if (tv.getId() == 33723 && instanceOfMyClass instanceof IPTC)
+              ((IPTC) instanceOfMyClass).read(tv, readRawValue(in, tv));
             else
               instanceOfMyClass.read(tv);
           }
-        } catch (ClassNotFoundException e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
-        } catch (NoSuchMethodException e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
-        } catch (SecurityException e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
-        } catch (InstantiationException e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
-        } catch (IllegalAccessException e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
-        } catch (IllegalArgumentException e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
-        } catch (InvocationTargetException e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
         } catch (Exception e) {
-          validation.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
+          result.addErrorLoc("Parse error getting tag " + id + " value", "IFD" + nifd);
         }
       }
     }
 
     if (ok) tv.setReadValue();
-    return tv;
   }
 }
 
@@ -51,6 +51,7 @@ import com.easyinnova.tiff.model.types.XMP;
 import com.easyinnova.tiff.model.types.XmlType;
 import com.easyinnova.tiff.model.types.abstractTiffType;
 
+import java.io.EOFException;
 import java.io.IOException;
 import com.easyinnova.tiff.model.ByteOrder;
 import java.util.ArrayList;
@@ -415,7 +416,7 @@ public class TiffWriter {
       } else {
         switch (tag.getType()) {
           case 3:
-            data.putShort((short) tt.toInt());
+            data.putShort((short) tt.intValue());
             break;
           case 8:
             data.putSShort((SShort) tt);
@@ -468,12 +469,10 @@ public class TiffWriter {
       try {
         int pos = (int) data.position();
         newStripOffsets.add(pos);
-        int start = stripOffsets.getValue().get(i).toInt();
-        int size = stripSizes.getValue().get(i).toInt();
-        this.input.seekOffset(start);
-        for (int off = start; off < start + size; off++) {
-          byte v = this.input.readDirectByte();
-          data.put(v);
+        int start = Math.toIntExact(stripOffsets.getLong(i));
+        int size = Math.toIntExact(stripSizes.getLong(i));
+        if (data.transferFrom(start, size) < size) {
+          throw new EOFException();
         }
         if (data.position() % 2 != 0) {
           // Correct word alignment
@@ -506,10 +505,9 @@ public class TiffWriter {
         pos = (int) data.position();
       }
       newTileOffsets.add(pos);
-      this.input.seekOffset(tileOffsets.getValue().get(i).toInt());
-      for (int j = 0; j < tileSizes.getValue().get(i).toInt(); j++) {
-        byte v = this.input.readDirectByte();
-        data.put(v);
+      int size = Math.toIntExact(tileSizes.getLong(i));
+      if (data.transferFrom(tileOffsets.getLong(i), size) < size) {
+        throw new EOFException();
       }
       if (data.position() % 2 != 0) {
         // Correct word alignment
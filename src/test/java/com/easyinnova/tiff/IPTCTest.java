@@ -13,6 +13,9 @@ import com.easyinnova.tiff.writer.TiffWriter;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import com.easyinnova.tiff.model.ByteOrder;
 import java.text.Format;
 import java.text.SimpleDateFormat;
@@ -49,6 +52,37 @@ public class IPTCTest {
     }
   }
 
+  /**
+   * Read the IPTC of in-memory files.
+   */
+  @Test
+  public void IPTCReadInMemory() {
+    try {
+      byte[] bytes = Files.readAllBytes(Paths.get("src", "test", "resources", "Small", "RGB.tif"));
+      ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+      direct.put(bytes);
+      direct.flip();
+
+      TiffReader tr = new TiffReader();
+      assertEquals(0, tr.read(bytes));
+      assertEquals(true, tr.getBaselineValidation().isCorrect());
+      IPTC iptc = (IPTC)tr.getModel().getFirstIFD().getTag("IPTC").getValue().get(0);
+      assertEquals(6, iptc.createMetadata().keySet().size());
+
+      assertEquals(0, tr.read(direct));
+      iptc = (IPTC)tr.getModel().getFirstIFD().getTag("IPTC").getValue().get(0);
+      assertEquals(6, iptc.createMetadata().keySet().size());
+
+      assertEquals(0, tr.read(Files.newByteChannel(Paths.get("src", "test", "resources", "Small", "RGB.tif"))));
+      assertEquals(true, tr.getBaselineValidation().isCorrect());
+      iptc = (IPTC)tr.getModel().getFirstIFD().getTag("IPTC").getValue().get(0);
+      assertEquals(6, iptc.createMetadata().keySet().size());
+    } catch (Exception e) {
+      e.printStackTrace();
+      assertEquals(0, 1);
+    }
+  }
+
   void delete(String filename) {
     int tries = 10;
     while (new File(filename).exists()) {
@@ -0,0 +1,112 @@
+/**
+ * <h1>ByteBufferReaderTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import com.easyinnova.tiff.model.ByteOrder;
+
+import junit.framework.TestCase;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * JUnit Tests for the class ByteBufferReader.
+ */
+public class ByteBufferReaderTest extends TestCase {
+
+  /**
+   * Test read in both byte orders.
+   *
+   * @throws Exception the exception
+   */
+  public void testRead() throws Exception {
+    byte[] data = {0x7f, (byte) 0xff, (byte) 0x80, 0x00, 0x00, 0x00, (byte) 0xff, (byte) 0xff};
+    ByteBufferReader reader = new ByteBufferReader(ByteBuffer.wrap(data));
+    assertEquals(8, reader.size());
+    assertEquals(255, reader.readUnsignedByte(1));
+    assertEquals(32767, reader.readShort(0));
+    assertEquals(0x7fff8000, reader.readInt(0));
+    assertEquals(0x7fff80000000ffffL, reader.readLong(0));
+    reader.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+    assertEquals((short) 0xff7f, reader.readShort(0));
+    assertEquals(0x0080ff7f, reader.readInt(0));
+    assertEquals(0xffff00000080ff7fL, reader.readLong(0));
+  }
+
+  /**
+   * Test reads across the windows of a segmented mapping.
+   *
+   * @throws Exception the exception
+   */
+  public void testWindows() throws Exception {
+    File file = File.createTempFile("windows", ".bin");
+    file.deleteOnExit();
+    byte[] data = new byte[100];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    FileOutputStream out = new FileOutputStream(file);
+    out.write(data);
+    out.close();
+
+    SegmentedMappedInputStream input = new SegmentedMappedInputStream(file, 4);
+    assertEquals(7, input.getWindows().length);
+    ByteBufferReader reader =
+        new ByteBufferReader(input.getWindows(), input.getWindowShift(), input.size());
+    assertEquals(0x0e0f1011, reader.readInt(14));
+    assertEquals(0x1c1d1e1f20212223L, reader.readLong(28));
+    assertEquals(99, reader.readByte(99));
+
+    input.seek(30);
+    byte[] read = new byte[40];
+    assertEquals(40, input.read(read, 0, read.length));
+    assertEquals(30, read[0]);
+    assertEquals(69, read[39]);
+    assertEquals(70, input.read());
+
+    byte[] page = new byte[50];
+    assertEquals(30, reader.load(70, page, 10, 40));
+    assertEquals(70, page[10]);
+    assertEquals(99, page[39]);
+    assertEquals(-1, reader.load(100, page, 0, 40));
+    input.close();
+  }
+
+  /**
+   * Test reads out of the data.
+   *
+   * @throws Exception the exception
+   */
+  public void testEOF() throws Exception {
+    ByteBufferReader reader = new ByteBufferReader(ByteBuffer.wrap(new byte[6]));
+    try {
+      reader.readInt(4);
+      fail();
+    } catch (EOFException ex) {
+      // expected
+    }
+    try {
+      reader.readByte(-1);
+      fail();
+    } catch (EOFException ex) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,250 @@
+/**
+ * <h1>HttpRangeSourceTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import com.easyinnova.tiff.reader.TiffReader;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import junit.framework.TestCase;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JUnit Tests for the class HttpRangeSource, against a local http server.
+ */
+public class HttpRangeSourceTest extends TestCase {
+
+  /** The served file. */
+  private byte[] file;
+
+  /** The number of requests received by the server. */
+  private AtomicInteger requests;
+
+  /** The server. */
+  private HttpServer server;
+
+  @Override protected void setUp() throws Exception {
+    file = Files.readAllBytes(Paths.get("src", "test", "resources", "Small", "RGB.tif"));
+    requests = new AtomicInteger();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    serve("/RGB.tif", true, 0);
+    serve("/norange.tif", false, 0);
+    serve("/shifted.tif", true, 1);
+    server.createContext("/missing.tif", new HttpHandler() {
+      @Override public void handle(HttpExchange exchange) throws IOException {
+        byte[] page = "Not found".getBytes("UTF-8");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+          exchange.getResponseHeaders().add("Content-Length", "" + page.length);
+          exchange.sendResponseHeaders(404, -1);
+        } else {
+          exchange.sendResponseHeaders(404, page.length);
+          OutputStream out = exchange.getResponseBody();
+          out.write(page);
+          out.close();
+        }
+        exchange.close();
+      }
+    });
+    server.start();
+  }
+
+  /**
+   * Serves the file.
+   *
+   * @param path the path of the file in the server
+   * @param ranges whether the range requests are supported
+   * @param shift the displacement of the returned ranges from the requested ones
+   */
+  private void serve(String path, final boolean ranges, final int shift) {
+    server.createContext(path, new HttpHandler() {
+      @Override public void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = file.length - 1;
+        int status = 200;
+        if (range != null && ranges) {
+          String[] bounds = range.substring("bytes=".length()).split("-");
+          start = Integer.parseInt(bounds[0]) + shift;
+          end = Math.min(Integer.parseInt(bounds[1]) + shift, file.length - 1);
+          status = 206;
+          exchange.getResponseHeaders().add("Content-Range",
+              "bytes " + start + "-" + end + "/" + file.length);
+        }
+        if (exchange.getRequestMethod().equals("HEAD")) {
+          exchange.getResponseHeaders().add("Content-Length", "" + file.length);
+          exchange.sendResponseHeaders(status, -1);
+        } else {
+          exchange.sendResponseHeaders(status, end - start + 1);
+          OutputStream out = exchange.getResponseBody();
+          out.write(file, start, end - start + 1);
+          out.close();
+        }
+        exchange.close();
+      }
+    });
+  }
+
+  @Override protected void tearDown() throws Exception {
+    server.stop(0);
+  }
+
+  private URL url() throws Exception {
+    return url("/RGB.tif");
+  }
+
+  private URL url(String path) throws Exception {
+    return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+  }
+
+  /**
+   * Test reads and coalescing of nearby blocks.
+   *
+   * @throws Exception the exception
+   */
+  public void testLoad() throws Exception {
+    HttpRangeSource source = new HttpRangeSource(url(), 1024, 64, 2);
+    assertEquals(file.length, source.size());
+    assertEquals(1, requests.get());
+
+    byte[] page = new byte[100];
+    assertEquals(100, source.load(1000, page, 0, 100));
+    assertEquals(file[1000], page[0]);
+    assertEquals(file[1099], page[99]);
+    assertEquals(2, requests.get());
+
+    // cached
+    source.load(1050, page, 0, 10);
+    assertEquals(2, requests.get());
+
+    source.load(3 * 1024, page, 0, 1);
+    source.load(6 * 1024, page, 0, 1);
+    assertEquals(4, requests.get());
+
+    // the missing blocks 2, 4, 5 and 7 are fetched in one request
+    byte[] big = new byte[8 * 1024];
+    assertEquals(big.length, source.load(0, ByteBuffer.wrap(big)));
+    assertEquals(5, requests.get());
+    assertEquals(ByteBuffer.wrap(file, 0, big.length), ByteBuffer.wrap(big));
+
+    assertEquals(8, source.load(file.length - 8, page, 0, 100));
+    assertEquals(file[file.length - 1], page[7]);
+    assertEquals(-1, source.load(file.length, page, 0, 100));
+    source.close();
+  }
+
+  /**
+   * Test parsing the metadata of a remote file.
+   *
+   * @throws Exception the exception
+   */
+  public void testRead() throws Exception {
+    TiffReader local = new TiffReader();
+    local.read(file);
+
+    HttpRangeSource source = new HttpRangeSource(url(), 4096, 64, 2);
+    TiffReader remote = new TiffReader();
+    remote.setPageCache(4096, 16);
+    assertEquals(0, remote.read(source));
+    assertEquals(local.getBaselineValidation().isCorrect(),
+        remote.getBaselineValidation().isCorrect());
+    assertEquals(local.getModel().getImageIfds().size(), remote.getModel().getImageIfds().size());
+    assertEquals(local.getModel().getMetadata().keySet().size(),
+        remote.getModel().getMetadata().keySet().size());
+    assertTrue(source.getBytesFetched() < file.length / 4);
+    assertEquals(requests.get(), source.getRequests());
+  }
+
+  /**
+   * Test that the http errors are reported instead of being read as data.
+   *
+   * @throws Exception the exception
+   */
+  public void testErrors() throws Exception {
+    try {
+      new HttpRangeSource(url("/missing.tif"), 1024, 64, 2);
+      fail("The size of the error page was taken as the file size");
+    } catch (IOException ex) {
+      assertTrue(ex.getMessage().contains("404"));
+    }
+
+    HttpRangeSource source = new HttpRangeSource(url(), 1024, 64, 2);
+    PagedInputBuffer buffer = new PagedInputBuffer(new TiffInputStream(source), 1024, 2);
+    assertEquals(file[0] & 0xFF, buffer.read(0));
+    server.stop(0);
+    try {
+      buffer.read(4096);
+      fail("The failed load was not reported");
+    } catch (EOFException ex) {
+      fail("The failed load was reported as the end of the file");
+    } catch (IOException ex) {
+      // expected
+    }
+  }
+
+  /**
+   * Test that a partial response with a different range than the requested one is rejected.
+   *
+   * @throws Exception the exception
+   */
+  public void testUnexpectedRange() throws Exception {
+    HttpRangeSource source = new HttpRangeSource(url("/shifted.tif"), 1024, 64, 2);
+    byte[] page = new byte[100];
+    try {
+      source.load(1000, page, 0, 100);
+      fail("The bytes of a different range were cached");
+    } catch (IOException ex) {
+      assertTrue(ex.getMessage().contains("Content-Range"));
+    }
+  }
+
+  /**
+   * Test that the file is downloaded once if the server does not support range requests.
+   *
+   * @throws Exception the exception
+   */
+  public void testNoRangeSupport() throws Exception {
+    HttpRangeSource source = new HttpRangeSource(url("/norange.tif"), 1024, 4, 0);
+    byte[] page = new byte[100];
+    assertEquals(100, source.load(1000, page, 0, 100));
+    assertEquals(ByteBuffer.wrap(file, 1000, 100), ByteBuffer.wrap(page));
+    assertEquals(100, source.load(20 * 1024, page, 0, 100));
+    assertEquals(ByteBuffer.wrap(file, 20 * 1024, 100), ByteBuffer.wrap(page));
+    assertEquals(8, source.load(file.length - 8, page, 0, 100));
+    assertEquals(file[file.length - 1], page[7]);
+    assertEquals(2, requests.get());
+    assertEquals(file.length, source.getBytesFetched());
+
+    TiffReader local = new TiffReader();
+    local.read(file);
+    TiffReader remote = new TiffReader();
+    assertEquals(0, remote.read(new HttpRangeSource(url("/norange.tif"))));
+    assertEquals(local.getModel().getImageIfds().size(), remote.getModel().getImageIfds().size());
+  }
+}
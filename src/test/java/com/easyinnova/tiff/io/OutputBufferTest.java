@@ -0,0 +1,143 @@
+/**
+ * <h1>OutputBufferTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import com.easyinnova.tiff.model.ByteOrder;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * JUnit Tests for the class OutputBuffer.
+ */
+public class OutputBufferTest extends TestCase {
+
+  /**
+   * Test primitive writes, seek-back patching and flushes.
+   *
+   * @throws Exception the exception
+   */
+  public void testWrite() throws Exception {
+    File file = File.createTempFile("output", ".bin");
+    file.deleteOnExit();
+    OutputBuffer output = new OutputBuffer(ByteOrder.BIG_ENDIAN, 16);
+    output.Create(file.getPath());
+    output.putShort((short) 0x0102);
+    output.putInt(0x03040506);
+    output.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+    output.putLong(0x0f0e0d0c0b0a0908L);
+    assertEquals(14, output.position());
+
+    // crosses the end of the buffer
+    output.putInt(0x13121110);
+    byte[] big = new byte[40];
+    for (int i = 0; i < big.length; i++) {
+      big[i] = (byte) (0x14 + i);
+    }
+    output.put(big, 0, big.length);
+    assertEquals(58, output.position());
+
+    // patch data already flushed and leave a gap
+    output.seek(2);
+    output.putInt(0x7f7f7f7f);
+    output.seek(60);
+    output.writeByteCurrentPosition((byte) 1);
+    output.close();
+
+    byte[] data = Files.readAllBytes(file.toPath());
+    assertEquals(61, data.length);
+    ByteBuffer bb = ByteBuffer.wrap(data);
+    assertEquals(0x0102, bb.getShort(0));
+    assertEquals(0x7f7f7f7f, bb.getInt(2));
+    bb.order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    assertEquals(0x0f0e0d0c0b0a0908L, bb.getLong(6));
+    assertEquals(0x13121110, bb.getInt(14));
+    for (int i = 0; i < big.length; i++) {
+      assertEquals(big[i], data[18 + i]);
+    }
+    assertEquals(0, data[58]);
+    assertEquals(0, data[59]);
+    assertEquals(1, data[60]);
+  }
+
+  /**
+   * Test that patching data already flushed and seeking forward again does not overwrite the data
+   * between the patch and the new position.
+   *
+   * @throws Exception the exception
+   */
+  public void testPatchFlushedData() throws Exception {
+    File file = File.createTempFile("patch", ".bin");
+    file.deleteOnExit();
+    OutputBuffer output = new OutputBuffer(ByteOrder.LITTLE_ENDIAN, 1000);
+    output.Create(file.getPath());
+    for (int i = 0; i < 1500; i++) {
+      output.writeByteCurrentPosition((byte) (i % 100 + 1));
+    }
+    output.seek(900);
+    output.putInt(0x7f7f7f7f);
+    output.seek(1500);
+    output.writeByteCurrentPosition((byte) -1);
+    output.close();
+
+    byte[] data = Files.readAllBytes(file.toPath());
+    assertEquals(1501, data.length);
+    for (int i = 0; i < 1500; i++) {
+      if (i >= 900 && i < 904)
+        assertEquals(0x7f, data[i]);
+      else
+        assertEquals(i % 100 + 1, data[i]);
+    }
+    assertEquals(-1, data[1500]);
+  }
+
+  /**
+   * Test copies of ranges of an input file.
+   *
+   * @throws Exception the exception
+   */
+  public void testTransfer() throws Exception {
+    File in = new File("src" + File.separator + "test" + File.separator + "resources" + File.separator + "io" + File.separator + "io.tif");
+    byte[] original = Files.readAllBytes(in.toPath());
+    TiffInputStream input = new TiffInputStream(in);
+    File file = File.createTempFile("transfer", ".bin");
+    file.deleteOnExit();
+    OutputBuffer output = new OutputBuffer(ByteOrder.BIG_ENDIAN, 64);
+    output.Create(file.getPath());
+
+    output.writeByteCurrentPosition((byte) 1);
+    assertEquals(10, output.transferFrom(input, 100, 10));
+    assertEquals(5000, output.transferFrom(input, 200, 5000));
+    assertEquals(20, output.transferFrom(input, original.length - 20, 100));
+    assertEquals(0, output.transferFrom(input, 100, 0));
+    assertEquals(0, output.transferFrom(input, 100, -1));
+    assertEquals(5031, output.position());
+    output.close();
+    input.close();
+
+    byte[] data = Files.readAllBytes(file.toPath());
+    assertEquals(5031, data.length);
+    assertEquals(1, data[0]);
+    assertEquals(ByteBuffer.wrap(original, 100, 10), ByteBuffer.wrap(data, 1, 10));
+    assertEquals(ByteBuffer.wrap(original, 200, 5000), ByteBuffer.wrap(data, 11, 5000));
+    assertEquals(ByteBuffer.wrap(original, original.length - 20, 20), ByteBuffer.wrap(data, 5011, 20));
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * <h1>PagePoolTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.io;
+
+import static java.io.File.separator;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * JUnit Tests for the class PagePool.
+ */
+public class PagePoolTest extends TestCase {
+
+  /**
+   * Test the byte budget.
+   *
+   * @throws Exception the exception
+   */
+  public void testBudget() throws Exception {
+    PagePool pool = new PagePool(3000);
+    ByteBuffer a = pool.acquire(1000);
+    ByteBuffer b = pool.acquire(1000);
+    assertTrue(a.isDirect());
+    assertEquals(2000, pool.getInUse());
+    assertNull(pool.acquire(1500));
+
+    pool.release(a);
+    assertEquals(1000, pool.getInUse());
+    assertEquals(2000, pool.getAllocated());
+    assertSame(a, pool.acquire(1000));
+
+    // the free page of 1000 bytes is dropped to make room
+    pool.release(b);
+    assertNotNull(pool.acquire(2000));
+    assertEquals(3000, pool.getAllocated());
+  }
+
+  /**
+   * Test the pages of a paged buffer are returned on close.
+   *
+   * @throws Exception the exception
+   */
+  public void testPagedInputBuffer() throws Exception {
+    TiffInputStream io = new TiffInputStream(new File("src" + separator + "test" + separator + "resources" + separator + "io" + separator + "io.tif"));
+    PagePool pool = new PagePool(2048);
+    PagedInputBuffer input = new PagedInputBuffer(io, 1024, 4, pool);
+    int first = input.read(0);
+    input.read(1024);
+    assertEquals(2048, pool.getInUse());
+
+    // the budget is exhausted, so the buffer recycles its own pages
+    input.read(4096);
+    assertEquals(1, input.getEvictions());
+    assertEquals(first, input.read(0));
+
+    input.close();
+    assertEquals(0, pool.getInUse());
+    assertEquals(first, input.read(0));
+    input.close();
+    io.close();
+  }
+}
@@ -22,6 +22,7 @@ import static java.io.File.separator;
 
 import junit.framework.TestCase;
 
+import java.io.EOFException;
 import java.io.File;
 
 /**
@@ -39,4 +40,44 @@ public class PagedInputBufferTest extends TestCase {
     PagedInputBuffer input = new PagedInputBuffer(ascii);
     assertEquals(99, input.read(2));
   }
+
+  /**
+   * Test the page cache.
+   *
+   * @throws Exception the exception
+   */
+  public void testPages() throws Exception {
+    TiffInputStream io = new TiffInputStream(new File("src" + separator + "test" + separator + "resources" + separator + "io" + separator + "io.tif"));
+    PagedInputBuffer input = new PagedInputBuffer(io, 1024, 2);
+    assertEquals(1024, input.getPageSize());
+    assertEquals(2, input.getMaxPages());
+
+    int first = input.read(10);
+    input.read(1023);
+    input.read(1024);
+    input.read(20);
+    assertEquals(2, input.getMisses());
+    assertEquals(2, input.getHits());
+    assertEquals(0, input.getEvictions());
+
+    // page 2 evicts page 1, the least recently used
+    input.read(2048);
+    input.read(1500);
+    assertEquals(4, input.getMisses());
+    assertEquals(2, input.getEvictions());
+    assertEquals(first, input.read(10));
+
+    try {
+      input.read(io.size());
+      fail();
+    } catch (EOFException ex) {
+      // expected
+    }
+    RandomAccessFileInputStream raf = new RandomAccessFileInputStream(new File("src" + separator + "test" + separator + "resources" + separator + "io" + separator + "io.tif"));
+    raf.seek(io.size() - 1);
+    assertEquals(raf.read(), input.read(io.size() - 1));
+    raf.close();
+    input.close();
+    io.close();
+  }
 }
@@ -76,4 +76,20 @@ public class RandomAccessFileInputStreamTest extends TestCase {
     assertEquals(ascii.size(), ascii.available());
     ascii.close();
   }
+
+  /**
+   * Test load.
+   *
+   * @throws Exception the exception
+   */
+  public void testLoad() throws Exception {
+    RandomAccessFileInputStream ascii = new RandomAccessFileInputStream(new File("src" + separator + "test" + separator + "resources" + separator + "io" + separator + "asciiTest.hex"));
+    byte[] page = new byte[100];
+    assertEquals(13, ascii.load(2, page, 0, page.length));
+    assertEquals(99, page[0]);
+    assertEquals(0, page[12]);
+    assertEquals(-1, ascii.load(15, page, 0, page.length));
+    assertEquals(65, ascii.read());
+    ascii.close();
+  }
 }
@@ -29,6 +29,9 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
 import com.easyinnova.tiff.model.ByteOrder;
 
 /**
@@ -340,4 +343,70 @@ public class TiffFileInputStreamTest {
     assertEquals("-1/-1", stream.readSRational().toString());
     stream.close();
   }
+
+  /**
+   * Positional reads from several threads sharing the same stream.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void readAtConcurrently() throws Exception {
+    TiffInputStream stream = new TiffInputStream(new File("src" + separator + "test" + separator + "resources" + separator + "io" + separator + "io.tif"));
+    checkConcurrentReads(stream);
+  }
+
+  /**
+   * Positional reads from several threads sharing a stream read through the buffer pages, with
+   * few small pages so that they are evicted while the threads read.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void readAtConcurrentlyPaged() throws Exception {
+    FileChannel channel = FileChannel.open(Paths.get("src", "test", "resources", "io", "io.tif"));
+    TiffInputStream stream = new TiffInputStream(new ChannelSource(channel), 64, 2);
+    checkConcurrentReads(stream);
+  }
+
+  /**
+   * Reads every position of a stream from several threads, comparing the values with the ones
+   * read from a copy of the data.
+   *
+   * @param stream the stream (it is closed)
+   * @throws Exception the exception
+   */
+  private void checkConcurrentReads(final TiffInputStream stream) throws Exception {
+    stream.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+    final byte[] data = new byte[(int) stream.size()];
+    assertEquals(data.length, stream.readBytesAt(0, data, 0, data.length));
+    final java.nio.ByteBuffer expected = java.nio.ByteBuffer.wrap(data).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+
+    final AtomicInteger errors = new AtomicInteger();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final int first = t;
+      threads[t] = new Thread() {
+        @Override public void run() {
+          try {
+            for (int pos = first; pos + 8 <= data.length; pos += threads.length) {
+              if (stream.readByteAt(pos) != expected.get(pos)
+                  || stream.readShortAt(pos) != expected.getShort(pos)
+                  || stream.readIntAt(pos) != expected.getInt(pos)
+                  || stream.readLongAt(pos) != expected.getLong(pos)) {
+                errors.incrementAndGet();
+              }
+            }
+          } catch (IOException ex) {
+            errors.incrementAndGet();
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(0, errors.get());
+    stream.close();
+  }
 }
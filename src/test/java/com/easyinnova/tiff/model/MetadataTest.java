@@ -0,0 +1,74 @@
+/**
+ * <h1>MetadataTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import com.easyinnova.tiff.model.types.Text;
+
+import junit.framework.TestCase;
+
+/**
+ * JUnit Tests for the class Metadata.
+ */
+public class MetadataTest extends TestCase {
+
+  /**
+   * Test the lookups by similar and equivalent names, and the priority of the containers.
+   */
+  public void testGet() {
+    Metadata meta = new Metadata();
+    Text tag = new Text("tag");
+    Text iptc = new Text("iptc");
+    iptc.setContainer("IPTC");
+    Text xmp = new Text("xmp");
+    xmp.setContainer("XMP");
+    meta.add("Artist", tag);
+    meta.add("Creator", iptc);
+    meta.add("CreatorTool", xmp);
+
+    assertSame(xmp, meta.get("creator"));
+    assertSame(iptc, meta.get("Creator"));
+    assertSame(tag, meta.get("ARTIST"));
+    assertNull(meta.get("Date"));
+
+    Text exif = new Text("exif");
+    exif.setContainer("EXIF");
+    meta.add("artist", exif);
+    assertSame(exif, meta.get("creator"));
+    assertSame(exif, meta.get("ARTIST"));
+    assertSame(tag, meta.get("Artist"));
+  }
+
+  /**
+   * Test the configuration of the equivalent names.
+   */
+  public void testAliases() {
+    Metadata meta = new Metadata();
+    Text title = new Text("title");
+    meta.add("DocumentName", title);
+    assertNull(meta.get("Title"));
+    Metadata.addAlias("Title", "DocumentName");
+    try {
+      assertTrue(Metadata.getAliases("title").contains("documentname"));
+      assertSame(title, meta.get("Title"));
+    } finally {
+      Metadata.removeAliases("Title");
+    }
+    assertNull(meta.get("Title"));
+    assertTrue(Metadata.getAliases("creator").contains("artist"));
+  }
+}
@@ -0,0 +1,197 @@
+/**
+ * <h1>TagValueTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import static java.io.File.separator;
+
+import com.easyinnova.tiff.model.types.Byte;
+import com.easyinnova.tiff.model.types.Long;
+import com.easyinnova.tiff.model.types.Rational;
+import com.easyinnova.tiff.model.types.SRational;
+import com.easyinnova.tiff.model.types.SShort;
+import com.easyinnova.tiff.model.types.Short;
+import com.easyinnova.tiff.model.types.Text;
+import com.easyinnova.tiff.model.types.abstractTiffType;
+import com.easyinnova.tiff.reader.TiffReader;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * JUnit Tests for the values of the class TagValue.
+ */
+public class TagValueTest extends TestCase {
+
+  /**
+   * Test the typed accessors over primitive values.
+   */
+  public void testPrimitiveValues() {
+    PrimitiveValues values = new PrimitiveValues(3, 3);
+    values.setShort(0, (short) 1);
+    values.setShort(1, (short) 0xffff);
+    values.setShort(2, (short) 8);
+    TagValue tv = new TagValue(258, 3);
+    tv.setPrimitiveValues(values);
+    assertEquals(3, tv.getCardinality());
+    assertEquals(65535, tv.getInt(1));
+    assertEquals(8L, tv.getLongArray()[2]);
+    assertEquals("[1,65535,8]", tv.toString());
+    assertEquals(1, tv.getFirstNumericValue());
+
+    List<abstractTiffType> list = tv.getValue();
+    assertEquals(3, list.size());
+    assertTrue(list.get(1) instanceof Short);
+    assertEquals("65535", list.get(1).toString());
+    assertSame(list, tv.getValue());
+    assertEquals(65535, tv.getInt(1));
+
+    values = new PrimitiveValues(5, 1);
+    values.setRational(0, 3, 2);
+    tv = new TagValue(282, 5);
+    tv.setPrimitiveValues(values);
+    assertEquals(1.5, tv.getDouble(0));
+    assertEquals(1, tv.getInt(0));
+    Rational r = tv.getRational(0);
+    assertEquals(3, r.getNumerator());
+    assertEquals(2, r.getDenominator());
+    assertEquals("3/2", tv.getValue().get(0).toString());
+  }
+
+  /**
+   * Test the numeric values of the tiff types.
+   */
+  public void testNumericValues() {
+    assertEquals(200, new Byte(200).toInt());
+    assertEquals(200L, new Byte(200).longValue());
+    assertEquals(65535, new Short(0xffff).intValue());
+    assertEquals(-1, new SShort((short) -1).toInt());
+    assertEquals(4294967295L, new Long(-1).longValue());
+    assertEquals(-1, new Long(-1).intValue());
+    try {
+      new Long(-1).toInt();
+      fail();
+    } catch (NumberFormatException ex) {
+      // expected
+    }
+    assertEquals(1.5, new Rational(3, 2).doubleValue());
+    assertEquals(-1L, new SRational(-3, 2).longValue());
+    assertEquals(0.0, new Rational(3, 0).doubleValue());
+    assertTrue(new Short(1).isInteger());
+    assertFalse(new Rational(1, 1).isInteger());
+
+    TagValue tv = new TagValue(256, 3);
+    tv.add(new Short(0xffff));
+    assertEquals(65535, tv.getFirstNumericValue());
+    tv = new TagValue(305, 2);
+    tv.add(new Text("12"));
+    assertEquals(12, tv.getFirstNumericValue());
+  }
+
+  /**
+   * Test that the parsed values match their objects.
+   *
+   * @throws Exception the exception
+   */
+  public void testParsedValues() throws Exception {
+    TiffReader tr = new TiffReader();
+    tr.readFile("src" + separator + "test" + separator + "resources" + separator + "Small"
+        + separator + "RGB_stripped.tif");
+    TagValue offsets = tr.getModel().getFirstIFD().getTag("StripOffsets");
+    long[] array = offsets.getLongArray();
+    assertTrue(array.length > 0);
+    List<abstractTiffType> list = offsets.getValue();
+    assertEquals(array.length, list.size());
+    for (int i = 0; i < array.length; i++) {
+      assertEquals("" + array[i], list.get(i).toString());
+    }
+  }
+
+  /**
+   * Test that the values read on demand match the values read when parsing.
+   *
+   * @throws Exception the exception
+   */
+  public void testLazyValues() throws Exception {
+    String filename = "src" + separator + "test" + separator + "resources" + separator + "Small"
+        + separator + "RGB_stripped.tif";
+    TiffReader eager = new TiffReader();
+    eager.readFile(filename, false);
+    TiffReader lazy = new TiffReader();
+    lazy.setLazyValues(true);
+    lazy.readFile(filename, false);
+
+    List<TagValue> expected = eager.getModel().getFirstIFD().getMetadata().getTags();
+    List<TagValue> tags = lazy.getModel().getFirstIFD().getMetadata().getTags();
+    assertEquals(expected.size(), tags.size());
+    int pending = 0;
+    for (TagValue tv : tags) {
+      if (!tv.isLoaded())
+        pending++;
+    }
+    assertTrue(pending > 0);
+    for (int i = 0; i < tags.size(); i++) {
+      assertEquals(expected.get(i).toString(), tags.get(i).toString());
+      assertTrue(tags.get(i).isLoaded());
+    }
+
+    TagValue bps = lazy.getModel().getFirstIFD().getTag("BitsPerSample");
+    assertTrue(bps.unload());
+    assertFalse(bps.isLoaded());
+    assertEquals(3, bps.getCardinality());
+    lazy.getModel().close();
+
+    // The values cannot be read after closing the document
+    assertTrue(bps.unload());
+    try {
+      bps.getCardinality();
+      fail();
+    } catch (IllegalStateException ex) {
+      assertEquals("document closed", ex.getMessage());
+    }
+    assertFalse(bps.isLoaded());
+  }
+
+  /**
+   * Test that a tag is not marked as loaded when its loader fails.
+   *
+   * @throws Exception the exception
+   */
+  public void testFailedLoad() throws Exception {
+    TagValue tv = new TagValue(TiffTagIds.IMAGE_WIDTH, 3);
+    final int[] calls = {0};
+    tv.setLoader(t -> {
+      if (calls[0]++ == 0) {
+        throw new IllegalStateException("failed");
+      }
+      PrimitiveValues values = new PrimitiveValues(3, 1);
+      values.setShort(0, (short) 7);
+      t.setPrimitiveValues(values);
+    });
+    try {
+      tv.getCardinality();
+      fail();
+    } catch (IllegalStateException ex) {
+      // expected
+    }
+    assertFalse(tv.isLoaded());
+    assertEquals(7, tv.getFirstNumericValue());
+    assertTrue(tv.isLoaded());
+    assertEquals(2, calls[0]);
+  }
+}
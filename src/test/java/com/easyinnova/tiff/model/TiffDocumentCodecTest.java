@@ -0,0 +1,102 @@
+/**
+ * <h1>TiffDocumentCodecTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import static java.io.File.separator;
+
+import com.easyinnova.tiff.model.types.IFD;
+import com.easyinnova.tiff.model.types.IPTC;
+import com.easyinnova.tiff.model.types.XMP;
+import com.easyinnova.tiff.reader.TiffReader;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * JUnit Tests for the class TiffDocumentCodec.
+ */
+public class TiffDocumentCodecTest extends TestCase {
+
+  /**
+   * Test that a decoded document matches the parsed one.
+   *
+   * @throws Exception the exception
+   */
+  public void testRoundTrip() throws Exception {
+    TiffReader tr = new TiffReader();
+    tr.readFile("src" + separator + "test" + separator + "resources" + separator + "Small"
+        + separator + "RGB.tif", false);
+    TiffDocument td = tr.getModel();
+    TiffDocument decoded = TiffDocumentCodec.decode(TiffDocumentCodec.encode(td));
+
+    assertEquals(td.getMagicNumber(), decoded.getMagicNumber());
+    assertEquals(td.getEndianess(), decoded.getEndianess());
+    assertEquals(td.getSize(), decoded.getSize());
+    assertEquals(td.getIfdCount(), decoded.getIfdCount());
+    IFD ifd = td.getFirstIFD();
+    IFD other = decoded.getFirstIFD();
+    while (ifd != null) {
+      List<TagValue> tags = ifd.getMetadata().getTags();
+      List<TagValue> decodedTags = other.getMetadata().getTags();
+      assertEquals(tags.size(), decodedTags.size());
+      for (int i = 0; i < tags.size(); i++) {
+        assertEquals(tags.get(i).getId(), decodedTags.get(i).getId());
+        assertEquals(tags.get(i).toString(), decodedTags.get(i).toString());
+        assertEquals(tags.get(i).getReadOffset(), decodedTags.get(i).getReadOffset());
+      }
+      assertEquals(ifd.getImageStrips().getStrips().size(),
+          other.getImageStrips().getStrips().size());
+      ifd = ifd.getNextIFD();
+      other = other.getNextIFD();
+    }
+    assertNull(other);
+
+    IPTC iptc = (IPTC) decoded.getFirstIFD().getTag("IPTC").getValue().get(0);
+    assertEquals(((IPTC) td.getFirstIFD().getTag("IPTC").getValue().get(0)).getCopyright(),
+        iptc.getCopyright());
+    XMP xmp = (XMP) decoded.getFirstIFD().getTag("XMP").getValue().get(0);
+    assertEquals(((XMP) td.getFirstIFD().getTag("XMP").getValue().get(0)).getCreator(),
+        xmp.getCreator());
+    for (String name : td.getMetadata().keySet()) {
+      assertEquals(td.getMetadataSingleString(name), decoded.getMetadataSingleString(name));
+    }
+
+    // The edited values are kept
+    xmp.editCreator("Creator");
+    iptc.editCopyright("Copyright");
+    decoded = TiffDocumentCodec.decode(TiffDocumentCodec.encode(decoded));
+    assertEquals("Creator",
+        ((XMP) decoded.getFirstIFD().getTag("XMP").getValue().get(0)).getCreator());
+    assertEquals("Copyright",
+        ((IPTC) decoded.getFirstIFD().getTag("IPTC").getValue().get(0)).getCopyright());
+  }
+
+  /**
+   * Test that invalid data is rejected.
+   */
+  public void testInvalid() {
+    try {
+      TiffDocumentCodec.decode(new byte[] {1, 2, 3, 4, 5});
+      fail();
+    } catch (IOException ex) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * <h1>TiffDocumentTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import static java.io.File.separator;
+
+import com.easyinnova.tiff.reader.TiffReader;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * JUnit Tests for the class TiffDocument.
+ */
+public class TiffDocumentTest extends TestCase {
+
+  /**
+   * Test that the metadata dictionary updated on each edit matches the dictionary created from
+   * scratch.
+   *
+   * @throws Exception the exception
+   */
+  public void testIncrementalMetadata() throws Exception {
+    TiffReader tr = new TiffReader();
+    tr.readFile("src" + separator + "test" + separator + "resources" + separator + "Small"
+        + separator + "RGB.tif", false);
+    TiffDocument td = tr.getModel();
+    Metadata meta = td.getMetadata();
+    assertSame(meta, td.getMetadata());
+    int ifds = td.getIfdCount();
+
+    td.addTag("ImageDescription", "desc");
+    assertSame(meta, td.getMetadata());
+    assertEquals("desc", td.getMetadataSingleString("ImageDescription"));
+    String incremental = dump(td.getMetadata());
+    td.createMetadataDictionary();
+    assertEquals(dump(td.getMetadata()), incremental);
+
+    td.addTag("ImageDescription", "other");
+    td.removeTag("Software");
+    assertFalse(td.getMetadata().contains("Software"));
+    assertEquals("other", td.getMetadataSingleString("ImageDescription"));
+    assertEquals(1, td.getMetadataList("ImageDescription").size());
+    incremental = dump(td.getMetadata());
+    td.createMetadataDictionary();
+    assertEquals(dump(td.getMetadata()), incremental);
+    assertEquals(ifds, td.getIfdCount());
+  }
+
+  /**
+   * Test that a deserialized document with a metadata dictionary can be edited.
+   *
+   * @throws Exception the exception
+   */
+  public void testSerializedMetadata() throws Exception {
+    TiffReader tr = new TiffReader();
+    tr.readFile("src" + separator + "test" + separator + "resources" + separator + "Small"
+        + separator + "RGB.tif", false);
+    TiffDocument td = tr.getModel();
+    td.getMetadata();
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(td);
+    out.close();
+    ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    TiffDocument copy = (TiffDocument) in.readObject();
+    in.close();
+
+    copy.addTag("ImageDescription", "desc");
+    assertEquals("desc", copy.getMetadataSingleString("ImageDescription"));
+    String incremental = dump(copy.getMetadata());
+    copy.createMetadataDictionary();
+    assertEquals(dump(copy.getMetadata()), incremental);
+  }
+
+  /**
+   * Dumps the names and values of a dictionary.
+   *
+   * @param meta the dictionary
+   * @return the dump
+   */
+  private static String dump(Metadata meta) {
+    StringBuilder sb = new StringBuilder();
+    for (String name : meta.keySet()) {
+      sb.append(name).append('=');
+      for (TiffObject to : meta.getList(name)) {
+        sb.append(to.toString()).append(';');
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+}
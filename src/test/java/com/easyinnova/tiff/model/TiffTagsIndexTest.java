@@ -0,0 +1,97 @@
+/**
+ * <h1>TiffTagsIndexTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * JUnit Tests for the class TiffTagsIndex.
+ */
+public class TiffTagsIndexTest extends TestCase {
+
+  /**
+   * Test that the precompiled index and constants match the JSON definitions.
+   *
+   * @throws Exception the exception
+   */
+  public void testIndexUpToDate() throws Exception {
+    List<Tag> parsed = TiffTagsIndex.parse(new File("src/main/resources/tifftags"));
+    List<Tag> indexed =
+        TiffTagsIndex.read(TiffTagsIndex.class.getResourceAsStream(TiffTagsIndex.RESOURCE));
+    assertEquals(parsed.size(), indexed.size());
+    for (int i = 0; i < parsed.size(); i++) {
+      Tag expected = parsed.get(i);
+      Tag tag = indexed.get(i);
+      assertEquals(expected.getId(), tag.getId());
+      assertEquals(expected.getName(), tag.getName());
+      assertEquals(expected.getType(), tag.getType());
+      assertEquals(expected.getCardinality(), tag.getCardinality());
+      assertEquals(expected.getDefaultValue(), tag.getDefaultValue());
+      assertEquals(expected.getTypedef(), tag.getTypedef());
+      assertEquals(expected.getForceDescription(), tag.getForceDescription());
+      assertEquals(expected.getDescription(), tag.getDescription());
+      assertEquals(expected.getValues(), tag.getValues());
+    }
+
+    StringWriter constants = new StringWriter();
+    TiffTagsIndex.writeConstants(parsed, new PrintWriter(constants));
+    String source = new String(
+        Files.readAllBytes(Paths.get("src/main/java/com/easyinnova/tiff/model/TiffTagIds.java")),
+        "UTF-8");
+    assertEquals(source.replace("\r\n", "\n"), constants.toString().replace("\r\n", "\n"));
+  }
+
+  /**
+   * Test the constant names and the registry loaded from the index.
+   */
+  public void testConstants() {
+    assertEquals("IMAGE_WIDTH", TiffTagsIndex.constantName("ImageWidth"));
+    assertEquals("GPS_IFD", TiffTagsIndex.constantName("GPS IFD"));
+    assertEquals("Y_CB_CR_COEFFICIENTS", TiffTagsIndex.constantName("YCbCrCoefficients"));
+    assertEquals(TiffTagIds.IMAGE_WIDTH, TiffTags.getTagId("ImageWidth"));
+    assertEquals("StripOffsets", TiffTags.getTag(TiffTagIds.STRIP_OFFSETS).getName());
+    assertEquals("LZW", TiffTags.getTag(TiffTagIds.COMPRESSION).getTextDescription("5"));
+  }
+
+  /**
+   * Test the lookups of the immutable registry.
+   */
+  @SuppressWarnings("deprecation")
+  public void testRegistry() {
+    assertNull(TiffTags.getTag(-1));
+    assertNull(TiffTags.getTag(100000));
+    assertFalse(TiffTags.hasTag(1000));
+    assertEquals(-1, TiffTags.getTagId("Unexisting"));
+    assertEquals("SHORT", TiffTags.getTagTypeName(3));
+    assertNull(TiffTags.getTagTypeName(14));
+    assertSame(TiffTags.getTag(256), TiffTags.tagMap.get(256));
+    try {
+      TiffTags.tagMap.put(1000, TiffTags.getTag(256));
+      fail();
+    } catch (UnsupportedOperationException ex) {
+      // expected
+    }
+  }
+}
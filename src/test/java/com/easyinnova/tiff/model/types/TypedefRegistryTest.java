@@ -0,0 +1,49 @@
+/**
+ * <h1>TypedefRegistryTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.model.types;
+
+import junit.framework.TestCase;
+
+/**
+ * JUnit Tests for the class TypedefRegistry.
+ */
+public class TypedefRegistryTest extends TestCase {
+
+  /**
+   * Test the default and registered factories.
+   */
+  public void testFactories() {
+    assertTrue(TypedefRegistry.create("XMP") instanceof XMP);
+    assertTrue(TypedefRegistry.create("IccProfile") instanceof IccProfile);
+    assertNotSame(TypedefRegistry.create("IPTC"), TypedefRegistry.create("IPTC"));
+    assertTrue(TypedefRegistry.isIFD("ExifIFD"));
+    assertTrue(TypedefRegistry.isIFD("SubIFD"));
+    assertFalse(TypedefRegistry.isIFD("XMP"));
+
+    assertFalse(TypedefRegistry.isRegistered("Custom"));
+    assertNull(TypedefRegistry.create("Custom"));
+    TypedefRegistry.register("Custom", () -> new Text("custom"));
+    try {
+      assertEquals("custom", TypedefRegistry.create("Custom").toString());
+      assertFalse(TypedefRegistry.isIFD("Custom"));
+    } finally {
+      TypedefRegistry.unregister("Custom");
+    }
+    assertFalse(TypedefRegistry.isRegistered("Custom"));
+  }
+}
@@ -0,0 +1,177 @@
+/**
+ * <h1>TiffBatchProcessorTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import junit.framework.TestCase;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JUnit Tests for the class TiffBatchProcessor.
+ */
+public class TiffBatchProcessorTest extends TestCase {
+
+  /** The directory of the test files. */
+  private static final Path DIR = Paths.get("src", "test", "resources", "Small");
+
+  /**
+   * Test that the batch gives the same results as reading the files serially.
+   *
+   * @throws Exception the exception
+   */
+  public void testProcess() throws Exception {
+    List<Path> files;
+    try (Stream<Path> paths = TiffBatchProcessor.listFiles(DIR, false)) {
+      files = paths.filter(p -> p.toString().endsWith(".tif")).collect(Collectors.toList());
+    }
+    assertFalse(files.isEmpty());
+    Map<Path, String> expected = new HashMap<Path, String>();
+    for (Path file : files) {
+      TiffReader tr = new TiffReader();
+      tr.readFile(file.toString());
+      expected.put(file, tr.getBaselineValidation().getErrors().toString());
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Path> batch = new ArrayList<Path>();
+      for (int i = 0; i < 5; i++) {
+        batch.addAll(files);
+      }
+      batch.add(DIR.resolve("missing.tif"));
+
+      TiffBatchProcessor processor = new TiffBatchProcessor(executor, 3);
+      processor.setKeepModels(false);
+      List<TiffBatchProcessor.Result> results =
+          Collections.synchronizedList(new ArrayList<TiffBatchProcessor.Result>());
+      TiffBatchProcessor.Statistics stats = processor.process(batch.stream(), results::add);
+
+      assertEquals(batch.size(), results.size());
+      assertEquals(batch.size(), stats.getFiles());
+      assertEquals(1, stats.getFailed());
+      assertEquals(batch.size() - 1, stats.getCorrect() + stats.getInvalid());
+      assertTrue(stats.getBytes() > 0);
+      assertTrue(stats.getElapsedNanos() > 0);
+      for (TiffBatchProcessor.Result result : results) {
+        assertNull(result.getModel());
+        if (result.getPath().endsWith("missing.tif")) {
+          assertEquals(-1, result.getCode());
+        } else {
+          assertEquals(0, result.getCode());
+          assertEquals(expected.get(result.getPath()),
+              result.getBaselineValidation().getErrors().toString());
+        }
+      }
+
+      // Results to a queue, with the models and the TIFF/EP validation
+      processor.setKeepModels(true);
+      processor.setOptions(ReaderOptions.builder().epValidation(true).build());
+      LinkedBlockingQueue<TiffBatchProcessor.Result> queue =
+          new LinkedBlockingQueue<TiffBatchProcessor.Result>();
+      stats = processor.process(files.stream(), queue);
+      assertEquals(files.size(), queue.size());
+      assertEquals(0, stats.getFailed());
+      for (TiffBatchProcessor.Result result : queue) {
+        assertNotNull(result.getModel());
+        assertNotNull(result.getTiffEPValidation());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Test that the number of files in flight is bounded.
+   *
+   * @throws Exception the exception
+   */
+  public void testInFlight() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      TiffBatchProcessor processor = new TiffBatchProcessor(executor, 2);
+      processor.setKeepModels(false);
+      AtomicInteger current = new AtomicInteger();
+      AtomicInteger max = new AtomicInteger();
+      Stream<Path> paths = Collections.nCopies(20, DIR.resolve("RGB.tif")).stream().peek(p -> {
+        max.accumulateAndGet(current.incrementAndGet(), Math::max);
+      });
+      TiffBatchProcessor.Statistics stats = processor.process(paths, result -> {
+        current.decrementAndGet();
+      });
+      assertEquals(20, stats.getFiles());
+      assertTrue(max.get() <= 3);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Test that interrupting a worker blocked on a full queue stops the batch with an error.
+   *
+   * @throws Exception the exception
+   */
+  public void testInterruptedQueue() throws Exception {
+    List<Thread> workers = Collections.synchronizedList(new ArrayList<Thread>());
+    ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+      Thread worker = new Thread(r);
+      workers.add(worker);
+      return worker;
+    });
+    try {
+      TiffBatchProcessor processor = new TiffBatchProcessor(executor, 2);
+      ArrayBlockingQueue<TiffBatchProcessor.Result> queue =
+          new ArrayBlockingQueue<TiffBatchProcessor.Result>(1);
+      Thread interrupter = new Thread(() -> {
+        try {
+          while (queue.isEmpty()) {
+            Thread.sleep(10);
+          }
+          // let the worker block on the full queue
+          Thread.sleep(200);
+          workers.get(0).interrupt();
+        } catch (InterruptedException ex) {
+          // the test fails waiting for the batch
+        }
+      });
+      interrupter.start();
+      try {
+        processor.process(Collections.nCopies(20, DIR.resolve("missing.tif")).stream(), queue);
+        fail("The results of the interrupted worker were lost silently");
+      } catch (InterruptedException ex) {
+        // expected
+      }
+      interrupter.join();
+      assertEquals(1, queue.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * <h1>TiffIfdIteratorTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import static java.io.File.separator;
+
+import com.easyinnova.tiff.model.TiffObject;
+import com.easyinnova.tiff.model.ValidationEvent;
+import com.easyinnova.tiff.model.types.IFD;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JUnit Tests for the class TiffIfdIterator.
+ */
+public class TiffIfdIteratorTest extends TestCase {
+
+  /**
+   * Test the iteration over the pages of a file.
+   *
+   * @throws Exception the exception
+   */
+  public void testIterate() throws Exception {
+    File file = File.createTempFile("pages", ".tif");
+    file.deleteOnExit();
+    Files.write(file.toPath(), TiffReaderTest.createPages(50, 0));
+
+    TiffReader full = new TiffReader();
+    full.readFile(file.getPath());
+    List<TiffObject> expected = full.getModel().getIfds();
+
+    TiffReader tr = new TiffReader();
+    AtomicInteger pages = new AtomicInteger();
+    try (TiffIfdIterator it = tr.iterateIFDs(file.getPath())) {
+      it.setPageListener((index, ifd, validation) -> {
+        assertEquals(pages.getAndIncrement(), index);
+        assertNotNull(validation);
+      });
+      int n = 0;
+      while (it.hasNext()) {
+        IFD ifd = it.next();
+        IFD other = (IFD) expected.get(n++);
+        assertNull(ifd.getNextIFD());
+        assertEquals(other.getOffset(), ifd.getOffset());
+        assertEquals(other.getNextOffset(), ifd.getNextOffset());
+        assertEquals(other.getMetadata().getTags().toString(), ifd.getMetadata().getTags().toString());
+        assertEquals(1, ifd.getImageStrips().getStrips().size());
+        assertNotNull(it.getPageValidation());
+      }
+      assertEquals(50, n);
+      assertTrue(it.getValidation().isCorrect());
+    }
+    assertEquals(50, pages.get());
+  }
+
+  /**
+   * Test the detection of circular references and the stream.
+   *
+   * @throws Exception the exception
+   */
+  public void testCircular() throws Exception {
+    File file = File.createTempFile("circular", ".tif");
+    file.deleteOnExit();
+    Files.write(file.toPath(), TiffReaderTest.createPages(20, 8));
+
+    TiffReader tr = new TiffReader();
+    TiffIfdIterator it = tr.iterateIFDs(file.getPath());
+    assertEquals(20, it.stream().count());
+    boolean found = false;
+    for (ValidationEvent error : it.getValidation().getErrors()) {
+      found |= error.toString().contains("IFD offset already used");
+    }
+    assertTrue(found);
+    it.close();
+  }
+
+  /**
+   * Test the iteration over a file with sub IFDs and typed tags.
+   *
+   * @throws Exception the exception
+   */
+  public void testFile() throws Exception {
+    String filename = "src" + separator + "test" + separator + "resources" + separator + "Small"
+        + separator + "RGB.tif";
+    TiffReader full = new TiffReader();
+    full.readFile(filename);
+    IFD expected = full.getModel().getFirstIFD();
+
+    TiffReader tr = new TiffReader();
+    try (TiffIfdIterator it = tr.iterateIFDs(filename)) {
+      IFD ifd = it.next();
+      assertEquals(expected.getMetadata().getTags().toString(),
+          ifd.getMetadata().getTags().toString());
+      assertEquals(expected.getNextIFD() != null, it.hasNext());
+    }
+  }
+}
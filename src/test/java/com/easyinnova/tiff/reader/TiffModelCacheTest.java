@@ -0,0 +1,149 @@
+/**
+ * <h1>TiffModelCacheTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import com.easyinnova.tiff.model.TiffDocument;
+import com.easyinnova.tiff.model.ValidationResult;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * JUnit Tests for the class TiffModelCache.
+ */
+public class TiffModelCacheTest extends TestCase {
+
+  /**
+   * Test the hits, the misses after the file changes, and the eviction.
+   *
+   * @throws Exception the exception
+   */
+  public void testCache() throws Exception {
+    File dir = Files.createTempDirectory("modelcache").toFile();
+    File file = File.createTempFile("cached", ".tif");
+    file.deleteOnExit();
+    Files.copy(Paths.get("src", "test", "resources", "Small", "RGB.tif"), file.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+
+    TiffModelCache cache = new TiffModelCache(dir, 1L << 30);
+    TiffReader tr = new TiffReader();
+    tr.setModelCache(cache);
+    assertEquals(0, tr.readFile(file.getPath(), true));
+    TiffDocument parsed = tr.getModel();
+    int errors = tr.getBaselineValidation().getErrors().size();
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertTrue(cache.getSize() > 0);
+
+    assertEquals(0, tr.readFile(file.getPath(), true));
+    assertEquals(1, cache.getHitCount());
+    assertNull(tr.getStream());
+    assertNotSame(parsed, tr.getModel());
+    assertEquals(parsed.getIfdCount(), tr.getModel().getIfdCount());
+    assertEquals(parsed.getFirstIFD().toString(), tr.getModel().getFirstIFD().toString());
+    assertEquals(errors, tr.getBaselineValidation().getErrors().size());
+
+    // Not validated files are different entries
+    assertEquals(0, tr.readFile(file.getPath(), false));
+    assertEquals(2, cache.getMissCount());
+
+    // A modified file is parsed again
+    assertTrue(file.setLastModified(file.lastModified() - 10000));
+    assertEquals(0, tr.readFile(file.getPath(), true));
+    assertEquals(3, cache.getMissCount());
+    assertNotNull(tr.getStream());
+
+    // The least recently used entries are evicted
+    long entrySize = cache.getSize() / 3;
+    File smallDir = Files.createTempDirectory("modelcache").toFile();
+    TiffModelCache small = new TiffModelCache(smallDir, entrySize * 3 / 2);
+    tr.setModelCache(small);
+    tr.readFile(file.getPath(), true);
+    assertEquals(0, small.getEvictionCount());
+    tr.readFile(file.getPath(), false);
+    assertEquals(1, small.getEvictionCount());
+    assertEquals(1, smallDir.list().length);
+    tr.readFile(file.getPath(), false);
+    assertEquals(1, small.getHitCount());
+
+    small.clear();
+    cache.clear();
+    assertEquals(0, small.getSize());
+    assertEquals(0, dir.list().length);
+    dir.delete();
+    smallDir.delete();
+  }
+
+  /**
+   * Test concurrent readers and writers of the same entry.
+   *
+   * @throws Exception the exception
+   */
+  public void testConcurrentAccess() throws Exception {
+    File dir = Files.createTempDirectory("modelcache").toFile();
+    File file = File.createTempFile("cached", ".tif");
+    file.deleteOnExit();
+    Files.copy(Paths.get("src", "test", "resources", "Small", "RGB.tif"), file.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+
+    TiffReader tr = new TiffReader();
+    assertEquals(0, tr.readFile(file.getPath(), true));
+    TiffDocument model = tr.getModel();
+    ValidationResult validation = tr.getBaselineValidation();
+    String expected = model.getFirstIFD().toString();
+
+    TiffModelCache cache = new TiffModelCache(dir, 1L << 30);
+    assertTrue(cache.put(file, true, model, validation));
+    long entrySize = cache.getSize();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+      for (int i = 0; i < 40; i++) {
+        final boolean write = i % 4 == 0;
+        results.add(pool.submit(() -> {
+          if (write) {
+            return cache.put(file, true, model, validation);
+          }
+          TiffModelCache.Entry entry = cache.get(file, true);
+          return entry != null && expected.equals(entry.getModel().getFirstIFD().toString());
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(30, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+    assertEquals(entrySize, cache.getSize());
+    assertEquals(1, dir.list().length);
+
+    cache.clear();
+    dir.delete();
+  }
+}
@@ -0,0 +1,268 @@
+/**
+ * <h1>TiffReaderTest.java</h1> <p> This program is free software: you can redistribute it
+ * and/or modify it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any later version; or,
+ * at your choice, under the terms of the Mozilla Public License, v. 2.0. SPDX GPL-3.0+ or MPL-2.0+.
+ * </p> <p> This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE. See the GNU General Public License and the Mozilla Public License for more details. </p>
+ * <p> You should have received a copy of the GNU General Public License and the Mozilla Public
+ * License along with this program. If not, see <a href="http://www.gnu.org/licenses/">http://www.gnu.org/licenses/</a>
+ * and at <a href="http://mozilla.org/MPL/2.0">http://mozilla.org/MPL/2.0</a> . </p> <p> NB: for
+ * the © statement, include Easy Innova SL or other company/Person contributing the code. </p> <p>
+ * © 2015 Easy Innova, SL </p>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+package com.easyinnova.tiff.reader;
+
+import static java.io.File.separator;
+
+import com.easyinnova.tiff.io.ChannelSource;
+import com.easyinnova.tiff.io.PagePool;
+import com.easyinnova.tiff.model.TagValue;
+import com.easyinnova.tiff.model.TiffObject;
+import com.easyinnova.tiff.model.TiffTagIds;
+import com.easyinnova.tiff.model.types.IFD;
+import com.easyinnova.tiff.model.types.XMP;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * JUnit Tests for the class TiffReader.
+ */
+public class TiffReaderTest extends TestCase {
+
+  /** The test file. */
+  private static final String FILE = "src" + separator + "test" + separator + "resources"
+      + separator + "Small" + separator + "RGB.tif";
+
+  /**
+   * Test that only the wanted tags are read.
+   *
+   * @throws Exception the exception
+   */
+  public void testWantedTags() throws Exception {
+    TiffReader full = new TiffReader();
+    full.readFile(FILE, false);
+    IFD expected = full.getModel().getFirstIFD();
+
+    TiffReader tr = new TiffReader();
+    tr.setWantedTags(Arrays.asList(TiffTagIds.COMPRESSION, TiffTagIds.DATE_TIME),
+        Collections.singleton("XMP"));
+    tr.readFile(FILE, false);
+    IFD ifd = tr.getModel().getFirstIFD();
+
+    List<TagValue> tags = ifd.getMetadata().getTags();
+    assertEquals(expected.getMetadata().getTags().size(), tags.size());
+    for (TagValue tag : tags) {
+      TagValue other = expected.getMetadata().get(tag.getId());
+      assertEquals(other.getReadOffset(), tag.getReadOffset());
+      switch (tag.getId()) {
+        case TiffTagIds.COMPRESSION:
+        case TiffTagIds.DATE_TIME:
+        case TiffTagIds.IMAGE_WIDTH:
+        case TiffTagIds.STRIP_OFFSETS:
+          assertEquals(other.toString(), tag.toString());
+          break;
+        case TiffTagIds.XMP:
+          assertTrue(tag.getValue().get(0) instanceof XMP);
+          break;
+        case TiffTagIds.IPTC:
+        case TiffTagIds.ICC_PROFILE:
+          assertEquals(0, tag.getCardinality());
+          assertEquals(other.getReadlength(), tag.getReadlength());
+          break;
+        default:
+          break;
+      }
+    }
+    assertEquals(expected.getImageStrips().getStrips().size(),
+        ifd.getImageStrips().getStrips().size());
+
+    tr.setAllTagsWanted();
+    tr.readFile(FILE, false);
+    assertEquals(expected.getTag("Copyright").toString(),
+        tr.getModel().getFirstIFD().getTag("Copyright").toString());
+  }
+
+  /**
+   * Test the reading options.
+   *
+   * @throws Exception the exception
+   */
+  public void testOptions() throws Exception {
+    TiffReader full = new TiffReader();
+    full.readFile(FILE, false);
+    IFD expected = full.getModel().getFirstIFD();
+
+    ReaderOptions options = ReaderOptions.builder().baselineValidation(false).xmp(false)
+        .iccProfile(false).epValidation(true).itValidation(0)
+        .ioStrategy(ReaderOptions.IoStrategy.PAGED).build();
+    assertTrue(ReaderOptions.DEFAULT.isBaselineValidation());
+    assertFalse(options.isDecoded("XMP"));
+    assertTrue(options.isDecoded("IPTC"));
+
+    TiffReader tr = new TiffReader();
+    tr.setOptions(options);
+    assertEquals(0, tr.readFile(FILE));
+    IFD ifd = tr.getModel().getFirstIFD();
+    TagValue xmp = ifd.getMetadata().get(TiffTagIds.XMP);
+    assertFalse(xmp.getValue().get(0) instanceof XMP);
+    assertEquals(expected.getMetadata().get(TiffTagIds.XMP).getReadlength(), xmp.getCardinality());
+    assertEquals(expected.getMetadata().get(TiffTagIds.COPYRIGHT).toString(),
+        ifd.getMetadata().get(TiffTagIds.COPYRIGHT).toString());
+    assertSame(tr.getTiffEPValidation(), tr.getTiffEPValidation());
+    assertSame(tr.getTiffITValidation(0), tr.getTiffITValidation(0));
+    assertNotSame(tr.getTiffITValidation(1), tr.getTiffITValidation(1));
+
+    // The options are immutable, the setters of the reader replace them
+    tr.setLazyValues(true);
+    assertFalse(options.isLazyValues());
+    assertTrue(tr.getOptions().isLazyValues());
+    assertFalse(tr.getOptions().isDecoded("XMP"));
+  }
+
+  /**
+   * Test that the pages of the shared pool are released when a read fails.
+   *
+   * @throws Exception the exception
+   */
+  public void testReleasePagesOnError() throws Exception {
+    File file = File.createTempFile("broken", ".tif");
+    file.deleteOnExit();
+    Files.write(file.toPath(), createPages(3, 0));
+    long inUse = PagePool.getInstance().getInUse();
+
+    TiffReader tr = new TiffReader();
+    tr.setOptions(ReaderOptions.builder().pageCache(64, 4).build());
+    ChannelSource source = new ChannelSource(FileChannel.open(file.toPath())) {
+      @Override public int load(long position, ByteBuffer page) throws IOException {
+        if (position >= 64) {
+          // like the fault of a read from a truncated mapped file
+          throw new InternalError("Unreadable sector");
+        }
+        return super.load(position, page);
+      }
+    };
+    try {
+      tr.read(source);
+      fail();
+    } catch (InternalError ex) {
+      // expected
+    }
+    assertEquals(inUse, PagePool.getInstance().getInUse());
+  }
+
+  /**
+   * Test that parsing the IFDs concurrently gives the same model and errors as parsing them
+   * serially.
+   *
+   * @throws Exception the exception
+   */
+  public void testConcurrentIFDs() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      ReaderOptions concurrent = ReaderOptions.builder().ifdExecutor(executor).build();
+      for (int next : new int[] {0, 8, 1 << 20}) {
+        // A chain of IFDs ended normally, with a circular reference and with an incorrect offset
+        byte[] tiff = createPages(200, next);
+        TiffReader serial = new TiffReader();
+        assertEquals(0, serial.read(tiff));
+        TiffReader tr = new TiffReader();
+        tr.setOptions(concurrent);
+        assertEquals(0, tr.read(tiff));
+        assertEquals(200, tr.getModel().getIfdCount());
+        assertSameRead(serial, tr);
+      }
+      String[] files = {FILE, "src" + separator + "test" + separator + "resources" + separator
+          + "TIFF_EP Samples" + separator + "tiffep-sample-EP-jpeg-thumb.tif"};
+      for (String file : files) {
+        TiffReader serial = new TiffReader();
+        serial.readFile(file);
+        TiffReader tr = new TiffReader();
+        tr.setOptions(concurrent);
+        tr.readFile(file);
+        assertSameRead(serial, tr);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Checks that two readers read the same IFDs with the same errors.
+   *
+   * @param expected the expected reader
+   * @param actual the actual reader
+   */
+  private static void assertSameRead(TiffReader expected, TiffReader actual) {
+    assertEquals(expected.getBaselineValidation().getErrors().toString(),
+        actual.getBaselineValidation().getErrors().toString());
+    assertEquals(expected.getBaselineValidation().getFatalError(),
+        actual.getBaselineValidation().getFatalError());
+    List<TiffObject> ifds = expected.getModel().getIfdsAndSubIfds();
+    List<TiffObject> others = actual.getModel().getIfdsAndSubIfds();
+    assertEquals(ifds.size(), others.size());
+    for (int i = 0; i < ifds.size(); i++) {
+      IFD ifd = (IFD) ifds.get(i);
+      IFD other = (IFD) others.get(i);
+      assertEquals(ifd.getOffset(), other.getOffset());
+      assertEquals(ifd.getNextOffset(), other.getNextOffset());
+      assertEquals(ifd.getMetadata().getTags().toString(), other.getMetadata().getTags().toString());
+    }
+  }
+
+  /**
+   * Creates a little endian Tiff file with a chain of one pixel pages.
+   *
+   * @param pages the number of pages
+   * @param lastNext the next IFD offset of the last page
+   * @return the file bytes
+   */
+  static byte[] createPages(int pages, int lastNext) {
+    int ifdSize = 2 + 5 * 12 + 4;
+    ByteBuffer buffer = ByteBuffer.allocate(8 + pages * ifdSize + 2);
+    buffer.order(java.nio.ByteOrder.LITTLE_ENDIAN);
+    buffer.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(8);
+    int pixel = 8 + pages * ifdSize;
+    for (int i = 0; i < pages; i++) {
+      buffer.putShort((short) 5);
+      putEntry(buffer, TiffTagIds.IMAGE_WIDTH, 3, 1);
+      putEntry(buffer, TiffTagIds.IMAGE_LENGTH, 3, 1);
+      putEntry(buffer, TiffTagIds.STRIP_OFFSETS, 4, pixel);
+      putEntry(buffer, TiffTagIds.ROWS_PER_STRIP, 3, 1);
+      putEntry(buffer, TiffTagIds.STRIP_BYTE_COUNT, 4, 1);
+      buffer.putInt(i == pages - 1 ? lastNext : 8 + (i + 1) * ifdSize);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Writes a directory entry with a single value.
+   *
+   * @param buffer the buffer
+   * @param id the tag id
+   * @param type the tag type
+   * @param value the value
+   */
+  private static void putEntry(ByteBuffer buffer, int id, int type, int value) {
+    buffer.putShort((short) id).putShort((short) type).putInt(1);
+    if (type == 3)
+      buffer.putShort((short) value).putShort((short) 0);
+    else
+      buffer.putInt(value);
+  }
+}